@@ -3,9 +3,11 @@ package com.tracktainment.duxmanager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.tracktainment.duxmanager", "com.playground"})
 @EnableMongoAuditing
+@EnableScheduling
 public class DuxManagerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,79 @@
+package com.tracktainment.duxmanager.benchmark;
+
+import com.tracktainment.duxmanager.dataprovider.impl.AssetDataProviderNoSql;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Translates listByCriteria input into the mapped aggregation pipeline sent to Mongo
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AssetCriteriaBenchmark {
+
+    @Param({"groupId", "externalIds", "dateRange"})
+    private String criteria;
+
+    private AssetDataProviderNoSql assetDataProvider;
+    private MethodHandle toAssetsAggregation;
+    private AggregationOperationContext context;
+    private ListAssetsByCriteriaUseCase.Input input;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        assetDataProvider = new AssetDataProviderNoSql(null, null, null);
+        toAssetsAggregation = MethodHandles.privateLookupIn(AssetDataProviderNoSql.class, MethodHandles.lookup())
+                .findVirtual(
+                        AssetDataProviderNoSql.class,
+                        "toAssetsAggregation",
+                        MethodType.methodType(TypedAggregation.class, ListAssetsByCriteriaUseCase.Input.class)
+                );
+
+        // Same mapping MongoTemplate applies before the pipeline goes out
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        context = new TypeBasedAggregationOperationContext(
+                DigitalUserDocument.class, mappingContext, new QueryMapper(converter));
+
+        List<String> externalIds = BenchmarkFixtures.assets(3).stream().map(asset -> asset.getExternalId()).toList();
+        ListAssetsByCriteriaUseCase.Input.InputBuilder builder = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(0)
+                .limit(100)
+                .digitalUserId("a23e4567-e89b-12d3-a456-426614174009");
+        input = switch (criteria) {
+            case "groupId" -> builder.groupId("com.tracktainment").artifactId("book-manager").build();
+            case "externalIds" -> builder.externalIds(String.join(",", externalIds)).build();
+            default -> builder.from(LocalDate.of(2024, 1, 5)).to(LocalDate.of(2024, 1, 20)).build();
+        };
+    }
+
+    @Benchmark
+    public void buildPipeline(Blackhole blackhole) throws Throwable {
+        TypedAggregation<?> aggregation = (TypedAggregation<?>) toAssetsAggregation.invokeExact(assetDataProvider, input);
+        blackhole.consume(aggregation.toPipeline(context));
+    }
+}
@@ -0,0 +1,128 @@
+package com.tracktainment.duxmanager.benchmark;
+
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.encryption.EncryptionService;
+import org.bson.Document;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+        throw new IllegalStateException("Util class cannot be instantiated.");
+    }
+
+    static EncryptionService encryptionService() {
+        EncryptionService encryptionService = new EncryptionService();
+        setField(encryptionService, "secretKey", "benchmark-secret-key-that-is-at-least-32-chars");
+        setField(encryptionService, "salt", "benchmark-salt");
+        setField(encryptionService, "blindIndexSecret", "benchmark-blind-index-secret-that-is-at-least-32-chars");
+        setField(encryptionService, "blindIndexSalt", "benchmark-blind-index-salt");
+        encryptionService.init();
+        return encryptionService;
+    }
+
+    static List<Asset> assets(int count) {
+        List<Asset> assets = new ArrayList<>(count);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            assets.add(Asset.builder()
+                    .externalId(UUID.nameUUIDFromBytes(("asset-" + i).getBytes()).toString())
+                    .type(i % 3 == 0 ? "book" : i % 3 == 1 ? "movie" : "game")
+                    .permissionPolicy(Asset.PermissionPolicy.OWNER)
+                    .artifactInformation(Asset.ArtifactInformation.builder()
+                            .groupId("com.tracktainment")
+                            .artifactId(i % 2 == 0 ? "book-manager" : "movie-manager")
+                            .version("0.0.1-SNAPSHOT")
+                            .build())
+                    .createdAt(createdAt.plusHours(i))
+                    .build());
+        }
+        return assets;
+    }
+
+    static DigitalUserDocument digitalUserDocument(List<Asset> assets) {
+        return DigitalUserDocument.builder()
+                .id("223e4567-e89b-12d3-a456-426614174008")
+                .identityProviderInformation(DigitalUserDocument.IdentityProviderInformation.builder()
+                        .subject("auth2|123456")
+                        .identityProvider(DigitalUser.IdentityProviderInformation.IdentityProvider.KEY_CLOAK)
+                        .tenantId("tenant1")
+                        .build())
+                .personalInformation(DigitalUserDocument.PersonalInformation.builder()
+                        .fullName("John Doe")
+                        .firstName("John")
+                        .lastName("Doe")
+                        .birthDate("1990-01-01")
+                        .build())
+                .contactMediumList(List.of(
+                        DigitalUserDocument.ContactMedium.builder()
+                                .type(DigitalUser.ContactMedium.Type.EMAIL)
+                                .preferred(true)
+                                .characteristic(DigitalUserDocument.ContactMedium.Characteristic.builder()
+                                        .emailAddress("john.doe@example.com")
+                                        .build())
+                                .build(),
+                        DigitalUserDocument.ContactMedium.builder()
+                                .type(DigitalUser.ContactMedium.Type.PHONE)
+                                .characteristic(DigitalUserDocument.ContactMedium.Characteristic.builder()
+                                        .countryCode("+1")
+                                        .phoneNumber("555-123-4567")
+                                        .build())
+                                .build()
+                ))
+                .assets(assets)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    // Mirrors what the Mongo converter writes for the encrypted parts of a digital user
+    static Document storedForm(DigitalUserDocument document) {
+        DigitalUserDocument.PersonalInformation personalInformation = document.getPersonalInformation();
+        Document storedPersonalInformation = new Document()
+                .append("fullName", personalInformation.getFullName())
+                .append("firstName", personalInformation.getFirstName())
+                .append("lastName", personalInformation.getLastName())
+                .append("birthDate", personalInformation.getBirthDate());
+
+        List<Document> storedContactMediumList = new ArrayList<>();
+        for (DigitalUserDocument.ContactMedium contactMedium : document.getContactMediumList()) {
+            DigitalUserDocument.ContactMedium.Characteristic characteristic = contactMedium.getCharacteristic();
+            Document storedCharacteristic = new Document();
+            putIfPresent(storedCharacteristic, "emailAddress", characteristic.getEmailAddress());
+            putIfPresent(storedCharacteristic, "emailAddressIndex", characteristic.getEmailAddressIndex());
+            putIfPresent(storedCharacteristic, "countryCode", characteristic.getCountryCode());
+            putIfPresent(storedCharacteristic, "phoneNumber", characteristic.getPhoneNumber());
+            putIfPresent(storedCharacteristic, "phoneNumberIndex", characteristic.getPhoneNumberIndex());
+            storedContactMediumList.add(new Document("characteristic", storedCharacteristic));
+        }
+
+        return new Document("_id", document.getId())
+                .append("personalInformation", storedPersonalInformation)
+                .append("contactMediumList", storedContactMediumList)
+                .append("assets", List.of());
+    }
+
+    static void setField(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Error setting benchmark field " + fieldName, e);
+        }
+    }
+
+    private static void putIfPresent(Document document, String key, String value) {
+        if (value != null) {
+            document.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.tracktainment.duxmanager.benchmark;
+
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.mapper.DigitalUserMapperDataProvider;
+import com.tracktainment.duxmanager.mapper.DigitalUserMapperDataProviderImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DigitalUserMapperBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int assetCount;
+
+    private DigitalUserMapperDataProvider mapper;
+    private DigitalUserDocument document;
+
+    @Setup
+    public void setUp() {
+        mapper = new DigitalUserMapperDataProviderImpl();
+        document = BenchmarkFixtures.digitalUserDocument(BenchmarkFixtures.assets(assetCount));
+    }
+
+    @Benchmark
+    public DigitalUser toDigitalUser() {
+        return mapper.toDigitalUser(document);
+    }
+}
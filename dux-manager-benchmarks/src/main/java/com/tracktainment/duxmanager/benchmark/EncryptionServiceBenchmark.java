@@ -0,0 +1,51 @@
+package com.tracktainment.duxmanager.benchmark;
+
+import com.tracktainment.duxmanager.encryption.EncryptionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptionServiceBenchmark {
+
+    @Param({"16", "256", "4096", "65536"})
+    private int payloadSize;
+
+    private EncryptionService encryptionService;
+    private String plainText;
+    private String cipherText;
+    private byte[] envelope;
+
+    @Setup
+    public void setUp() {
+        encryptionService = BenchmarkFixtures.encryptionService();
+        plainText = "x".repeat(payloadSize);
+        cipherText = encryptionService.encrypt(plainText);
+        envelope = encryptionService.encryptToEnvelope(plainText);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionService.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionService.decrypt(cipherText);
+    }
+
+    @Benchmark
+    public byte[] encryptToEnvelope() {
+        return encryptionService.encryptToEnvelope(plainText);
+    }
+
+    @Benchmark
+    public String decryptEnvelope() {
+        return encryptionService.decryptEnvelope(envelope);
+    }
+}
@@ -0,0 +1,34 @@
+package com.tracktainment.duxmanager.benchmark;
+
+import com.tracktainment.duxmanager.util.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4) // contention on the SecureRandom behind randomUUID only shows with several threads
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    private UuidV7Generator uuidV7Generator;
+
+    @Setup
+    public void setUp() {
+        uuidV7Generator = new UuidV7Generator();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String uuidV7() {
+        return uuidV7Generator.generate();
+    }
+}
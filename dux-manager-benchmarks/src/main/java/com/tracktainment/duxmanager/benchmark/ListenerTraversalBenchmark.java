@@ -0,0 +1,88 @@
+package com.tracktainment.duxmanager.benchmark;
+
+import com.tracktainment.duxmanager.config.MongoDecryptionConfig;
+import com.tracktainment.duxmanager.config.MongoEncryptionConfig;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.encryption.EncryptionService;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Measures the encryption listeners' graph walk, assets must not make it slower
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListenerTraversalBenchmark {
+
+    private static final String COLLECTION = "digital-users";
+
+    @Param({"0", "100", "10000"})
+    private int assetCount;
+
+    private MongoEncryptionConfig.EncryptionMongoEventListener encryptionListener;
+    private MongoDecryptionConfig.DecryptionMongoEventListener decryptionListener;
+    private List<Asset> assets;
+    private DigitalUserDocument encryptedTemplate;
+    private Document storedForm;
+
+    private DigitalUserDocument plainDocument;
+    private DigitalUserDocument encryptedDocument;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        EncryptionService encryptionService = BenchmarkFixtures.encryptionService();
+        encryptionListener = new MongoEncryptionConfig(encryptionService).encryptionMongoEventListener();
+        decryptionListener = new MongoDecryptionConfig(encryptionService).decryptionMongoEventListener();
+        assets = BenchmarkFixtures.assets(assetCount);
+
+        encryptedTemplate = BenchmarkFixtures.digitalUserDocument(assets);
+        encryptionListener.onBeforeConvert(new BeforeConvertEvent<>(encryptedTemplate, COLLECTION));
+        storedForm = BenchmarkFixtures.storedForm(encryptedTemplate);
+    }
+
+    // Both listeners mutate the entity in place, so every invocation gets fresh holders sharing the asset list
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        plainDocument = BenchmarkFixtures.digitalUserDocument(assets);
+        encryptedDocument = BenchmarkFixtures.digitalUserDocument(assets);
+        copyEncryptedFields(encryptedTemplate, encryptedDocument);
+    }
+
+    @Benchmark
+    public DigitalUserDocument encryptBeforeSave() {
+        encryptionListener.onBeforeConvert(new BeforeConvertEvent<>(plainDocument, COLLECTION));
+        encryptionListener.onAfterSave(new AfterSaveEvent<>(plainDocument, storedForm, COLLECTION));
+        return plainDocument;
+    }
+
+    @Benchmark
+    public DigitalUserDocument decryptAfterLoad() {
+        decryptionListener.onAfterConvert(new AfterConvertEvent<>(storedForm, encryptedDocument, COLLECTION));
+        return encryptedDocument;
+    }
+
+    private static void copyEncryptedFields(DigitalUserDocument source, DigitalUserDocument target) {
+        DigitalUserDocument.PersonalInformation personalInformation = target.getPersonalInformation();
+        personalInformation.setFullName(source.getPersonalInformation().getFullName());
+        personalInformation.setFirstName(source.getPersonalInformation().getFirstName());
+        personalInformation.setLastName(source.getPersonalInformation().getLastName());
+        personalInformation.setBirthDate(source.getPersonalInformation().getBirthDate());
+
+        for (int i = 0; i < source.getContactMediumList().size(); i++) {
+            DigitalUserDocument.ContactMedium.Characteristic from = source.getContactMediumList().get(i).getCharacteristic();
+            DigitalUserDocument.ContactMedium.Characteristic to = target.getContactMediumList().get(i).getCharacteristic();
+            to.setEmailAddress(from.getEmailAddress());
+            to.setCountryCode(from.getCountryCode());
+            to.setPhoneNumber(from.getPhoneNumber());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.tracktainment.duxmanager.benchmark;
+
+import com.tracktainment.duxmanager.config.MongoEncryptionConfig;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-field ciphertext against one sealed blob per @EncryptedSubdocument, the stored size is printed at setup
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SealedSubdocumentBenchmark {
+
+    private static final String COLLECTION = "digital-users";
+
+    @Param({"false", "true"})
+    private boolean sealSubdocuments;
+
+    @Param({"TEXT", "BINARY"})
+    private MongoEncryptionConfig.StorageFormat storageFormat;
+
+    private MongoEncryptionConfig.EncryptionMongoEventListener encryptionListener;
+    private DigitalUserDocument document;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        MongoEncryptionConfig config = new MongoEncryptionConfig(BenchmarkFixtures.encryptionService());
+        BenchmarkFixtures.setField(config, "sealSubdocuments", sealSubdocuments);
+        BenchmarkFixtures.setField(config, "storageFormat", storageFormat);
+        encryptionListener = config.encryptionMongoEventListener();
+
+        Document stored = write(BenchmarkFixtures.digitalUserDocument(List.of()));
+        int storedBytes = new RawBsonDocument(stored, new DocumentCodec()).getByteBuffer().remaining();
+        System.out.println("Stored BSON size (sealSubdocuments=" + sealSubdocuments
+                + ", storageFormat=" + storageFormat + "): " + storedBytes + " bytes");
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        document = BenchmarkFixtures.digitalUserDocument(List.of());
+    }
+
+    @Benchmark
+    public Document write() {
+        return write(document);
+    }
+
+    private Document write(DigitalUserDocument digitalUserDocument) {
+        encryptionListener.onBeforeConvert(new BeforeConvertEvent<>(digitalUserDocument, COLLECTION));
+        Document stored = BenchmarkFixtures.storedForm(digitalUserDocument);
+        encryptionListener.onBeforeSave(new BeforeSaveEvent<>(digitalUserDocument, stored, COLLECTION));
+        return stored;
+    }
+}
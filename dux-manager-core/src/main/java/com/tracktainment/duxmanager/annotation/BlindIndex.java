@@ -0,0 +1,54 @@
+package com.tracktainment.duxmanager.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+// Marks a String field that holds a keyed HMAC of its sibling source fields, computed before they are encrypted
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface BlindIndex {
+
+    // A control character no normalized source holds, so ("1", "23") and ("12", "3") never index alike
+    String SOURCE_SEPARATOR = "\u001F";
+
+    String[] sources();
+
+    Normalization normalization() default Normalization.NONE;
+
+    enum Normalization {
+        NONE,
+        LOWERCASE,
+        DIGITS;
+
+        public String normalize(String value) {
+            if (value == null) {
+                return null;
+            }
+
+            return switch (this) {
+                case NONE -> value;
+                case LOWERCASE -> value.trim().toLowerCase(Locale.ROOT);
+                case DIGITS -> value.replaceAll("\\D", "");
+            };
+        }
+
+        // Positional, a missing source still takes its slot, and null when no source has a value
+        public String normalizeAndJoin(String... values) {
+            StringJoiner joiner = new StringJoiner(SOURCE_SEPARATOR);
+            boolean present = false;
+            for (String value : values) {
+                String normalized = normalize(value);
+                if (normalized != null && !normalized.isEmpty()) {
+                    present = true;
+                }
+                joiner.add(normalized == null ? "" : normalized);
+            }
+
+            return present ? joiner.toString() : null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.tracktainment.duxmanager.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a class whose @Encrypted fields may be encrypted together as one blob instead of one by one
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EncryptedSubdocument {
+}
@@ -4,15 +4,26 @@ import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.dto.AssetCreate;
 import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public interface AssetDataProvider {
 
     Asset create(String digitalUserId, AssetCreate assetCreate);
 
+    // Items must have distinct externalIds, those already taken are skipped and left out of the result
+    List<Asset> createAll(String digitalUserId, List<AssetCreate> assetCreates);
+
     Asset findByExternalId(String digitalUserId, String externalId);
 
     List<Asset> listByCriteria(ListAssetsByCriteriaUseCase.Input input);
 
+    // Checks the user up front, the cursor is only opened by the supplier and callers must close its stream
+    Supplier<Stream<Asset>> streamAll(String digitalUserId);
+
     void delete(String digitalUserId, String externalId);
+
+    void deleteAll(String digitalUserId, Collection<String> externalIds);
 }
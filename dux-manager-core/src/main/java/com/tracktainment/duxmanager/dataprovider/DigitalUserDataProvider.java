@@ -1,19 +1,39 @@
 package com.tracktainment.duxmanager.dataprovider;
 
+import com.tracktainment.duxmanager.domain.BaseObject;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import com.tracktainment.duxmanager.dto.DigitalUserCreate;
 
+import java.util.List;
+import java.util.Set;
+
 public interface DigitalUserDataProvider {
 
     DigitalUser create(DigitalUserCreate digitalUserCreate);
 
-    DigitalUser findById(String id);
+    // Parts not in expansions are neither read nor mapped
+    DigitalUser findById(String id, Set<DigitalUser.Expansion> expansions);
 
+    // Login lookup, never reads the assets whatever the expansions
     DigitalUser findBySubAndIdPAndTenant(
+            String subject,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+            String tenantId,
+            Set<DigitalUser.Expansion> expansions
+    );
+
+    // Only the id and timestamps, nothing is decrypted
+    BaseObject resolveIdBySubAndIdPAndTenant(
             String subject,
             DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
             String tenantId
     );
 
+    // Contact lookups return identity information only, never personal data or assets
+    List<DigitalUser> findByEmailAddress(String emailAddress);
+
+    // The country code is optional and must match the one stored with the number
+    List<DigitalUser> findByPhoneNumber(String countryCode, String phoneNumber);
+
     void delete(String id);
 }
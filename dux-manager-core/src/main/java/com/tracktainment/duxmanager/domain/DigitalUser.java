@@ -29,6 +29,25 @@ public class DigitalUser extends BaseObject {
     @Schema(description = "Assets owned by the user")
     private List<Asset> assets;
 
+    // Parts left out of reads unless the caller asks for them, values are the field names
+    @ToString
+    @Getter
+    @RequiredArgsConstructor
+    @Schema(description = "Optional digital user parts")
+    public enum Expansion {
+
+        @Schema(description = "Personal information")
+        PERSONAL_INFORMATION("personalInformation"),
+
+        @Schema(description = "Contact medium list")
+        CONTACT_MEDIUM_LIST("contactMediumList"),
+
+        @Schema(description = "Assets owned by the user")
+        ASSETS("assets");
+
+        private final String value;
+    }
+
     @AllArgsConstructor
     @NoArgsConstructor
     @Data
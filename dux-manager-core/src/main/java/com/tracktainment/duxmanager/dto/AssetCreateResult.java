@@ -0,0 +1,36 @@
+package com.tracktainment.duxmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tracktainment.duxmanager.domain.Asset;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one item of a bulk asset creation")
+public class AssetCreateResult {
+
+    @Schema(description = "Position of the item in the request", example = "0")
+    private int index;
+
+    @Schema(description = "External ID of the item", example = "123e4567-e89b-12d3-a456-426614174000")
+    private String externalId;
+
+    @Schema(description = "Status the item would have received on its own", example = "201")
+    private int httpStatusCode;
+
+    @Schema(description = "Created asset, present on success")
+    private Asset asset;
+
+    @Schema(description = "Error code, present on failure", example = "E-003")
+    private String code;
+
+    @Schema(description = "Error reason, present on failure", example = "Resource already exists.")
+    private String reason;
+
+    @Schema(description = "Error message, present on failure")
+    private String message;
+}
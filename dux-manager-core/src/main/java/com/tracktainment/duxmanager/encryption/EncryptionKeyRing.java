@@ -0,0 +1,60 @@
+package com.tracktainment.duxmanager.encryption;
+
+import javax.crypto.SecretKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public final class EncryptionKeyRing {
+
+    private final Map<Integer, SecretKey> keys;
+    private final int activeKeyVersion;
+
+    private EncryptionKeyRing(Map<Integer, SecretKey> keys, int activeKeyVersion) {
+        if (!keys.containsKey(activeKeyVersion)) {
+            throw new IllegalArgumentException("Active key version " + activeKeyVersion + " is not in the key ring.");
+        }
+
+        this.keys = Map.copyOf(keys);
+        this.activeKeyVersion = activeKeyVersion;
+    }
+
+    public static EncryptionKeyRing of(int keyVersion, SecretKey key) {
+        return new EncryptionKeyRing(Map.of(keyVersion, key), keyVersion);
+    }
+
+    public EncryptionKeyRing withKey(int keyVersion, SecretKey key) {
+        if (keys.containsKey(keyVersion)) {
+            throw new IllegalArgumentException("Key version " + keyVersion + " is already in the key ring.");
+        }
+
+        Map<Integer, SecretKey> newKeys = new HashMap<>(keys);
+        newKeys.put(keyVersion, key);
+        return new EncryptionKeyRing(newKeys, activeKeyVersion);
+    }
+
+    public EncryptionKeyRing withActiveKeyVersion(int keyVersion) {
+        return new EncryptionKeyRing(keys, keyVersion);
+    }
+
+    public int getActiveKeyVersion() {
+        return activeKeyVersion;
+    }
+
+    public SecretKey getActiveKey() {
+        return keys.get(activeKeyVersion);
+    }
+
+    public SecretKey getKey(int keyVersion) {
+        SecretKey key = keys.get(keyVersion);
+        if (key == null) {
+            throw new IllegalArgumentException("Key version " + keyVersion + " is not in the key ring.");
+        }
+
+        return key;
+    }
+
+    public Set<Integer> getKeyVersions() {
+        return keys.keySet();
+    }
+}
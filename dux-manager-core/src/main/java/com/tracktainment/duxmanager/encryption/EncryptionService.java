@@ -1,19 +1,23 @@
 package com.tracktainment.duxmanager.encryption;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.security.spec.KeySpec;
 import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class EncryptionService {
@@ -24,63 +28,315 @@ public class EncryptionService {
     @Value("${encryption.salt}")
     private String salt;
 
+    @Value("${encryption.key-version:1}")
+    private int keyVersion = 1;
+
+    // Key being rotated away from, kept in the key ring so existing ciphertext stays readable
+    @Value("${encryption.previous-secret-key:}")
+    private String previousSecretKey;
+
+    @Value("${encryption.previous-salt:}")
+    private String previousSalt;
+
+    @Value("${encryption.previous-key-version:0}")
+    private int previousKeyVersion;
+
+    // Required and independent of secret-key and salt, rotating those must not change any stored blind index
+    @Value("${encryption.blind-index-secret:}")
+    private String blindIndexSecret;
+
+    @Value("${encryption.blind-index-salt:}")
+    private String blindIndexSalt;
+
     private static final String ALGORITHM = "AES/GCM/NoPadding";
     private static final int GCM_TAG_LENGTH = 128;
     private static final int GCM_IV_LENGTH = 12;
+    private static final byte ENVELOPE_FORMAT = 1;
+    private static final int ENVELOPE_HEADER_LENGTH = 2;
+    private static final String ENVELOPE_TEXT_PREFIX = "$";
+    private static final String BLIND_INDEX_ALGORITHM = "HmacSHA256";
+    private static final int MAX_POOLED_CIPHERS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    // Pooled rather than thread-local so virtual threads do not each pay for provider lookup and seeding
+    private final Queue<CipherHolder> cipherPool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCiphers = new AtomicInteger();
+
+    // Derived once at startup, PBKDF2 is far too expensive for the per-field hot path
+    private volatile EncryptionKeyRing keyRing;
+    private volatile Mac blindIndexMac;
+
+    @PostConstruct
+    public void init() {
+        validateKeyVersion(keyVersion);
+        EncryptionKeyRing newKeyRing = EncryptionKeyRing.of(keyVersion, deriveSecretKey(secretKey, salt));
+
+        if (previousSecretKey != null && !previousSecretKey.isEmpty()) {
+            validateKeyVersion(previousKeyVersion);
+            newKeyRing = newKeyRing.withKey(
+                    previousKeyVersion,
+                    deriveSecretKey(
+                            previousSecretKey,
+                            previousSalt != null && !previousSalt.isEmpty() ? previousSalt : salt
+                    )
+            );
+        }
+
+        if (blindIndexSecret == null || blindIndexSecret.isBlank() || blindIndexSalt == null || blindIndexSalt.isBlank()) {
+            throw new IllegalStateException("Encryption blind index secret and salt must be configured.");
+        }
+
+        keyRing = newKeyRing;
+        blindIndexMac = createBlindIndexMac(deriveSecretKey(blindIndexSecret, blindIndexSalt));
+    }
+
+    public int getActiveKeyVersion() {
+        return getKeyRing().getActiveKeyVersion();
+    }
+
+    // Legacy Base64 ciphertext carries no version and is never considered current
+    public boolean isActiveKeyVersion(String encryptedText) {
+        if (!isEnvelopeText(encryptedText) || encryptedText.length() < 5) {
+            return false;
+        }
 
-    public String encrypt(String plainText) {
         try {
-            if (plainText == null) {
-                return null;
-            }
+            byte[] header = Base64.getDecoder().decode(encryptedText.substring(1, 5));
+            return isActiveKeyVersion(header);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
+    public boolean isActiveKeyVersion(byte[] envelope) {
+        return envelope != null
+                && envelope.length >= ENVELOPE_HEADER_LENGTH
+                && envelope[0] == ENVELOPE_FORMAT
+                && Byte.toUnsignedInt(envelope[1]) == getActiveKeyVersion();
+    }
 
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec gcmParameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, getSecretKey(), gcmParameterSpec);
+    public EncryptionKeyRing getKeyRing() {
+        EncryptionKeyRing currentKeyRing = keyRing;
+        if (currentKeyRing == null) {
+            throw new IllegalStateException("Encryption key ring has not been initialized.");
+        }
 
-            byte[] encryptedText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+        return currentKeyRing;
+    }
 
-            ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + encryptedText.length);
-            byteBuffer.put(iv);
-            byteBuffer.put(encryptedText);
+    public String encrypt(String plainText) {
+        if (plainText == null) {
+            return null;
+        }
 
-            return Base64.getEncoder().encodeToString(byteBuffer.array());
-        } catch (Exception e) {
-            throw new RuntimeException("Error encrypting data", e);
+        return Base64.getEncoder().encodeToString(seal(plainText, 0, getKeyRing().getActiveKey()));
+    }
+
+    // Envelope layout: format || key version || iv || ciphertext || tag
+    public byte[] encryptToEnvelope(String plainText) {
+        if (plainText == null) {
+            return null;
         }
+
+        EncryptionKeyRing currentKeyRing = getKeyRing();
+        byte[] envelope = seal(plainText, ENVELOPE_HEADER_LENGTH, currentKeyRing.getActiveKey());
+        envelope[0] = ENVELOPE_FORMAT;
+        envelope[1] = (byte) currentKeyRing.getActiveKeyVersion();
+        return envelope;
     }
 
+    public String encryptToEnvelopeText(String plainText) {
+        if (plainText == null) {
+            return null;
+        }
+
+        return ENVELOPE_TEXT_PREFIX + Base64.getEncoder().encodeToString(encryptToEnvelope(plainText));
+    }
+
+    // Accepts both the legacy Base64 text and the envelope text form
     public String decrypt(String encryptedText) {
+        if (encryptedText == null) {
+            return null;
+        }
+
+        if (isEnvelopeText(encryptedText)) {
+            return decryptEnvelope(decodeEnvelopeText(encryptedText));
+        }
+
+        byte[] encryptedData;
         try {
-            if (encryptedText == null) {
-                return null;
+            encryptedData = Base64.getDecoder().decode(encryptedText);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Error decrypting data", e);
+        }
+
+        // Legacy ciphertext does not say which key wrote it, GCM authentication rejects the wrong ones
+        EncryptionKeyRing currentKeyRing = getKeyRing();
+        try {
+            return open(encryptedData, 0, currentKeyRing.getActiveKey());
+        } catch (RuntimeException e) {
+            for (int version : currentKeyRing.getKeyVersions()) {
+                if (version == currentKeyRing.getActiveKeyVersion()) {
+                    continue;
+                }
+
+                try {
+                    return open(encryptedData, 0, currentKeyRing.getKey(version));
+                } catch (RuntimeException ignored) {
+                    // Try the next key
+                }
             }
+            throw e;
+        }
+    }
+
+    public String decryptEnvelope(byte[] envelope) {
+        if (envelope == null) {
+            return null;
+        }
+
+        if (envelope.length <= ENVELOPE_HEADER_LENGTH + GCM_IV_LENGTH || envelope[0] != ENVELOPE_FORMAT) {
+            throw new RuntimeException("Error decrypting data", new IllegalArgumentException("Unsupported envelope format."));
+        }
+
+        SecretKey key;
+        try {
+            key = getKeyRing().getKey(Byte.toUnsignedInt(envelope[1]));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Error decrypting data", e);
+        }
+
+        return open(envelope, ENVELOPE_HEADER_LENGTH, key);
+    }
+
+    public static boolean isEnvelopeText(String encryptedText) {
+        return encryptedText != null && encryptedText.startsWith(ENVELOPE_TEXT_PREFIX);
+    }
 
-            byte[] encryptedData = Base64.getDecoder().decode(encryptedText);
+    public static byte[] decodeEnvelopeText(String encryptedText) {
+        try {
+            return Base64.getDecoder().decode(encryptedText.substring(ENVELOPE_TEXT_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Error decrypting data", e);
+        }
+    }
 
-            ByteBuffer byteBuffer = ByteBuffer.wrap(encryptedData);
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            byteBuffer.get(iv);
-            byte[] cipherText = new byte[byteBuffer.remaining()];
-            byteBuffer.get(cipherText);
+    public static String encodeEnvelopeText(byte[] envelope) {
+        return ENVELOPE_TEXT_PREFIX + Base64.getEncoder().encodeToString(envelope);
+    }
 
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec gcmParameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.DECRYPT_MODE, getSecretKey(), gcmParameterSpec);
-            byte[] decryptedText = cipher.doFinal(cipherText);
+    // Deterministic keyed hash, equal inputs give equal indexes so they can be matched without decrypting
+    public String blindIndex(String value) {
+        if (value == null) {
+            return null;
+        }
 
+        Mac prototype = blindIndexMac;
+        if (prototype == null) {
+            throw new IllegalStateException("Encryption key ring has not been initialized.");
+        }
+
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException("Error computing blind index", e);
+        }
+    }
+
+    // IV and ciphertext are written into one pre-sized array after headerLength bytes: iv || ciphertext || tag
+    private byte[] seal(String plainText, int headerLength, SecretKey key) {
+        CipherHolder holder = borrowCipher();
+        try {
+            byte[] plainBytes = plainText.getBytes(StandardCharsets.UTF_8);
+            byte[] output = new byte[headerLength + GCM_IV_LENGTH + plainBytes.length + GCM_TAG_LENGTH / Byte.SIZE];
+
+            // SecureRandom cannot fill a slice, so the IV goes through the holder's scratch array, never a fresh one
+            byte[] iv = holder.iv();
+            holder.random().nextBytes(iv);
+            System.arraycopy(iv, 0, output, headerLength, GCM_IV_LENGTH);
+
+            holder.cipher().init(
+                    Cipher.ENCRYPT_MODE,
+                    key,
+                    new GCMParameterSpec(GCM_TAG_LENGTH, output, headerLength, GCM_IV_LENGTH)
+            );
+            holder.cipher().doFinal(plainBytes, 0, plainBytes.length, output, headerLength + GCM_IV_LENGTH);
+
+            releaseCipher(holder);
+            return output;
+        } catch (Exception e) {
+            throw new RuntimeException("Error encrypting data", e);
+        }
+    }
+
+    private String open(byte[] encryptedData, int offset, SecretKey key) {
+        CipherHolder holder = borrowCipher();
+        try {
+            holder.cipher().init(
+                    Cipher.DECRYPT_MODE,
+                    key,
+                    new GCMParameterSpec(GCM_TAG_LENGTH, encryptedData, offset, GCM_IV_LENGTH)
+            );
+            byte[] decryptedText = holder.cipher().doFinal(
+                    encryptedData, offset + GCM_IV_LENGTH, encryptedData.length - offset - GCM_IV_LENGTH
+            );
+
+            releaseCipher(holder);
             return new String(decryptedText, StandardCharsets.UTF_8);
         } catch (Exception e) {
             throw new RuntimeException("Error decrypting data", e);
         }
     }
 
-    private SecretKey getSecretKey() throws Exception {
-        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-        KeySpec spec = new PBEKeySpec(secretKey.toCharArray(), salt.getBytes(), 65536, 256);
-        return new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
+    // A holder that failed mid-operation is dropped instead of returned, init() fully resets the others
+    private CipherHolder borrowCipher() {
+        CipherHolder holder = cipherPool.poll();
+        if (holder != null) {
+            pooledCiphers.decrementAndGet();
+            return holder;
+        }
+
+        try {
+            return new CipherHolder(Cipher.getInstance(ALGORITHM), new SecureRandom(), new byte[GCM_IV_LENGTH]);
+        } catch (Exception e) {
+            throw new RuntimeException("Error creating cipher", e);
+        }
+    }
+
+    private void releaseCipher(CipherHolder holder) {
+        if (pooledCiphers.get() < MAX_POOLED_CIPHERS) {
+            pooledCiphers.incrementAndGet();
+            cipherPool.offer(holder);
+        }
+    }
+
+    private static void validateKeyVersion(int version) {
+        if (version < 0 || version > 255) {
+            throw new IllegalArgumentException("Encryption key version must be between 0 and 255.");
+        }
+    }
+
+    private static Mac createBlindIndexMac(SecretKey key) {
+        try {
+            Mac mac = Mac.getInstance(BLIND_INDEX_ALGORITHM);
+            mac.init(new SecretKeySpec(key.getEncoded(), BLIND_INDEX_ALGORITHM));
+            return mac;
+        } catch (Exception e) {
+            throw new RuntimeException("Error deriving blind index key", e);
+        }
+    }
+
+    static SecretKey deriveSecretKey(String secretKey, String salt) {
+        try {
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            KeySpec spec = new PBEKeySpec(secretKey.toCharArray(), salt.getBytes(), 65536, 256);
+            return new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
+        } catch (Exception e) {
+            throw new RuntimeException("Error deriving encryption key", e);
+        }
+    }
+
+    private record CipherHolder(Cipher cipher, SecureRandom random, byte[] iv) {
     }
 }
@@ -0,0 +1,133 @@
+package com.tracktainment.duxmanager.usecases.asset;
+
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.dto.AssetCreateResult;
+import com.tracktainment.duxmanager.exception.AuthenticationFailedException;
+import com.tracktainment.duxmanager.exception.BusinessException;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
+import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
+import com.tracktainment.duxmanager.security.DigitalUserSecurityContext;
+import com.tracktainment.duxmanager.security.SecurityUtil;
+import com.tracktainment.duxmanager.util.Constants;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CreateAssetsUseCase {
+
+    private final AssetDataProvider assetDataProvider;
+    private final SecurityUtil securityUtil;
+    private final Validator validator;
+
+    public Output execute(Input input) {
+        // Check if digital user is authenticated
+        DigitalUserSecurityContext digitalUserSecurityContext = securityUtil.getDigitalUser();
+        if (!digitalUserSecurityContext.getId().equals(input.getDigitalUserId())) {
+            throw new AuthenticationFailedException("Authentication Failed: User ID does not match ID from JWT.");
+        }
+
+        List<AssetCreate> assetCreates = input.getAssetCreates();
+        if (assetCreates == null || assetCreates.isEmpty() || assetCreates.size() > Constants.MAX_BULK_CREATE_SIZE) {
+            throw new ParameterValidationErrorException(Constants.BULK_CREATE_SIZE_INVALID_MSG);
+        }
+
+        // Invalid items and repeated externalIds fail on their own, the rest of the batch still goes through
+        AssetCreateResult[] results = new AssetCreateResult[assetCreates.size()];
+        Map<String, Integer> acceptedIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < assetCreates.size(); i++) {
+            AssetCreate assetCreate = assetCreates.get(i);
+            String violations = validate(assetCreate);
+
+            if (violations != null) {
+                results[i] = toFailure(i, assetCreate, new ParameterValidationErrorException(violations));
+            } else if (acceptedIndexes.putIfAbsent(assetCreate.getExternalId(), i) != null) {
+                results[i] = toFailure(i, assetCreate,
+                        new ParameterValidationErrorException(Constants.EXTERNAL_ID_DUPLICATED_MSG));
+            }
+        }
+
+        Map<String, Asset> createdAssets = new HashMap<>();
+        if (!acceptedIndexes.isEmpty()) {
+            List<AssetCreate> accepted = acceptedIndexes.values().stream().map(assetCreates::get).toList();
+            createdAssets = assetDataProvider.createAll(input.getDigitalUserId(), accepted).stream()
+                    .collect(Collectors.toMap(Asset::getExternalId, Function.identity()));
+        }
+
+        for (Map.Entry<String, Integer> accepted : acceptedIndexes.entrySet()) {
+            int index = accepted.getValue();
+            Asset asset = createdAssets.get(accepted.getKey());
+
+            results[index] = asset != null
+                    ? AssetCreateResult.builder()
+                            .index(index)
+                            .externalId(asset.getExternalId())
+                            .httpStatusCode(HttpStatus.CREATED.value())
+                            .asset(asset)
+                            .build()
+                    : toFailure(index, assetCreates.get(index),
+                            new ResourceAlreadyExistsException(Asset.class, accepted.getKey()));
+        }
+
+        return Output.builder()
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private String validate(AssetCreate assetCreate) {
+        if (assetCreate == null) {
+            return Constants.ASSET_MANDATORY_MSG;
+        }
+
+        Set<ConstraintViolation<AssetCreate>> violations = validator.validate(assetCreate);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private AssetCreateResult toFailure(int index, AssetCreate assetCreate, BusinessException e) {
+        return AssetCreateResult.builder()
+                .index(index)
+                .externalId(assetCreate != null ? assetCreate.getExternalId() : null)
+                .httpStatusCode(e.getHttpStatusCode())
+                .code(e.getCode())
+                .reason(e.getReason())
+                .message(e.getMessage())
+                .build();
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @Builder
+    public static class Input {
+
+        private String digitalUserId;
+        private List<AssetCreate> assetCreates;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @Builder
+    public static class Output {
+
+        private List<AssetCreateResult> results; // One per requested item, in request order
+    }
+}
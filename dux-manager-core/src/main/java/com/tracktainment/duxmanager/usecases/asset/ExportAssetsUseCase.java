@@ -0,0 +1,52 @@
+package com.tracktainment.duxmanager.usecases.asset;
+
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.exception.AuthenticationFailedException;
+import com.tracktainment.duxmanager.security.DigitalUserSecurityContext;
+import com.tracktainment.duxmanager.security.SecurityUtil;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportAssetsUseCase {
+
+    private final AssetDataProvider assetDataProvider;
+    private final SecurityUtil securityUtil;
+
+    public Output execute(Input input) {
+        // Check if digital user is authenticated
+        DigitalUserSecurityContext digitalUserSecurityContext = securityUtil.getDigitalUser();
+        if (!digitalUserSecurityContext.getId().equals(input.getDigitalUserId())) {
+            throw new AuthenticationFailedException("Authentication Failed: User ID does not match ID from JWT.");
+        }
+
+        return Output.builder()
+                .assets(assetDataProvider.streamAll(input.getDigitalUserId()))
+                .build();
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @Builder
+    public static class Input {
+
+        private String digitalUserId;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @Builder
+    public static class Output {
+
+        private Supplier<Stream<Asset>> assets; // Opens a database cursor, the stream must be closed by the consumer
+    }
+}
@@ -3,8 +3,11 @@ package com.tracktainment.duxmanager.usecases.asset;
 import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.exception.AuthenticationFailedException;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
 import com.tracktainment.duxmanager.security.DigitalUserSecurityContext;
 import com.tracktainment.duxmanager.security.SecurityUtil;
+import com.tracktainment.duxmanager.util.AssetCursor;
+import com.tracktainment.duxmanager.util.Constants;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,8 +30,22 @@ public class ListAssetsByCriteriaUseCase {
             throw new AuthenticationFailedException("Authentication Failed: User ID does not match ID from JWT.");
         }
 
+        // A cursor already marks the position, an offset on top of it would silently skip items
+        if (input.getCursor() != null && input.getOffset() != null && input.getOffset() > 0) {
+            throw new ParameterValidationErrorException(Constants.CURSOR_WITH_OFFSET_INVALID_MSG);
+        }
+
+        List<Asset> assets = assetDataProvider.listByCriteria(input);
+
+        // A full page may have a successor, the last item's (createdAt, id) is where the next one starts
+        String nextCursor = null;
+        if (!assets.isEmpty() && input.getLimit() != null && assets.size() >= input.getLimit()) {
+            nextCursor = AssetCursor.of(assets.get(assets.size() - 1)).encode();
+        }
+
         return Output.builder()
-                .assets(assetDataProvider.listByCriteria(input))
+                .assets(assets)
+                .nextCursor(nextCursor)
                 .build();
     }
 
@@ -48,6 +65,7 @@ public class ListAssetsByCriteriaUseCase {
         private LocalDate createdAt;
         private LocalDate from;
         private LocalDate to;
+        private String cursor;
     }
 
     @AllArgsConstructor
@@ -57,5 +75,6 @@ public class ListAssetsByCriteriaUseCase {
     public static class Output {
 
         private List<Asset> assets;
+        private String nextCursor;
     }
 }
@@ -6,6 +6,8 @@ import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -15,7 +17,10 @@ public class FindDigitalUserByIdUseCase {
 
     public Output execute(Input input) {
         return Output.builder()
-                .digitalUser(digitalUserDataProvider.findById(input.getDigitalUserId()))
+                .digitalUser(digitalUserDataProvider.findById(
+                        input.getDigitalUserId(),
+                        input.getExpansions() == null ? Set.of() : input.getExpansions()
+                ))
                 .build();
     }
 
@@ -26,6 +31,7 @@ public class FindDigitalUserByIdUseCase {
     public static class Input {
 
         private String digitalUserId;
+        private Set<DigitalUser.Expansion> expansions;
     }
 
     @AllArgsConstructor
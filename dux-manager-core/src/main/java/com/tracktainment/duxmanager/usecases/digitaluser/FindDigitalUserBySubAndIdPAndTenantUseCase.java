@@ -2,10 +2,14 @@ package com.tracktainment.duxmanager.usecases.digitaluser;
 
 import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
 import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
+import com.tracktainment.duxmanager.util.Constants;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -14,11 +18,17 @@ public class FindDigitalUserBySubAndIdPAndTenantUseCase {
     private final DigitalUserDataProvider digitalUserDataProvider;
 
     public Output execute(Input input) {
+        Set<DigitalUser.Expansion> expansions = input.getExpansions() == null ? Set.of() : input.getExpansions();
+        if (expansions.contains(DigitalUser.Expansion.ASSETS)) {
+            throw new ParameterValidationErrorException(Constants.LOGIN_EXPAND_ASSETS_INVALID_MSG);
+        }
+
         return Output.builder()
                 .digitalUser(digitalUserDataProvider.findBySubAndIdPAndTenant(
                         input.getSubject(),
                         input.getIdentityProvider(),
-                        input.getTenantId()
+                        input.getTenantId(),
+                        expansions
                 ))
                 .build();
     }
@@ -32,6 +42,7 @@ public class FindDigitalUserBySubAndIdPAndTenantUseCase {
         private String subject;
         private DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider;
         private String tenantId;
+        private Set<DigitalUser.Expansion> expansions;
     }
 
     @AllArgsConstructor
@@ -0,0 +1,54 @@
+package com.tracktainment.duxmanager.usecases.digitaluser;
+
+import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
+import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
+import com.tracktainment.duxmanager.util.Constants;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FindDigitalUsersByContactUseCase {
+
+    private final DigitalUserDataProvider digitalUserDataProvider;
+
+    public Output execute(Input input) {
+        boolean hasEmailAddress = input.getEmailAddress() != null && !input.getEmailAddress().isBlank();
+        boolean hasPhoneNumber = input.getPhoneNumber() != null && !input.getPhoneNumber().isBlank();
+        boolean hasCountryCode = input.getCountryCode() != null && !input.getCountryCode().isBlank();
+        if (hasEmailAddress == hasPhoneNumber || hasCountryCode && !hasPhoneNumber) {
+            throw new ParameterValidationErrorException(Constants.CONTACT_SEARCH_INVALID_MSG);
+        }
+
+        return Output.builder()
+                .digitalUsers(hasEmailAddress
+                        ? digitalUserDataProvider.findByEmailAddress(input.getEmailAddress())
+                        : digitalUserDataProvider.findByPhoneNumber(input.getCountryCode(), input.getPhoneNumber()))
+                .build();
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @Builder
+    public static class Input {
+
+        private String emailAddress;
+        private String countryCode;
+        private String phoneNumber;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @Builder
+    public static class Output {
+
+        private List<DigitalUser> digitalUsers;
+    }
+}
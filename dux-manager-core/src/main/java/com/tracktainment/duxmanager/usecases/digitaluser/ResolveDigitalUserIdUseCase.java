@@ -0,0 +1,46 @@
+package com.tracktainment.duxmanager.usecases.digitaluser;
+
+import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
+import com.tracktainment.duxmanager.domain.BaseObject;
+import com.tracktainment.duxmanager.domain.DigitalUser;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResolveDigitalUserIdUseCase {
+
+    private final DigitalUserDataProvider digitalUserDataProvider;
+
+    public Output execute(Input input) {
+        return Output.builder()
+                .digitalUser(digitalUserDataProvider.resolveIdBySubAndIdPAndTenant(
+                        input.getSubject(),
+                        input.getIdentityProvider(),
+                        input.getTenantId()
+                ))
+                .build();
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @Builder
+    public static class Input {
+
+        private String subject;
+        private DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider;
+        private String tenantId;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @Builder
+    public static class Output {
+
+        private BaseObject digitalUser;
+    }
+}
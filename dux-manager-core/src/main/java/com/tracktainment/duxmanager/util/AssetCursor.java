@@ -0,0 +1,56 @@
+package com.tracktainment.duxmanager.util;
+
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Keyset position in the (createdAt, id) order used by asset listing, opaque to clients
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class AssetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    public static AssetCursor of(Asset asset) {
+        return new AssetCursor(asset.getCreatedAt(), asset.getId());
+    }
+
+    public static AssetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex <= 0 || separatorIndex == decoded.length() - 1) {
+                throw new ParameterValidationErrorException(Constants.CURSOR_INVALID_MSG);
+            }
+
+            return new AssetCursor(
+                    LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    decoded.substring(separatorIndex + 1)
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ParameterValidationErrorException(Constants.CURSOR_INVALID_MSG);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -12,6 +12,11 @@ public class Constants {
     public static final int MIN_OFFSET = 0;
     public static final int MIN_LIMIT = 1;
     public static final int MAX_LIMIT = 100;
+    public static final int MAX_BULK_CREATE_SIZE = 500;
+
+
+    // Headers
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
 
     // Required fields validation
@@ -48,6 +53,7 @@ public class Constants {
     public static final String EMAIL_REGEX = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
     public static final String GENERIC_ADDRESS_REGEX = "^[a-zA-Z0-9#.,\\-/\\s]+$";
     public static final String POSTAL_CODE_REGEX = "^[a-zA-Z0-9\\s-]{3,10}$";
+    public static final String CURSOR_REGEX = "^[A-Za-z0-9_-]{1,200}$";
 
 
     // Fields validation
@@ -76,5 +82,13 @@ public class Constants {
     public static final String STATE_PROVINCE_INVALID_MSG = "'stateOrProvince' must match: " + GENERIC_ADDRESS_REGEX + ".";
     public static final String STREET_INVALID_MSG = "'street' must match: " + GENERIC_ADDRESS_REGEX + ".";
     public static final String POSTAL_CODE_INVALID_MSG = "'postalCode' must match: " + POSTAL_CODE_REGEX + ".";
+    public static final String CONTACT_SEARCH_INVALID_MSG =
+            "Exactly one of 'emailAddress' or 'phoneNumber' must be provided, 'countryCode' only with 'phoneNumber'.";
+    public static final String CURSOR_INVALID_MSG = "'cursor' must be a value returned in the " + NEXT_CURSOR_HEADER + " header.";
+    public static final String CURSOR_WITH_OFFSET_INVALID_MSG = "'offset' cannot be combined with 'cursor'.";
+    public static final String BULK_CREATE_SIZE_INVALID_MSG = "Bulk creation takes between 1 and " + MAX_BULK_CREATE_SIZE + " assets.";
+    public static final String ASSET_MANDATORY_MSG = "Asset is mandatory.";
+    public static final String EXTERNAL_ID_DUPLICATED_MSG = "'externalId' is duplicated within the batch.";
+    public static final String LOGIN_EXPAND_ASSETS_INVALID_MSG = "'expand' cannot include assets when looking up a digital user by identity provider.";
     public static final String BOOLEAN_INVALID_MSG = "'preferred' must be either 'true' or 'false'.";
 }
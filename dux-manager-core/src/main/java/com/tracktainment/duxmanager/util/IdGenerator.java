@@ -0,0 +1,10 @@
+package com.tracktainment.duxmanager.util;
+
+// Source of the ids given to new digital users and assets, every id must match Constants.ID_REGEX
+public interface IdGenerator {
+
+    // Mappers are also built outside Spring (tests, benchmarks), so they read the generator from here
+    IdGenerator DEFAULT = new UuidV7Generator();
+
+    String generate();
+}
@@ -0,0 +1,72 @@
+package com.tracktainment.duxmanager.util;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// RFC 9562 UUIDv7: 48 bit Unix millis, a 12 bit counter in rand_a and 62 random bits in rand_b.
+// Ids sort in creation order, so new keys land on the right edge of the _id index instead of a random page.
+public class UuidV7Generator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int RANDOM_BUFFER_SIZE = 64 * Long.BYTES;
+
+    private final LongSupplier clock;
+
+    // rand_b is what keeps ids unguessable, so it comes from SecureRandom, drawn in blocks to amortize the call
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ByteBuffer randomBuffer = ByteBuffer.allocate(RANDOM_BUFFER_SIZE).position(RANDOM_BUFFER_SIZE);
+
+    // Millis in the upper bits, counter in the lower 12, so one increment also rolls over into the next milli
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public UuidV7Generator() {
+        this(System::currentTimeMillis);
+    }
+
+    public UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String generate() {
+        long timestampAndCounter = nextTimestampAndCounter();
+        long mostSignificantBits = (timestampAndCounter >>> COUNTER_BITS) << 16
+                | VERSION
+                | timestampAndCounter & COUNTER_MASK;
+        long leastSignificantBits = VARIANT | nextRandomLong() & RAND_B_MASK;
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    private synchronized long nextRandomLong() {
+        if (!randomBuffer.hasRemaining()) {
+            secureRandom.nextBytes(randomBuffer.array());
+            randomBuffer.clear();
+        }
+
+        return randomBuffer.getLong();
+    }
+
+    // Lock-free and strictly increasing, also when the clock stands still or steps back
+    private long nextTimestampAndCounter() {
+        while (true) {
+            long last = lastTimestampAndCounter.get();
+            long now = clock.getAsLong() << COUNTER_BITS;
+
+            // A new milli starts the counter at a random value with the top bit clear, leaving room to increment
+            long next = now > last
+                    ? now | ThreadLocalRandom.current().nextLong(COUNTER_MASK >>> 1)
+                    : last + 1;
+            if (lastTimestampAndCounter.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package annotation;
+
+import com.tracktainment.duxmanager.annotation.BlindIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlindIndexTest {
+
+    @Test
+    void shouldKeepSourceBoundariesWhenJoining() {
+        // Act
+        String first = BlindIndex.Normalization.DIGITS.normalizeAndJoin("+1", "23-4567");
+        String second = BlindIndex.Normalization.DIGITS.normalizeAndJoin("+12", "3-4567");
+
+        // Assert
+        assertEquals("1" + BlindIndex.SOURCE_SEPARATOR + "234567", first);
+        assertEquals("12" + BlindIndex.SOURCE_SEPARATOR + "34567", second);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void shouldKeepSlotOfMissingSource() {
+        // Act
+        String joined = BlindIndex.Normalization.DIGITS.normalizeAndJoin(null, "555-123-4567");
+
+        // Assert
+        assertEquals(BlindIndex.SOURCE_SEPARATOR + "5551234567", joined);
+    }
+
+    @Test
+    void shouldReturnNullWhenNoSourceHasValue() {
+        // Act & Assert
+        assertNull(BlindIndex.Normalization.DIGITS.normalizeAndJoin(null, "--"));
+        assertEquals("john.doe@example.com", BlindIndex.Normalization.LOWERCASE.normalizeAndJoin(" John.Doe@Example.com "));
+    }
+}
@@ -1,5 +1,6 @@
 package encryption;
 
+import com.tracktainment.duxmanager.encryption.EncryptionKeyRing;
 import com.tracktainment.duxmanager.encryption.EncryptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,14 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,6 +29,9 @@ class EncryptionServiceTest {
     void setUp() {
         ReflectionTestUtils.setField(encryptionService, "secretKey", "test-secret-key-that-is-at-least-32-chars");
         ReflectionTestUtils.setField(encryptionService, "salt", "test-salt-value");
+        ReflectionTestUtils.setField(encryptionService, "blindIndexSecret", "test-blind-index-secret-that-is-at-least-32-chars");
+        ReflectionTestUtils.setField(encryptionService, "blindIndexSalt", "test-blind-index-salt-value");
+        encryptionService.init();
     }
 
     @Test
@@ -69,4 +81,197 @@ class EncryptionServiceTest {
         assertNotEquals(emptyString, encrypted);
         assertEquals(emptyString, decrypted);
     }
+
+    @Test
+    void shouldExposeConfiguredKeyVersion() {
+        // Arrange
+        ReflectionTestUtils.setField(encryptionService, "keyVersion", 3);
+        encryptionService.init();
+
+        // Act
+        int activeKeyVersion = encryptionService.getActiveKeyVersion();
+
+        // Assert
+        assertEquals(3, activeKeyVersion);
+        assertNotNull(encryptionService.getKeyRing().getKey(3));
+    }
+
+    @Test
+    void shouldReuseDerivedKeyAcrossCalls() {
+        // Arrange & Act
+        EncryptionKeyRing first = encryptionService.getKeyRing();
+        encryptionService.encrypt("one");
+        encryptionService.decrypt(encryptionService.encrypt("two"));
+        EncryptionKeyRing second = encryptionService.getKeyRing();
+
+        // Assert
+        assertSame(first, second);
+        assertSame(first.getActiveKey(), second.getActiveKey());
+    }
+
+    @Test
+    void shouldFailWhenNotInitialized() {
+        // Arrange
+        EncryptionService uninitialized = new EncryptionService();
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> uninitialized.encrypt("data"));
+    }
+
+    @Test
+    void shouldRecoverAfterFailedDecryption() {
+        // Arrange
+        String encrypted = encryptionService.encrypt("sensitive data");
+        byte[] tampered = Base64.getDecoder().decode(encrypted);
+        tampered[tampered.length - 1] ^= 1;
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> encryptionService.decrypt(Base64.getEncoder().encodeToString(tampered)));
+        assertEquals("sensitive data", encryptionService.decrypt(encrypted));
+    }
+
+    @Test
+    void shouldEncryptAndDecryptConcurrently() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String plainText = "value-" + i;
+            tasks.add(() -> plainText.equals(encryptionService.decrypt(encryptionService.encrypt(plainText))));
+        }
+
+        // Act
+        List<Future<Boolean>> results = executor.invokeAll(tasks);
+        executor.shutdown();
+
+        // Assert
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+    }
+
+    @Test
+    void shouldEncryptAndDecryptEnvelope() {
+        // Arrange
+        String plainText = "sensitive data";
+
+        // Act
+        byte[] envelope = encryptionService.encryptToEnvelope(plainText);
+        String decrypted = encryptionService.decryptEnvelope(envelope);
+
+        // Assert
+        assertEquals(1, envelope[0]);
+        assertEquals(encryptionService.getActiveKeyVersion(), envelope[1]);
+        assertEquals(2 + 12 + plainText.length() + 16, envelope.length);
+        assertEquals(plainText, decrypted);
+    }
+
+    @Test
+    void shouldDecryptLegacyAndEnvelopeTextForms() {
+        // Arrange
+        String legacy = encryptionService.encrypt("legacy value");
+        String envelopeText = encryptionService.encryptToEnvelopeText("envelope value");
+
+        // Act & Assert
+        assertFalse(EncryptionService.isEnvelopeText(legacy));
+        assertTrue(EncryptionService.isEnvelopeText(envelopeText));
+        assertEquals("legacy value", encryptionService.decrypt(legacy));
+        assertEquals("envelope value", encryptionService.decrypt(envelopeText));
+    }
+
+    @Test
+    void shouldRejectUnknownEnvelopeFormat() {
+        // Arrange
+        byte[] envelope = encryptionService.encryptToEnvelope("sensitive data");
+        envelope[0] = 9;
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> encryptionService.decryptEnvelope(envelope));
+    }
+
+    @Test
+    void shouldComputeDeterministicBlindIndex() {
+        // Arrange & Act
+        String first = encryptionService.blindIndex("john.doe@example.com");
+        String second = encryptionService.blindIndex("john.doe@example.com");
+        String other = encryptionService.blindIndex("jane.doe@example.com");
+
+        // Assert
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertFalse(first.contains("john"));
+        assertNull(encryptionService.blindIndex(null));
+    }
+
+    @Test
+    void shouldKeepBlindIndexStableWhenSecretKeyAndSaltRotate() {
+        // Arrange
+        String before = encryptionService.blindIndex("john.doe@example.com");
+        ReflectionTestUtils.setField(encryptionService, "secretKey", "rotated-secret-key-that-is-at-least-32-chars");
+        ReflectionTestUtils.setField(encryptionService, "salt", "rotated-salt-value");
+        ReflectionTestUtils.setField(encryptionService, "keyVersion", 2);
+        encryptionService.init();
+
+        // Act
+        String after = encryptionService.blindIndex("john.doe@example.com");
+
+        // Assert
+        assertEquals(before, after);
+    }
+
+    @Test
+    void shouldFailStartupWithoutDedicatedBlindIndexSecretOrSalt() {
+        // Arrange
+        EncryptionService withoutSecret = new EncryptionService();
+        ReflectionTestUtils.setField(withoutSecret, "secretKey", "test-secret-key-that-is-at-least-32-chars");
+        ReflectionTestUtils.setField(withoutSecret, "salt", "test-salt-value");
+        ReflectionTestUtils.setField(withoutSecret, "blindIndexSalt", "test-blind-index-salt-value");
+
+        EncryptionService withoutSalt = new EncryptionService();
+        ReflectionTestUtils.setField(withoutSalt, "secretKey", "test-secret-key-that-is-at-least-32-chars");
+        ReflectionTestUtils.setField(withoutSalt, "salt", "test-salt-value");
+        ReflectionTestUtils.setField(withoutSalt, "blindIndexSecret", "test-blind-index-secret-that-is-at-least-32-chars");
+        ReflectionTestUtils.setField(withoutSalt, "blindIndexSalt", " ");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, withoutSecret::init);
+        assertThrows(IllegalStateException.class, withoutSalt::init);
+    }
+
+    @Test
+    void shouldDecryptWithPreviousKeyAfterRotation() {
+        // Arrange
+        String legacy = encryptionService.encrypt("sensitive data");
+        String envelope = encryptionService.encryptToEnvelopeText("sensitive data");
+        rotateToNewKey();
+
+        // Act & Assert
+        assertEquals(2, encryptionService.getActiveKeyVersion());
+        assertEquals("sensitive data", encryptionService.decrypt(legacy));
+        assertEquals("sensitive data", encryptionService.decrypt(envelope));
+        assertEquals("sensitive data", encryptionService.decrypt(encryptionService.encryptToEnvelopeText("sensitive data")));
+    }
+
+    @Test
+    void shouldReportWhetherCipherTextUsesActiveKeyVersion() {
+        // Arrange
+        String legacy = encryptionService.encrypt("sensitive data");
+        String oldEnvelope = encryptionService.encryptToEnvelopeText("sensitive data");
+        rotateToNewKey();
+        String newEnvelope = encryptionService.encryptToEnvelopeText("sensitive data");
+
+        // Act & Assert
+        assertFalse(encryptionService.isActiveKeyVersion(legacy));
+        assertFalse(encryptionService.isActiveKeyVersion(oldEnvelope));
+        assertTrue(encryptionService.isActiveKeyVersion(newEnvelope));
+        assertTrue(encryptionService.isActiveKeyVersion(encryptionService.encryptToEnvelope("sensitive data")));
+    }
+
+    private void rotateToNewKey() {
+        ReflectionTestUtils.setField(encryptionService, "previousSecretKey", "test-secret-key-that-is-at-least-32-chars");
+        ReflectionTestUtils.setField(encryptionService, "previousKeyVersion", 1);
+        ReflectionTestUtils.setField(encryptionService, "secretKey", "rotated-secret-key-that-is-at-least-32-chars");
+        ReflectionTestUtils.setField(encryptionService, "keyVersion", 2);
+        encryptionService.init();
+    }
 }
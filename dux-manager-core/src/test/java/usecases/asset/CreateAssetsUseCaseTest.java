@@ -0,0 +1,179 @@
+package usecases.asset;
+
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.dto.AssetCreateResult;
+import com.tracktainment.duxmanager.exception.AuthenticationFailedException;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
+import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import com.tracktainment.duxmanager.security.DigitalUserSecurityContext;
+import com.tracktainment.duxmanager.security.SecurityUtil;
+import com.tracktainment.duxmanager.usecases.asset.CreateAssetsUseCase;
+import com.tracktainment.duxmanager.util.Constants;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import testutil.TestAssetDataUtil;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CreateAssetsUseCaseTest {
+
+    @Mock
+    private AssetDataProvider assetDataProvider;
+
+    @Mock
+    private SecurityUtil securityUtil;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private CreateAssetsUseCase createAssetsUseCase;
+
+    private DigitalUserSecurityContext digitalUserSecurityContext;
+
+    @BeforeEach
+    void setUp() {
+        digitalUserSecurityContext = TestAssetDataUtil.createTestDigitalUserSecurityContext();
+    }
+
+    @Test
+    void shouldCreateValidItemsAndReportEachOutcome() {
+        // Arrange
+        AssetCreate created = TestAssetDataUtil.createTestAssetCreate1();
+        AssetCreate invalid = TestAssetDataUtil.createTestAssetCreate2();
+        invalid.setExternalId(UUID.randomUUID().toString());
+        invalid.setType(null);
+        AssetCreate duplicated = TestAssetDataUtil.createTestAssetCreate1();
+        AssetCreate taken = TestAssetDataUtil.createTestAssetCreate2();
+
+        Asset asset = TestAssetDataUtil.createTestAsset1();
+        when(securityUtil.getDigitalUser()).thenReturn(digitalUserSecurityContext);
+        when(assetDataProvider.createAll(digitalUserSecurityContext.getId(), List.of(created, taken)))
+                .thenReturn(List.of(asset));
+
+        CreateAssetsUseCase.Input input = CreateAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .assetCreates(Arrays.asList(created, invalid, duplicated, taken, null))
+                .build();
+
+        // Act
+        List<AssetCreateResult> results = createAssetsUseCase.execute(input).getResults();
+
+        // Assert
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+
+        assertEquals(201, results.get(0).getHttpStatusCode());
+        assertEquals(asset, results.get(0).getAsset());
+
+        assertEquals(400, results.get(1).getHttpStatusCode());
+        assertEquals(Constants.ASSET_TYPE_MANDATORY_MSG, results.get(1).getMessage());
+        assertNull(results.get(1).getAsset());
+
+        assertEquals(400, results.get(2).getHttpStatusCode());
+        assertEquals(Constants.EXTERNAL_ID_DUPLICATED_MSG, results.get(2).getMessage());
+
+        assertEquals(409, results.get(3).getHttpStatusCode());
+        assertEquals("E-003", results.get(3).getCode());
+        assertEquals(taken.getExternalId(), results.get(3).getExternalId());
+
+        assertEquals(400, results.get(4).getHttpStatusCode());
+        assertEquals(Constants.ASSET_MANDATORY_MSG, results.get(4).getMessage());
+
+        verify(assetDataProvider).createAll(digitalUserSecurityContext.getId(), List.of(created, taken));
+    }
+
+    @Test
+    void shouldNotCallDataProviderWhenNoItemIsValid() {
+        // Arrange
+        AssetCreate invalid = TestAssetDataUtil.createTestAssetCreate1();
+        invalid.setExternalId("not-an-id");
+        when(securityUtil.getDigitalUser()).thenReturn(digitalUserSecurityContext);
+
+        CreateAssetsUseCase.Input input = CreateAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .assetCreates(List.of(invalid))
+                .build();
+
+        // Act
+        List<AssetCreateResult> results = createAssetsUseCase.execute(input).getResults();
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals("E-007", results.get(0).getCode());
+        verifyNoInteractions(assetDataProvider);
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedBatch() {
+        // Arrange
+        when(securityUtil.getDigitalUser()).thenReturn(digitalUserSecurityContext);
+
+        CreateAssetsUseCase.Input empty = CreateAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .assetCreates(List.of())
+                .build();
+        CreateAssetsUseCase.Input oversized = CreateAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .assetCreates(Collections.nCopies(Constants.MAX_BULK_CREATE_SIZE + 1,
+                        TestAssetDataUtil.createTestAssetCreate1()))
+                .build();
+
+        // Act & Assert
+        assertThrows(ParameterValidationErrorException.class, () -> createAssetsUseCase.execute(empty));
+        assertThrows(ParameterValidationErrorException.class, () -> createAssetsUseCase.execute(oversized));
+
+        verifyNoInteractions(assetDataProvider);
+    }
+
+    @Test
+    void shouldThrowAuthenticationFailedExceptionWhenUserIdDoesNotMatch() {
+        // Arrange
+        when(securityUtil.getDigitalUser()).thenReturn(digitalUserSecurityContext);
+
+        CreateAssetsUseCase.Input input = CreateAssetsUseCase.Input.builder()
+                .digitalUserId(UUID.randomUUID().toString())
+                .assetCreates(List.of(TestAssetDataUtil.createTestAssetCreate1()))
+                .build();
+
+        // Act & Assert
+        assertThrows(AuthenticationFailedException.class, () -> createAssetsUseCase.execute(input));
+
+        verify(assetDataProvider, never()).createAll(any(), any());
+    }
+
+    @Test
+    void shouldPropagateResourceNotFoundException() {
+        // Arrange
+        when(securityUtil.getDigitalUser()).thenReturn(digitalUserSecurityContext);
+        when(assetDataProvider.createAll(any(), any()))
+                .thenThrow(new ResourceNotFoundException(Asset.class, digitalUserSecurityContext.getId()));
+
+        CreateAssetsUseCase.Input input = CreateAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .assetCreates(List.of(TestAssetDataUtil.createTestAssetCreate1()))
+                .build();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> createAssetsUseCase.execute(input));
+    }
+}
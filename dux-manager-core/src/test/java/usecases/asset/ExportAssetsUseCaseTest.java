@@ -0,0 +1,95 @@
+package usecases.asset;
+
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.exception.AuthenticationFailedException;
+import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import com.tracktainment.duxmanager.security.DigitalUserSecurityContext;
+import com.tracktainment.duxmanager.security.SecurityUtil;
+import com.tracktainment.duxmanager.usecases.asset.ExportAssetsUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import testutil.TestAssetDataUtil;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportAssetsUseCaseTest {
+
+    @Mock
+    private AssetDataProvider assetDataProvider;
+
+    @Mock
+    private SecurityUtil securityUtil;
+
+    @InjectMocks
+    private ExportAssetsUseCase exportAssetsUseCase;
+
+    private DigitalUserSecurityContext digitalUserSecurityContext;
+
+    @BeforeEach
+    void setUp() {
+        digitalUserSecurityContext = TestAssetDataUtil.createTestDigitalUserSecurityContext();
+    }
+
+    @Test
+    void shouldExportAssetsAsStream() {
+        // Arrange
+        Asset asset1 = TestAssetDataUtil.createTestAsset1();
+        Asset asset2 = TestAssetDataUtil.createTestAsset2();
+
+        when(securityUtil.getDigitalUser()).thenReturn(digitalUserSecurityContext);
+        when(assetDataProvider.streamAll(digitalUserSecurityContext.getId())).thenReturn(() -> Stream.of(asset1, asset2));
+
+        ExportAssetsUseCase.Input input = ExportAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .build();
+
+        // Act
+        ExportAssetsUseCase.Output output = exportAssetsUseCase.execute(input);
+
+        // Assert
+        assertEquals(List.of(asset1, asset2), output.getAssets().get().toList());
+        verify(assetDataProvider).streamAll(digitalUserSecurityContext.getId());
+    }
+
+    @Test
+    void shouldThrowAuthenticationFailedExceptionWhenUserIdDoesNotMatch() {
+        // Arrange
+        when(securityUtil.getDigitalUser()).thenReturn(digitalUserSecurityContext);
+
+        ExportAssetsUseCase.Input input = ExportAssetsUseCase.Input.builder()
+                .digitalUserId(UUID.randomUUID().toString())
+                .build();
+
+        // Act & Assert
+        assertThrows(AuthenticationFailedException.class, () -> exportAssetsUseCase.execute(input));
+
+        verify(assetDataProvider, never()).streamAll(any());
+    }
+
+    @Test
+    void shouldPropagateResourceNotFoundException() {
+        // Arrange
+        when(securityUtil.getDigitalUser()).thenReturn(digitalUserSecurityContext);
+        when(assetDataProvider.streamAll(digitalUserSecurityContext.getId()))
+                .thenThrow(new ResourceNotFoundException(Asset.class, digitalUserSecurityContext.getId()));
+
+        ExportAssetsUseCase.Input input = ExportAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .build();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> exportAssetsUseCase.execute(input));
+    }
+}
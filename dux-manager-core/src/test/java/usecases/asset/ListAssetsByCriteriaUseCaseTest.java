@@ -7,6 +7,7 @@ import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
 import com.tracktainment.duxmanager.security.DigitalUserSecurityContext;
 import com.tracktainment.duxmanager.security.SecurityUtil;
 import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import com.tracktainment.duxmanager.util.AssetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -192,4 +193,62 @@ class ListAssetsByCriteriaUseCaseTest {
         verify(securityUtil).getDigitalUser();
         verify(assetDataProvider).listByCriteria(validInput);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnNextCursorWhenPageIsFull() {
+        // Arrange
+        asset2.setCreatedAt(LocalDate.now().atTime(12, 0));
+        ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(0)
+                .limit(2)
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .build();
+
+        when(securityUtil.getDigitalUser())
+                .thenReturn(digitalUserSecurityContext);
+        when(assetDataProvider.listByCriteria(input))
+                .thenReturn(Arrays.asList(asset1, asset2));
+
+        // Act
+        ListAssetsByCriteriaUseCase.Output output = listAssetsByCriteriaUseCase.execute(input);
+
+        // Assert
+        AssetCursor nextCursor = AssetCursor.decode(output.getNextCursor());
+        assertEquals(asset2.getCreatedAt(), nextCursor.getCreatedAt());
+        assertEquals(asset2.getId(), nextCursor.getId());
+    }
+
+    @Test
+    void shouldNotReturnNextCursorOnLastPage() {
+        // Arrange
+        when(securityUtil.getDigitalUser())
+                .thenReturn(digitalUserSecurityContext);
+        when(assetDataProvider.listByCriteria(validInput))
+                .thenReturn(Arrays.asList(asset1, asset2));
+
+        // Act
+        ListAssetsByCriteriaUseCase.Output output = listAssetsByCriteriaUseCase.execute(validInput);
+
+        // Assert
+        assertNull(output.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectOffsetCombinedWithCursor() {
+        // Arrange
+        ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(5)
+                .limit(10)
+                .digitalUserId(digitalUserSecurityContext.getId())
+                .cursor(new AssetCursor(LocalDate.now().atStartOfDay(), asset1.getId()).encode())
+                .build();
+
+        when(securityUtil.getDigitalUser())
+                .thenReturn(digitalUserSecurityContext);
+
+        // Act & Assert
+        assertThrows(ParameterValidationErrorException.class, () -> listAssetsByCriteriaUseCase.execute(input));
+
+        verify(assetDataProvider, never()).listByCriteria(any());
+    }
+}
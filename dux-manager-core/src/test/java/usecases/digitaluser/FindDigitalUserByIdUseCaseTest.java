@@ -13,6 +13,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import testutil.TestDigitalUserDataUtil;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -35,7 +37,7 @@ class FindDigitalUserByIdUseCaseTest {
     @Test
     void shouldFindDigitalUserByIdSuccessfully() {
         // Arrange
-        when(digitalUserDataProvider.findById(digitalUser.getId()))
+        when(digitalUserDataProvider.findById(digitalUser.getId(), Set.of()))
                 .thenReturn(digitalUser);
 
         FindDigitalUserByIdUseCase.Input input = FindDigitalUserByIdUseCase.Input.builder()
@@ -55,13 +57,33 @@ class FindDigitalUserByIdUseCaseTest {
         assertEquals("john.doe@example.com", output.getDigitalUser().getContactMediumList().get(0)
                 .getCharacteristic().getEmailAddress());
 
-        verify(digitalUserDataProvider).findById(digitalUser.getId());
+        verify(digitalUserDataProvider).findById(digitalUser.getId(), Set.of());
+    }
+
+    @Test
+    void shouldPassRequestedExpansionsToDataProvider() {
+        // Arrange
+        Set<DigitalUser.Expansion> expansions = Set.of(DigitalUser.Expansion.ASSETS);
+        when(digitalUserDataProvider.findById(digitalUser.getId(), expansions))
+                .thenReturn(digitalUser);
+
+        FindDigitalUserByIdUseCase.Input input = FindDigitalUserByIdUseCase.Input.builder()
+                .digitalUserId(digitalUser.getId())
+                .expansions(expansions)
+                .build();
+
+        // Act
+        FindDigitalUserByIdUseCase.Output output = findDigitalUserByIdUseCase.execute(input);
+
+        // Assert
+        assertEquals(digitalUser, output.getDigitalUser());
+        verify(digitalUserDataProvider).findById(digitalUser.getId(), expansions);
     }
 
     @Test
     void shouldPropagateResourceNotFoundException() {
         // Arrange
-        when(digitalUserDataProvider.findById(digitalUser.getId()))
+        when(digitalUserDataProvider.findById(digitalUser.getId(), Set.of()))
                 .thenThrow(new ResourceNotFoundException(DigitalUser.class, digitalUser.getId()));
 
         FindDigitalUserByIdUseCase.Input input = FindDigitalUserByIdUseCase.Input.builder()
@@ -71,13 +93,13 @@ class FindDigitalUserByIdUseCaseTest {
         // Act & Assert
 
         assertThrows(ResourceNotFoundException.class, () -> findDigitalUserByIdUseCase.execute(input));
-        verify(digitalUserDataProvider).findById(digitalUser.getId());
+        verify(digitalUserDataProvider).findById(digitalUser.getId(), Set.of());
     }
 
     @Test
     void shouldPropagateResourceAlreadyExistsException() {
         // Arrange
-        when(digitalUserDataProvider.findById(digitalUser.getId()))
+        when(digitalUserDataProvider.findById(digitalUser.getId(), Set.of()))
                 .thenThrow(new ResourceAlreadyExistsException(DigitalUser.class, digitalUser.getId()));
 
         FindDigitalUserByIdUseCase.Input input = FindDigitalUserByIdUseCase.Input.builder()
@@ -87,6 +109,6 @@ class FindDigitalUserByIdUseCaseTest {
         // Act & Assert
 
         assertThrows(ResourceAlreadyExistsException.class, () -> findDigitalUserByIdUseCase.execute(input));
-        verify(digitalUserDataProvider).findById(digitalUser.getId());
+        verify(digitalUserDataProvider).findById(digitalUser.getId(), Set.of());
     }
 }
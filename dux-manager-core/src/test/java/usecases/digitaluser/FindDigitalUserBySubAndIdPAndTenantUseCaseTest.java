@@ -2,6 +2,7 @@ package usecases.digitaluser;
 
 import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
 import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
 import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
 import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
 import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUserBySubAndIdPAndTenantUseCase;
@@ -13,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import testutil.TestDigitalUserDataUtil;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -38,7 +41,8 @@ class FindDigitalUserBySubAndIdPAndTenantUseCaseTest {
         when(digitalUserDataProvider.findBySubAndIdPAndTenant(
                 digitalUser.getIdentityProviderInformation().getSubject(),
                 digitalUser.getIdentityProviderInformation().getIdentityProvider(),
-                digitalUser.getIdentityProviderInformation().getTenantId()
+                digitalUser.getIdentityProviderInformation().getTenantId(),
+                Set.of()
         ))
                 .thenReturn(digitalUser);
 
@@ -73,16 +77,33 @@ class FindDigitalUserBySubAndIdPAndTenantUseCaseTest {
         verify(digitalUserDataProvider).findBySubAndIdPAndTenant(
                 digitalUser.getIdentityProviderInformation().getSubject(),
                 digitalUser.getIdentityProviderInformation().getIdentityProvider(),
-                digitalUser.getIdentityProviderInformation().getTenantId()
+                digitalUser.getIdentityProviderInformation().getTenantId(),
+                Set.of()
         );
     }
 
+    @Test
+    void shouldRejectAssetsExpansionOnLoginLookup() {
+        // Arrange
+        FindDigitalUserBySubAndIdPAndTenantUseCase.Input input = FindDigitalUserBySubAndIdPAndTenantUseCase.Input.builder()
+                .subject(digitalUser.getIdentityProviderInformation().getSubject())
+                .identityProvider(digitalUser.getIdentityProviderInformation().getIdentityProvider())
+                .tenantId(digitalUser.getIdentityProviderInformation().getTenantId())
+                .expansions(Set.of(DigitalUser.Expansion.PERSONAL_INFORMATION, DigitalUser.Expansion.ASSETS))
+                .build();
+
+        // Act & Assert
+        assertThrows(ParameterValidationErrorException.class, () -> findDigitalUserBySubAndIdPAndTenantUseCase.execute(input));
+        verifyNoInteractions(digitalUserDataProvider);
+    }
+
     @Test
     void shouldPropagateResourceNotFoundException() {
         when(digitalUserDataProvider.findBySubAndIdPAndTenant(
                 digitalUser.getIdentityProviderInformation().getSubject(),
                 digitalUser.getIdentityProviderInformation().getIdentityProvider(),
-                digitalUser.getIdentityProviderInformation().getTenantId()
+                digitalUser.getIdentityProviderInformation().getTenantId(),
+                Set.of()
         ))
                 .thenThrow(new ResourceNotFoundException(DigitalUser.class, digitalUser.getId()));
 
@@ -97,7 +118,8 @@ class FindDigitalUserBySubAndIdPAndTenantUseCaseTest {
         verify(digitalUserDataProvider).findBySubAndIdPAndTenant(
                 digitalUser.getIdentityProviderInformation().getSubject(),
                 digitalUser.getIdentityProviderInformation().getIdentityProvider(),
-                digitalUser.getIdentityProviderInformation().getTenantId()
+                digitalUser.getIdentityProviderInformation().getTenantId(),
+                Set.of()
         );
     }
 
@@ -106,7 +128,8 @@ class FindDigitalUserBySubAndIdPAndTenantUseCaseTest {
         when(digitalUserDataProvider.findBySubAndIdPAndTenant(
                 digitalUser.getIdentityProviderInformation().getSubject(),
                 digitalUser.getIdentityProviderInformation().getIdentityProvider(),
-                digitalUser.getIdentityProviderInformation().getTenantId()
+                digitalUser.getIdentityProviderInformation().getTenantId(),
+                Set.of()
         ))
                 .thenThrow(new ResourceAlreadyExistsException(DigitalUser.class, digitalUser.getId()));
 
@@ -121,7 +144,8 @@ class FindDigitalUserBySubAndIdPAndTenantUseCaseTest {
         verify(digitalUserDataProvider).findBySubAndIdPAndTenant(
                 digitalUser.getIdentityProviderInformation().getSubject(),
                 digitalUser.getIdentityProviderInformation().getIdentityProvider(),
-                digitalUser.getIdentityProviderInformation().getTenantId()
+                digitalUser.getIdentityProviderInformation().getTenantId(),
+                Set.of()
         );
     }
 }
\ No newline at end of file
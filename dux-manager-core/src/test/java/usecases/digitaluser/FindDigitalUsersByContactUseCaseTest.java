@@ -0,0 +1,110 @@
+package usecases.digitaluser;
+
+import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
+import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
+import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUsersByContactUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import testutil.TestDigitalUserDataUtil;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FindDigitalUsersByContactUseCaseTest {
+
+    @Mock
+    private DigitalUserDataProvider digitalUserDataProvider;
+
+    @InjectMocks
+    private FindDigitalUsersByContactUseCase findDigitalUsersByContactUseCase;
+
+    private DigitalUser digitalUser;
+
+    @BeforeEach
+    void setUp() {
+        digitalUser = TestDigitalUserDataUtil.createTestDigitalUser();
+    }
+
+    @Test
+    void shouldFindDigitalUsersByEmailAddress() {
+        // Arrange
+        when(digitalUserDataProvider.findByEmailAddress("john.doe@example.com")).thenReturn(List.of(digitalUser));
+
+        FindDigitalUsersByContactUseCase.Input input = FindDigitalUsersByContactUseCase.Input.builder()
+                .emailAddress("john.doe@example.com")
+                .build();
+
+        // Act
+        FindDigitalUsersByContactUseCase.Output output = findDigitalUsersByContactUseCase.execute(input);
+
+        // Assert
+        assertNotNull(output);
+        assertEquals(1, output.getDigitalUsers().size());
+        assertEquals(digitalUser.getId(), output.getDigitalUsers().get(0).getId());
+        verify(digitalUserDataProvider).findByEmailAddress("john.doe@example.com");
+        verify(digitalUserDataProvider, never()).findByPhoneNumber(any(), any());
+    }
+
+    @Test
+    void shouldFindDigitalUsersByPhoneNumber() {
+        // Arrange
+        when(digitalUserDataProvider.findByPhoneNumber("+1", "555-123-4567")).thenReturn(List.of(digitalUser));
+
+        FindDigitalUsersByContactUseCase.Input input = FindDigitalUsersByContactUseCase.Input.builder()
+                .countryCode("+1")
+                .phoneNumber("555-123-4567")
+                .build();
+
+        // Act
+        FindDigitalUsersByContactUseCase.Output output = findDigitalUsersByContactUseCase.execute(input);
+
+        // Assert
+        assertEquals(1, output.getDigitalUsers().size());
+        verify(digitalUserDataProvider).findByPhoneNumber("+1", "555-123-4567");
+        verify(digitalUserDataProvider, never()).findByEmailAddress(any());
+    }
+
+    @Test
+    void shouldRejectMissingContact() {
+        // Arrange
+        FindDigitalUsersByContactUseCase.Input input = FindDigitalUsersByContactUseCase.Input.builder().build();
+
+        // Act & Assert
+        assertThrows(ParameterValidationErrorException.class, () -> findDigitalUsersByContactUseCase.execute(input));
+        verifyNoInteractions(digitalUserDataProvider);
+    }
+
+    @Test
+    void shouldRejectBothContacts() {
+        // Arrange
+        FindDigitalUsersByContactUseCase.Input input = FindDigitalUsersByContactUseCase.Input.builder()
+                .emailAddress("john.doe@example.com")
+                .phoneNumber("555-123-4567")
+                .build();
+
+        // Act & Assert
+        assertThrows(ParameterValidationErrorException.class, () -> findDigitalUsersByContactUseCase.execute(input));
+        verifyNoInteractions(digitalUserDataProvider);
+    }
+
+    @Test
+    void shouldRejectCountryCodeWithoutPhoneNumber() {
+        // Arrange
+        FindDigitalUsersByContactUseCase.Input input = FindDigitalUsersByContactUseCase.Input.builder()
+                .emailAddress("john.doe@example.com")
+                .countryCode("+1")
+                .build();
+
+        // Act & Assert
+        assertThrows(ParameterValidationErrorException.class, () -> findDigitalUsersByContactUseCase.execute(input));
+        verifyNoInteractions(digitalUserDataProvider);
+    }
+}
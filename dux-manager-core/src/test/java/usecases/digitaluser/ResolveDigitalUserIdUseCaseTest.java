@@ -0,0 +1,75 @@
+package usecases.digitaluser;
+
+import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
+import com.tracktainment.duxmanager.domain.BaseObject;
+import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import com.tracktainment.duxmanager.usecases.digitaluser.ResolveDigitalUserIdUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import testutil.TestDigitalUserDataUtil;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResolveDigitalUserIdUseCaseTest {
+
+    @Mock
+    private DigitalUserDataProvider digitalUserDataProvider;
+
+    @InjectMocks
+    private ResolveDigitalUserIdUseCase resolveDigitalUserIdUseCase;
+
+    private DigitalUser digitalUser;
+    private ResolveDigitalUserIdUseCase.Input input;
+
+    @BeforeEach
+    void setUp() {
+        digitalUser = TestDigitalUserDataUtil.createTestDigitalUser();
+        input = ResolveDigitalUserIdUseCase.Input.builder()
+                .subject(digitalUser.getIdentityProviderInformation().getSubject())
+                .identityProvider(digitalUser.getIdentityProviderInformation().getIdentityProvider())
+                .tenantId(digitalUser.getIdentityProviderInformation().getTenantId())
+                .build();
+    }
+
+    @Test
+    void shouldResolveDigitalUserIdSuccessfully() {
+        // Arrange
+        BaseObject resolved = BaseObject.builder()
+                .id(digitalUser.getId())
+                .createdAt(digitalUser.getCreatedAt())
+                .updatedAt(digitalUser.getUpdatedAt())
+                .build();
+        when(digitalUserDataProvider.resolveIdBySubAndIdPAndTenant(
+                input.getSubject(),
+                input.getIdentityProvider(),
+                input.getTenantId()
+        )).thenReturn(resolved);
+
+        // Act
+        ResolveDigitalUserIdUseCase.Output output = resolveDigitalUserIdUseCase.execute(input);
+
+        // Assert
+        assertSame(resolved, output.getDigitalUser());
+        verify(digitalUserDataProvider, never()).findBySubAndIdPAndTenant(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldPropagateNotFound() {
+        // Arrange
+        when(digitalUserDataProvider.resolveIdBySubAndIdPAndTenant(
+                input.getSubject(),
+                input.getIdentityProvider(),
+                input.getTenantId()
+        )).thenThrow(new ResourceNotFoundException(DigitalUser.class, input.getSubject()));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> resolveDigitalUserIdUseCase.execute(input));
+    }
+}
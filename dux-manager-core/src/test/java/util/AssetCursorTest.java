@@ -0,0 +1,55 @@
+package util;
+
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
+import com.tracktainment.duxmanager.util.AssetCursor;
+import com.tracktainment.duxmanager.util.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetCursorTest {
+
+    @Test
+    void shouldRoundTripCreatedAtAndId() {
+        // Arrange
+        Asset asset = Asset.builder()
+                .id("123e4567-e89b-12d3-a456-426614174002")
+                .createdAt(LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123_000_000))
+                .build();
+
+        // Act
+        String encoded = AssetCursor.of(asset).encode();
+        AssetCursor decoded = AssetCursor.decode(encoded);
+
+        // Assert
+        assertTrue(encoded.matches(Constants.CURSOR_REGEX));
+        assertEquals(asset.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(asset.getId(), decoded.getId());
+    }
+
+    @Test
+    void shouldReturnNullWhenCursorIsAbsent() {
+        // Act & Assert
+        assertNull(AssetCursor.decode(null));
+        assertNull(AssetCursor.decode(""));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        // Arrange
+        String missingId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2024-03-15T10:30:45|".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("yesterday|abc".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(ParameterValidationErrorException.class, () -> AssetCursor.decode("not base64!"));
+        assertThrows(ParameterValidationErrorException.class, () -> AssetCursor.decode(missingId));
+        assertThrows(ParameterValidationErrorException.class, () -> AssetCursor.decode(badDate));
+    }
+}
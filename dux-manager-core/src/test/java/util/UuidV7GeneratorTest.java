@@ -0,0 +1,114 @@
+package util;
+
+import com.tracktainment.duxmanager.util.Constants;
+import com.tracktainment.duxmanager.util.IdGenerator;
+import com.tracktainment.duxmanager.util.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void shouldGenerateVersion7IdsMatchingIdRegex() {
+        // Act
+        String id = IdGenerator.DEFAULT.generate();
+
+        // Assert
+        assertTrue(id.matches(Constants.ID_REGEX));
+        UUID uuid = UUID.fromString(id);
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void shouldEmbedTimestampInLeadingBits() {
+        // Arrange
+        long millis = 1_718_000_000_123L;
+        UuidV7Generator generator = new UuidV7Generator(() -> millis);
+
+        // Act
+        UUID uuid = UUID.fromString(generator.generate());
+
+        // Assert
+        assertEquals(millis, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void shouldDrawIndependentRandomBitsPerGenerator() {
+        // Arrange
+        long millis = 1_718_000_000_123L;
+        UuidV7Generator first = new UuidV7Generator(() -> millis);
+        UuidV7Generator second = new UuidV7Generator(() -> millis);
+
+        // Act
+        UUID firstId = UUID.fromString(first.generate());
+        UUID secondId = UUID.fromString(second.generate());
+
+        // Assert
+        assertNotEquals(firstId.getLeastSignificantBits(), secondId.getLeastSignificantBits());
+    }
+
+    @Test
+    void shouldIncreaseWithinSameMillisecondAndWhenClockStepsBack() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(1_718_000_000_000L);
+        UuidV7Generator generator = new UuidV7Generator(clock::get);
+        List<String> ids = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.generate());
+        }
+        clock.addAndGet(-5_000);
+        ids.add(generator.generate());
+        clock.addAndGet(60_000);
+        ids.add(generator.generate());
+
+        // Assert
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "ids should sort in generation order");
+        }
+    }
+
+    @Test
+    void shouldGenerateUniqueIdsAcrossThreads() throws Exception {
+        // Arrange
+        UuidV7Generator generator = new UuidV7Generator();
+        int threads = 8;
+        int idsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids.add(generator.generate());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+}
@@ -0,0 +1,44 @@
+package com.tracktainment.duxmanager.config;
+
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.dataprovider.impl.AssetCollectionDataProviderNoSql;
+import com.tracktainment.duxmanager.dataprovider.impl.AssetDataProviderNoSql;
+import com.tracktainment.duxmanager.dataprovider.impl.CoalescingAssetDataProvider;
+import com.tracktainment.duxmanager.dataprovider.impl.DualWriteAssetDataProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class AssetStorageConfig {
+
+    // Migration path is EMBEDDED -> DUAL_WRITE plus backfill -> COLLECTION, reads follow the embedded array until the last step.
+    // With the backfill still enabled under COLLECTION, it unsets the embedded arrays once a copy pass has completed.
+    public enum StorageMode {
+        EMBEDDED,
+        DUAL_WRITE,
+        COLLECTION
+    }
+
+    @Bean
+    @Primary
+    public AssetDataProvider assetDataProvider(
+            @Value("${assets.storage-mode:EMBEDDED}") StorageMode storageMode,
+            @Value("${assets.create-coalescing.enabled:false}") boolean createCoalescingEnabled,
+            @Value("${assets.create-coalescing.window-ms:5}") long createCoalescingWindowMs,
+            @Value("${assets.create-coalescing.max-batch-size:100}") int createCoalescingMaxBatchSize,
+            AssetDataProviderNoSql embedded,
+            AssetCollectionDataProviderNoSql collection
+    ) {
+        AssetDataProvider assetDataProvider = switch (storageMode) {
+            case EMBEDDED -> embedded;
+            case DUAL_WRITE -> new DualWriteAssetDataProvider(embedded, collection);
+            case COLLECTION -> collection;
+        };
+
+        return createCoalescingEnabled
+                ? new CoalescingAssetDataProvider(assetDataProvider, createCoalescingWindowMs, createCoalescingMaxBatchSize)
+                : assetDataProvider;
+    }
+}
@@ -0,0 +1,27 @@
+package com.tracktainment.duxmanager.config;
+
+import com.tracktainment.duxmanager.dataprovider.impl.CachingDigitalUserDataProvider;
+import com.tracktainment.duxmanager.dataprovider.impl.DigitalUserDataProviderNoSql;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "digital-users.cache.enabled", havingValue = "true")
+public class DigitalUserCacheConfig {
+
+    @Bean
+    @Primary
+    public CachingDigitalUserDataProvider cachingDigitalUserDataProvider(
+            @Value("${digital-users.cache.maximum-size:10000}") long maximumSize,
+            @Value("${digital-users.cache.time-to-live:5m}") Duration timeToLive,
+            @Value("${digital-users.cache.include-personal-data:false}") boolean includePersonalData,
+            DigitalUserDataProviderNoSql digitalUserDataProvider
+    ) {
+        return new CachingDigitalUserDataProvider(digitalUserDataProvider, maximumSize, timeToLive, includePersonalData);
+    }
+}
@@ -0,0 +1,531 @@
+package com.tracktainment.duxmanager.config;
+
+import com.tracktainment.duxmanager.annotation.BlindIndex;
+import com.tracktainment.duxmanager.annotation.Encrypted;
+import com.tracktainment.duxmanager.annotation.EncryptedSubdocument;
+import org.bson.Document;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+public final class EncryptedFieldPlan {
+
+    public static final String SEALED_FIELD = "_sealed";
+
+    private static final EncryptedFieldPlan EMPTY = new EncryptedFieldPlan(List.of(), List.of(), List.of(), false);
+
+    private static final ClassValue<EncryptedFieldPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected EncryptedFieldPlan computeValue(Class<?> type) {
+            return buildPlan(type);
+        }
+    };
+
+    private final List<FieldAccessor> encryptedFields;
+    private final List<FieldAccessor> nestedFields;
+    private final List<BlindIndexAccessor> blindIndexes;
+    private final boolean sealed;
+
+    private EncryptedFieldPlan(
+            List<FieldAccessor> encryptedFields,
+            List<FieldAccessor> nestedFields,
+            List<BlindIndexAccessor> blindIndexes,
+            boolean sealed
+    ) {
+        this.encryptedFields = encryptedFields;
+        this.nestedFields = nestedFields;
+        this.blindIndexes = blindIndexes;
+        this.sealed = sealed;
+    }
+
+    public static EncryptedFieldPlan forClass(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    public boolean isEmpty() {
+        return encryptedFields.isEmpty() && nestedFields.isEmpty() && blindIndexes.isEmpty();
+    }
+
+    // Sealed classes can have all their encrypted strings stored as one blob under SEALED_FIELD
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    public List<String> getEncryptedFieldNames() {
+        return encryptedFields.stream().map(FieldAccessor::name).toList();
+    }
+
+    public List<String> getNestedFieldNames() {
+        return nestedFields.stream().map(FieldAccessor::name).toList();
+    }
+
+    public List<String> getBlindIndexFieldNames() {
+        return blindIndexes.stream().map(blindIndex -> blindIndex.target().name()).toList();
+    }
+
+    public Set<String> getStoredFieldNames() {
+        Set<String> storedFieldNames = new HashSet<>();
+        encryptedFields.forEach(field -> storedFieldNames.add(field.storedName()));
+        nestedFields.forEach(field -> storedFieldNames.add(field.storedName()));
+        return storedFieldNames;
+    }
+
+    public List<String> getEncryptedStoredFieldNames() {
+        return encryptedFields.stream().map(FieldAccessor::storedName).toList();
+    }
+
+    public void populateEncryptedFields(Object holder, Document values) {
+        for (FieldAccessor field : encryptedFields) {
+            if (values.get(field.storedName()) instanceof String value) {
+                field.set(holder, value);
+            }
+        }
+    }
+
+    public static void transform(Object object, UnaryOperator<String> transformer, Set<Object> processedObjects) {
+        transform(object, null, (holder, fieldName, value) -> transformer.apply(value), processedObjects);
+    }
+
+    public static void transform(
+            Object object,
+            Set<String> storedFields,
+            UnaryOperator<String> transformer,
+            Set<Object> processedObjects
+    ) {
+        transform(object, storedFields, (holder, fieldName, value) -> transformer.apply(value), processedObjects);
+    }
+
+    // Only top-level fields whose stored names are in storedFields are processed, null processes all of them
+    public static void transform(
+            Object object,
+            Set<String> storedFields,
+            FieldTransformer transformer,
+            Set<Object> processedObjects
+    ) {
+        walk(object, storedFields, (holder, plan) -> {
+            for (FieldAccessor field : plan.encryptedFields) {
+                if (holder == object && storedFields != null && !storedFields.contains(field.storedName())) {
+                    continue;
+                }
+
+                if (field.get(holder) instanceof String value) {
+                    field.set(holder, transformer.transform(holder, field.name(), value));
+                }
+            }
+        }, processedObjects);
+    }
+
+    // Must run while the source fields still hold plaintext, a blind index of ciphertext would never match
+    public static void applyBlindIndexes(Object object, UnaryOperator<String> indexer, Set<Object> processedObjects) {
+        walk(object, null, (holder, plan) -> {
+            for (BlindIndexAccessor blindIndex : plan.blindIndexes) {
+                blindIndex.target().set(holder, blindIndex.compute(holder, indexer));
+            }
+        }, processedObjects);
+    }
+
+    private static void walk(
+            Object object,
+            Set<String> storedFields,
+            BiConsumer<Object, EncryptedFieldPlan> visitor,
+            Set<Object> processedObjects
+    ) {
+        if (object == null) {
+            return;
+        }
+
+        EncryptedFieldPlan plan = forClass(object.getClass());
+        if (plan.isEmpty() || !processedObjects.add(object)) {
+            return;
+        }
+
+        visitor.accept(object, plan);
+
+        for (FieldAccessor field : plan.nestedFields) {
+            if (storedFields != null && !storedFields.contains(field.storedName())) {
+                continue;
+            }
+
+            Object fieldValue = field.get(object);
+            if (fieldValue instanceof Collection<?> collection) {
+                for (Object item : collection) {
+                    walk(item, null, visitor, processedObjects);
+                }
+            } else if (fieldValue instanceof Map<?, ?> map) {
+                for (Object value : map.values()) {
+                    walk(value, null, visitor, processedObjects);
+                }
+            } else {
+                walk(fieldValue, null, visitor, processedObjects);
+            }
+        }
+    }
+
+    // Same walk over the stored BSON form, used to swap the representation of encrypted values
+    public static void transformStored(Document document, Class<?> type, UnaryOperator<Object> transformer) {
+        visitStored(document, type, (storedDocument, plan) -> {
+            for (FieldAccessor field : plan.encryptedFields) {
+                Object value = storedDocument.get(field.storedName());
+                if (value != null) {
+                    storedDocument.put(field.storedName(), transformer.apply(value));
+                }
+            }
+        });
+    }
+
+    public static void visitStored(Document document, Class<?> type, StoredVisitor visitor) {
+        visitStored(document, type, "", (path, storedDocument, plan) -> visitor.visit(storedDocument, plan));
+    }
+
+    // Paths are dotted from the root document, list items are addressed by their position
+    public static void visitStored(Document document, Class<?> type, String path, StoredPathVisitor visitor) {
+        if (document == null) {
+            return;
+        }
+
+        EncryptedFieldPlan plan = forClass(resolveStoredType(document, type));
+        visitor.visit(path, document, plan);
+
+        for (FieldAccessor field : plan.nestedFields) {
+            Object value = document.get(field.storedName());
+            String fieldPath = childPath(path, field.storedName());
+            if (field.kind() == FieldKind.MAP && value instanceof Document map) {
+                for (Map.Entry<String, Object> entry : map.entrySet()) {
+                    visitStoredValue(entry.getValue(), field.targetType(), childPath(fieldPath, entry.getKey()), visitor);
+                }
+            } else {
+                visitStoredValue(value, field.targetType(), fieldPath, visitor);
+            }
+        }
+    }
+
+    private static void visitStoredValue(Object value, Class<?> type, String path, StoredPathVisitor visitor) {
+        if (value instanceof Document document) {
+            visitStored(document, type, path, visitor);
+        } else if (value instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                visitStoredValue(list.get(i), type, childPath(path, String.valueOf(i)), visitor);
+            }
+        }
+    }
+
+    public static String childPath(String path, String name) {
+        return path == null || path.isEmpty() ? name : path + "." + name;
+    }
+
+    // Walks the entity and its stored form side by side, lists are written in iteration order
+    public static void visitSealed(Object object, Object stored, BiConsumer<Object, Document> visitor, Set<Object> visited) {
+        if (object == null || !(stored instanceof Document storedDocument)) {
+            return;
+        }
+
+        EncryptedFieldPlan plan = forClass(object.getClass());
+        if (plan.isEmpty() || !visited.add(object)) {
+            return;
+        }
+
+        if (plan.sealed) {
+            visitor.accept(object, storedDocument);
+        }
+
+        for (FieldAccessor field : plan.nestedFields) {
+            Object fieldValue = field.get(object);
+            Object storedValue = storedDocument.get(field.storedName());
+            if (fieldValue instanceof Collection<?> collection && storedValue instanceof List<?> storedList) {
+                Iterator<?> storedItems = storedList.iterator();
+                for (Object item : collection) {
+                    if (!storedItems.hasNext()) {
+                        break;
+                    }
+                    visitSealed(item, storedItems.next(), visitor, visited);
+                }
+            } else if (fieldValue instanceof Map<?, ?> map && storedValue instanceof Document storedMap) {
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    visitSealed(entry.getValue(), storedMap.get(String.valueOf(entry.getKey())), visitor, visited);
+                }
+            } else {
+                visitSealed(fieldValue, storedValue, visitor, visited);
+            }
+        }
+    }
+
+    // Open declared types are stored with a _class hint, without one there is nothing to plan against
+    private static Class<?> resolveStoredType(Document document, Class<?> declaredType) {
+        if (document.get("_class") instanceof String typeName) {
+            try {
+                return ClassUtils.forName(typeName, declaredType.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                return declaredType;
+            }
+        }
+
+        return declaredType;
+    }
+
+    private static EncryptedFieldPlan buildPlan(Class<?> type) {
+        if (isBasicType(type) || type.isEnum() || type.isArray()) {
+            return EMPTY;
+        }
+
+        List<FieldAccessor> encryptedFields = new ArrayList<>();
+        List<FieldAccessor> nestedFields = new ArrayList<>();
+        List<Field> blindIndexFields = new ArrayList<>();
+        Map<String, Field> fieldsByName = new HashMap<>();
+
+        // Process fields in current class and all superclasses
+        Class<?> currentClass = type;
+        while (currentClass != null && currentClass != Object.class) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (!isInstanceField(field)) {
+                    continue;
+                }
+
+                fieldsByName.putIfAbsent(field.getName(), field);
+                if (isEncryptedString(field)) {
+                    encryptedFields.add(FieldAccessor.of(field));
+                } else if (isBlindIndexString(field)) {
+                    blindIndexFields.add(field);
+                } else if (canReachEncryptedFields(field)) {
+                    nestedFields.add(FieldAccessor.of(field));
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+
+        if (encryptedFields.isEmpty() && nestedFields.isEmpty() && blindIndexFields.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<BlindIndexAccessor> blindIndexes = new ArrayList<>();
+        for (Field field : blindIndexFields) {
+            blindIndexes.add(BlindIndexAccessor.of(field, fieldsByName));
+        }
+
+        return new EncryptedFieldPlan(
+                List.copyOf(encryptedFields),
+                List.copyOf(nestedFields),
+                List.copyOf(blindIndexes),
+                type.isAnnotationPresent(EncryptedSubdocument.class) && !encryptedFields.isEmpty()
+        );
+    }
+
+    private static boolean canReachEncryptedFields(Field field) {
+        for (Class<?> targetType : targetTypes(field)) {
+            if (canReachEncryptedFields(targetType, new HashSet<>())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Static reachability on declared types, open-ended types (Object, interfaces, abstract classes) are resolved at runtime
+    private static boolean canReachEncryptedFields(Class<?> type, Set<Class<?>> visitedTypes) {
+        if (type.isPrimitive() || type.isEnum() || type.isArray()) {
+            return false;
+        }
+
+        if (type == Object.class || type.isInterface()) {
+            return true;
+        }
+
+        if (isBasicType(type)) {
+            return false;
+        }
+
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return true;
+        }
+
+        if (!visitedTypes.add(type)) {
+            return false;
+        }
+
+        Class<?> currentClass = type;
+        while (currentClass != null && currentClass != Object.class) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (!isInstanceField(field)) {
+                    continue;
+                }
+
+                if (isEncryptedString(field)) {
+                    return true;
+                }
+
+                for (Class<?> targetType : targetTypes(field)) {
+                    if (canReachEncryptedFields(targetType, visitedTypes)) {
+                        return true;
+                    }
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+        return false;
+    }
+
+    private static FieldKind fieldKind(Field field) {
+        if (Collection.class.isAssignableFrom(field.getType())) {
+            return FieldKind.COLLECTION;
+        }
+
+        return Map.class.isAssignableFrom(field.getType()) ? FieldKind.MAP : FieldKind.OBJECT;
+    }
+
+    // Collections and maps are planned through their element and value types
+    private static List<Class<?>> targetTypes(Field field) {
+        Class<?> fieldType = field.getType();
+        if (Collection.class.isAssignableFrom(fieldType)) {
+            return List.of(typeArgument(field.getGenericType(), 0, 1));
+        }
+
+        if (Map.class.isAssignableFrom(fieldType)) {
+            return List.of(typeArgument(field.getGenericType(), 1, 2));
+        }
+
+        return List.of(fieldType);
+    }
+
+    private static Class<?> typeArgument(Type genericType, int index, int expectedArguments) {
+        if (genericType instanceof ParameterizedType parameterizedType) {
+            Type[] arguments = parameterizedType.getActualTypeArguments();
+            if (arguments.length == expectedArguments) {
+                if (arguments[index] instanceof Class<?> argumentClass) {
+                    return argumentClass;
+                }
+
+                if (arguments[index] instanceof ParameterizedType argumentType
+                        && argumentType.getRawType() instanceof Class<?> rawClass) {
+                    return rawClass;
+                }
+            }
+        }
+        return Object.class;
+    }
+
+    private static boolean isInstanceField(Field field) {
+        int modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic();
+    }
+
+    private static boolean isEncryptedString(Field field) {
+        return field.isAnnotationPresent(Encrypted.class) && field.getType().isAssignableFrom(String.class);
+    }
+
+    private static boolean isBlindIndexString(Field field) {
+        return field.isAnnotationPresent(BlindIndex.class) && field.getType().isAssignableFrom(String.class);
+    }
+
+    private static boolean isBasicType(Class<?> clazz) {
+        return clazz.isPrimitive() ||
+                clazz == String.class ||
+                Number.class.isAssignableFrom(clazz) ||
+                Boolean.class == clazz ||
+                Character.class == clazz ||
+                clazz.getPackage() != null &&
+                        (clazz.getPackage().getName().startsWith("java.") ||
+                                clazz.getPackage().getName().startsWith("javax.") ||
+                                clazz.getPackage().getName().startsWith("org.springframework."));
+    }
+
+    @FunctionalInterface
+    public interface FieldTransformer {
+        String transform(Object holder, String fieldName, String value);
+    }
+
+    @FunctionalInterface
+    public interface StoredVisitor {
+        void visit(Document storedDocument, EncryptedFieldPlan plan);
+    }
+
+    @FunctionalInterface
+    public interface StoredPathVisitor {
+        void visit(String path, Document storedDocument, EncryptedFieldPlan plan);
+    }
+
+    private enum FieldKind {
+        OBJECT,
+        COLLECTION,
+        MAP
+    }
+
+    // Sources are normalized and joined, a holder with no source values gets no index
+    private record BlindIndexAccessor(FieldAccessor target, List<FieldAccessor> sources, BlindIndex.Normalization normalization) {
+
+        static BlindIndexAccessor of(Field field, Map<String, Field> fieldsByName) {
+            BlindIndex blindIndex = field.getAnnotation(BlindIndex.class);
+            List<FieldAccessor> sources = new ArrayList<>();
+            for (String source : blindIndex.sources()) {
+                Field sourceField = fieldsByName.get(source);
+                if (sourceField == null || sourceField.getType() != String.class) {
+                    throw new IllegalStateException(
+                            "Blind index " + field.getName() + " references unknown source field " + source
+                    );
+                }
+                sources.add(FieldAccessor.of(sourceField));
+            }
+
+            return new BlindIndexAccessor(FieldAccessor.of(field), List.copyOf(sources), blindIndex.normalization());
+        }
+
+        String compute(Object holder, UnaryOperator<String> indexer) {
+            String value = normalization.normalizeAndJoin(
+                    sources.stream().map(source -> (String) source.get(holder)).toArray(String[]::new)
+            );
+            return value == null ? null : indexer.apply(value);
+        }
+    }
+
+    private record FieldAccessor(String name, String storedName, FieldKind kind, Class<?> targetType, VarHandle handle) {
+
+        static FieldAccessor of(Field field) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+                return new FieldAccessor(
+                        field.getName(),
+                        storedName(field),
+                        fieldKind(field),
+                        targetTypes(field).get(0),
+                        lookup.unreflectVarHandle(field)
+                );
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Error accessing field " + field.getName() + " for encryption", e);
+            }
+        }
+
+        private static String storedName(Field field) {
+            org.springframework.data.mongodb.core.mapping.Field mapping =
+                    field.getAnnotation(org.springframework.data.mongodb.core.mapping.Field.class);
+            if (mapping != null && !mapping.value().isEmpty()) {
+                return mapping.value();
+            }
+
+            if (mapping != null && !mapping.name().isEmpty()) {
+                return mapping.name();
+            }
+
+            return field.getName();
+        }
+
+        Object get(Object target) {
+            return handle.get(target);
+        }
+
+        void set(Object target, Object value) {
+            handle.set(target, value);
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package com.tracktainment.duxmanager.config;
 
-import com.tracktainment.duxmanager.annotation.Encrypted;
+import com.tracktainment.duxmanager.document.BaseDocument;
+import com.tracktainment.duxmanager.document.EncryptedValueSnapshot;
 import com.tracktainment.duxmanager.encryption.EncryptionService;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
 
-import java.lang.reflect.Field;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Set;
 
 @Configuration
@@ -29,78 +32,88 @@ public class MongoDecryptionConfig {
 
     public class DecryptionMongoEventListener extends AbstractMongoEventListener<Object> {
 
+        // Binary values are read back into the envelope text form, legacy Base64 strings pass through untouched
+        @Override
+        public void onAfterLoad(AfterLoadEvent<Object> event) {
+            if (event.getDocument() != null && event.getType() != null) {
+                EncryptedFieldPlan.transformStored(event.getDocument(), event.getType(), this::fromBinary);
+            }
+        }
+
         @Override
         public void onAfterConvert(AfterConvertEvent<Object> event) {
             Object source = event.getSource();
             if (source != null) {
-                processDecryptedFields(source, new HashSet<>());
+                Document document = event.getDocument();
+                Set<Object> sealedHolders = Collections.newSetFromMap(new IdentityHashMap<>());
+                if (document != null) {
+                    EncryptedFieldPlan.visitSealed(
+                            source,
+                            document,
+                            (holder, storedHolder) -> unseal(holder, storedHolder, sealedHolders),
+                            Collections.newSetFromMap(new IdentityHashMap<>())
+                    );
+                }
+
+                // Only decrypt what the query projection actually loaded
+                processDecryptedFields(
+                        source,
+                        document == null ? null : document.keySet(),
+                        sealedHolders,
+                        Collections.newSetFromMap(new IdentityHashMap<>())
+                );
             }
         }
 
-        private void processDecryptedFields(Object object, Set<Object> processedObjects) {
-            if (object == null || processedObjects.contains(object)) {
+        private void unseal(Object holder, Document storedHolder, Set<Object> sealedHolders) {
+            Object sealedValue = storedHolder.get(EncryptedFieldPlan.SEALED_FIELD);
+            if (sealedValue == null) {
                 return;
             }
 
-            processedObjects.add(object);
-            Class<?> clazz = object.getClass();
+            String json = sealedValue instanceof Binary binary
+                    ? encryptionService.decryptEnvelope(binary.getData())
+                    : encryptionService.decrypt((String) sealedValue);
+            EncryptedFieldPlan.forClass(holder.getClass()).populateEncryptedFields(holder, Document.parse(json));
+            sealedHolders.add(holder);
+        }
 
-            if (isBasicType(clazz) || clazz.isEnum() || clazz.isArray()) {
+        private Object fromBinary(Object value) {
+            if (value instanceof Binary binary && binary.getType() == BsonBinarySubType.USER_DEFINED.getValue()) {
+                return EncryptionService.encodeEnvelopeText(binary.getData());
+            }
+
+            return value;
+        }
+
+        private void processDecryptedFields(
+                Object object,
+                Set<String> storedFields,
+                Set<Object> sealedHolders,
+                Set<Object> processedObjects
+        ) {
+            if (!(object instanceof BaseDocument baseDocument)) {
+                EncryptedFieldPlan.transform(
+                        object,
+                        storedFields,
+                        (holder, fieldName, cipherText) ->
+                                sealedHolders.contains(holder) ? cipherText : encryptionService.decrypt(cipherText),
+                        processedObjects
+                );
                 return;
             }
 
-            // Process fields in current class and all superclasses
-            Class<?> currentClass = clazz;
-            while (currentClass != null && currentClass != Object.class) {
-                for (Field field : currentClass.getDeclaredFields()) {
-                    field.setAccessible(true);
-
-                    try {
-                        Object fieldValue = field.get(object);
-                        if (fieldValue == null) {
-                            continue;
-                        }
-
-                        if (field.isAnnotationPresent(Encrypted.class) && fieldValue instanceof String) {
-                            // Decrypt string fields only
-                            String decryptedValue = encryptionService.decrypt((String) fieldValue);
-                            field.set(object, decryptedValue);
-                        } else {
-                            // Process nested objects
-                            if (fieldValue instanceof Collection) {
-                                for (Object item : (Collection<?>) fieldValue) {
-                                    if (item != null && !isBasicType(item.getClass())) {
-                                        processDecryptedFields(item, processedObjects);
-                                    }
-                                }
-                            } else if (fieldValue instanceof Map) {
-                                for (Object value : ((Map<?, ?>) fieldValue).values()) {
-                                    if (value != null && !isBasicType(value.getClass())) {
-                                        processDecryptedFields(value, processedObjects);
-                                    }
-                                }
-                            } else if (!isBasicType(fieldValue.getClass())) {
-                                processDecryptedFields(fieldValue, processedObjects);
-                            }
-                        }
-                    } catch (IllegalAccessException e) {
-                        throw new RuntimeException("Error accessing field for decryption", e);
-                    }
+            // Remember the loaded ciphertext so unchanged fields are not re-encrypted on save
+            EncryptedValueSnapshot snapshot = baseDocument.encryptedValueSnapshot();
+            EncryptedFieldPlan.transform(object, storedFields, (holder, fieldName, cipherText) -> {
+                if (sealedHolders.contains(holder)) {
+                    return cipherText;
                 }
-                currentClass = currentClass.getSuperclass();
-            }
-        }
 
-        private boolean isBasicType(Class<?> clazz) {
-            return clazz.isPrimitive() ||
-                    clazz == String.class ||
-                    Number.class.isAssignableFrom(clazz) ||
-                    Boolean.class == clazz ||
-                    Character.class == clazz ||
-                    clazz.getPackage() != null &&
-                            (clazz.getPackage().getName().startsWith("java.") ||
-                                    clazz.getPackage().getName().startsWith("javax.") ||
-                                    clazz.getPackage().getName().startsWith("org.springframework."));
+                String plainText = encryptionService.decrypt(cipherText);
+                snapshot.record(holder, fieldName, plainText, cipherText);
+                return plainText;
+            }, processedObjects);
         }
     }
 }
@@ -1,16 +1,21 @@
 package com.tracktainment.duxmanager.config;
 
-import com.tracktainment.duxmanager.annotation.Encrypted;
+import com.tracktainment.duxmanager.document.BaseDocument;
+import com.tracktainment.duxmanager.document.EncryptedValueSnapshot;
 import com.tracktainment.duxmanager.encryption.EncryptionService;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
 import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
 
-import java.lang.reflect.Field;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Set;
 
 @Configuration
@@ -18,6 +23,12 @@ public class MongoEncryptionConfig {
 
     private final EncryptionService encryptionService;
 
+    @Value("${encryption.storage-format:TEXT}")
+    private StorageFormat storageFormat = StorageFormat.TEXT;
+
+    @Value("${encryption.seal-subdocuments:false}")
+    private boolean sealSubdocuments;
+
     public MongoEncryptionConfig(EncryptionService encryptionService) {
         this.encryptionService = encryptionService;
     }
@@ -27,80 +38,128 @@ public class MongoEncryptionConfig {
         return new EncryptionMongoEventListener();
     }
 
+    public enum StorageFormat {
+        TEXT,
+        BINARY
+    }
+
     public class EncryptionMongoEventListener extends AbstractMongoEventListener<Object> {
 
         @Override
         public void onBeforeConvert(BeforeConvertEvent<Object> event) {
             Object source = event.getSource();
             if (source != null) {
-                processEncryptedFields(source, new HashSet<>());
+                EncryptedFieldPlan.applyBlindIndexes(
+                        source,
+                        encryptionService::blindIndex,
+                        Collections.newSetFromMap(new IdentityHashMap<>())
+                );
+                processEncryptedFields(source, Collections.newSetFromMap(new IdentityHashMap<>()));
+            }
+        }
+
+        @Override
+        public void onBeforeSave(BeforeSaveEvent<Object> event) {
+            Object source = event.getSource();
+            if (source == null || event.getDocument() == null) {
+                return;
+            }
+
+            if (sealSubdocuments) {
+                EncryptedFieldPlan.visitStored(event.getDocument(), source.getClass(), this::seal);
+            }
+
+            if (storageFormat == StorageFormat.BINARY) {
+                EncryptedFieldPlan.transformStored(event.getDocument(), source.getClass(), this::toBinary);
+            }
+        }
+
+        @Override
+        public void onAfterSave(AfterSaveEvent<Object> event) {
+            Object source = event.getSource();
+            if (source instanceof BaseDocument baseDocument) {
+                restorePlainTextFields(baseDocument, Collections.newSetFromMap(new IdentityHashMap<>()));
             }
         }
 
         private void processEncryptedFields(Object object, Set<Object> processedObjects) {
-            if (object == null || processedObjects.contains(object)) {
+            if (!(object instanceof BaseDocument baseDocument)) {
+                EncryptedFieldPlan.transform(
+                        object,
+                        null,
+                        (holder, fieldName, plainText) -> isSealed(holder) ? plainText : encrypt(plainText),
+                        processedObjects
+                );
                 return;
             }
 
-            processedObjects.add(object);
-            Class<?> clazz = object.getClass();
+            // Unchanged values keep the ciphertext they were loaded with, unless it was written under an older key
+            EncryptedValueSnapshot snapshot = baseDocument.encryptedValueSnapshot();
+            EncryptedFieldPlan.transform(object, null, (holder, fieldName, plainText) -> {
+                if (isSealed(holder)) {
+                    return plainText;
+                }
+
+                String cipherText = snapshot.findCipherText(holder, fieldName, plainText);
+                if (cipherText == null || !encryptionService.isActiveKeyVersion(cipherText)) {
+                    cipherText = encrypt(plainText);
+                    snapshot.record(holder, fieldName, plainText, cipherText);
+                }
+                return cipherText;
+            }, processedObjects);
+        }
+
+        // Envelope text records the key version, in binary mode onBeforeSave swaps it for BSON Binary
+        private String encrypt(String plainText) {
+            return encryptionService.encryptToEnvelopeText(plainText);
+        }
+
+        // Sealed holders stay in plaintext on the entity, onBeforeSave encrypts them as one blob
+        private boolean isSealed(Object holder) {
+            return sealSubdocuments && EncryptedFieldPlan.forClass(holder.getClass()).isSealed();
+        }
 
-            if (isBasicType(clazz) || clazz.isEnum() || clazz.isArray()) {
+        private void seal(Document storedDocument, EncryptedFieldPlan plan) {
+            if (!plan.isSealed()) {
                 return;
             }
 
-            // Process fields in current class and all superclasses
-            Class<?> currentClass = clazz;
-            while (currentClass != null && currentClass != Object.class) {
-                for (Field field : currentClass.getDeclaredFields()) {
-                    field.setAccessible(true);
-
-                    try {
-                        Object fieldValue = field.get(object);
-                        if (fieldValue == null) {
-                            continue;
-                        }
-
-                        if (field.isAnnotationPresent(Encrypted.class) && fieldValue instanceof String) {
-                            // Encrypt string fields only
-                            String encryptedValue = encryptionService.encrypt((String) fieldValue);
-                            field.set(object, encryptedValue);
-                        } else {
-                            // Process nested objects
-                            if (fieldValue instanceof Collection) {
-                                for (Object item : (Collection<?>) fieldValue) {
-                                    if (item != null && !isBasicType(item.getClass())) {
-                                        processEncryptedFields(item, processedObjects);
-                                    }
-                                }
-                            } else if (fieldValue instanceof Map) {
-                                for (Object value : ((Map<?, ?>) fieldValue).values()) {
-                                    if (value != null && !isBasicType(value.getClass())) {
-                                        processEncryptedFields(value, processedObjects);
-                                    }
-                                }
-                            } else if (!isBasicType(fieldValue.getClass())) {
-                                processEncryptedFields(fieldValue, processedObjects);
-                            }
-                        }
-                    } catch (IllegalAccessException e) {
-                        throw new RuntimeException("Error accessing field for encryption", e);
-                    }
+            Document payload = new Document();
+            for (String storedName : plan.getEncryptedStoredFieldNames()) {
+                if (storedDocument.get(storedName) instanceof String value) {
+                    payload.put(storedName, value);
+                    storedDocument.remove(storedName);
                 }
-                currentClass = currentClass.getSuperclass();
             }
+
+            if (payload.isEmpty()) {
+                return;
+            }
+
+            String json = payload.toJson();
+            storedDocument.put(
+                    EncryptedFieldPlan.SEALED_FIELD,
+                    storageFormat == StorageFormat.BINARY
+                            ? new Binary(BsonBinarySubType.USER_DEFINED, encryptionService.encryptToEnvelope(json))
+                            : encryptionService.encryptToEnvelopeText(json)
+            );
+        }
+
+        private Object toBinary(Object value) {
+            if (value instanceof String text && EncryptionService.isEnvelopeText(text)) {
+                return new Binary(BsonBinarySubType.USER_DEFINED, EncryptionService.decodeEnvelopeText(text));
+            }
+
+            return value;
         }
 
-        private boolean isBasicType(Class<?> clazz) {
-            return clazz.isPrimitive() ||
-                    clazz == String.class ||
-                    Number.class.isAssignableFrom(clazz) ||
-                    Boolean.class == clazz ||
-                    Character.class == clazz ||
-                    clazz.getPackage() != null &&
-                            (clazz.getPackage().getName().startsWith("java.") ||
-                                    clazz.getPackage().getName().startsWith("javax.") ||
-                                    clazz.getPackage().getName().startsWith("org.springframework."));
+        // The saved entity is handed back to callers, so it must not keep the ciphertext
+        private void restorePlainTextFields(BaseDocument baseDocument, Set<Object> processedObjects) {
+            EncryptedValueSnapshot snapshot = baseDocument.encryptedValueSnapshot();
+            EncryptedFieldPlan.transform(baseDocument, null, (holder, fieldName, cipherText) -> {
+                String plainText = snapshot.findPlainText(holder, fieldName, cipherText);
+                return plainText != null ? plainText : cipherText;
+            }, processedObjects);
         }
     }
 }
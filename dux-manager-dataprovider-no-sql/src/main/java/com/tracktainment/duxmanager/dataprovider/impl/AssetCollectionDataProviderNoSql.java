@@ -0,0 +1,221 @@
+package com.tracktainment.duxmanager.dataprovider.impl;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.DeleteResult;
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.document.AssetDocument;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
+import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
+import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import com.tracktainment.duxmanager.mapper.AssetMapperDataProvider;
+import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class AssetCollectionDataProviderNoSql implements AssetDataProvider {
+
+    private final AssetMapperDataProvider mapper;
+    private final MongoTemplate mongoTemplate;
+    private final DigitalUserDataProviderNoSql digitalUserDataProviderNoSql;
+
+    @Override
+    public Asset create(String digitalUserId, AssetCreate assetCreate) {
+        if (!digitalUserDataProviderNoSql.existsById(digitalUserId)) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, digitalUserId);
+        }
+
+        Asset asset = mapper.toAsset(assetCreate);
+        asset.setCreatedAt(LocalDateTime.now());
+
+        // The unique (digitalUserId, externalId) index rejects duplicates without a prior lookup
+        try {
+            return mapper.toAsset(mongoTemplate.insert(mapper.toAssetDocument(asset, digitalUserId)));
+        } catch (DuplicateKeyException e) {
+            throw new ResourceAlreadyExistsException(Asset.class, assetCreate.getExternalId());
+        }
+    }
+
+    @Override
+    public List<Asset> createAll(String digitalUserId, List<AssetCreate> assetCreates) {
+        if (!digitalUserDataProviderNoSql.existsById(digitalUserId)) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, digitalUserId);
+        }
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<Asset> assets = new ArrayList<>(assetCreates.size());
+        for (AssetCreate assetCreate : assetCreates) {
+            Asset asset = mapper.toAsset(assetCreate);
+            asset.setCreatedAt(createdAt);
+            assets.add(asset);
+        }
+        if (assets.isEmpty()) {
+            return assets;
+        }
+
+        // Unordered, so a taken externalId only fails its own insert and the rest of the batch still lands
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetDocument.class)
+                    .insert(assets.stream().map(asset -> mapper.toAssetDocument(asset, digitalUserId)).toList())
+                    .execute();
+            return assets;
+        } catch (BulkOperationException e) {
+            if (!e.getErrors().stream().allMatch(this::isDuplicateKey)) {
+                throw e;
+            }
+
+            Set<Integer> rejected = e.getErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+            return IntStream.range(0, assets.size())
+                    .filter(index -> !rejected.contains(index))
+                    .mapToObj(assets::get)
+                    .toList();
+        }
+    }
+
+    @Override
+    public Asset findByExternalId(String digitalUserId, String externalId) {
+        AssetDocument assetDocument = mongoTemplate.findOne(
+                byExternalIds(digitalUserId, List.of(externalId)),
+                AssetDocument.class
+        );
+        if (assetDocument == null) {
+            throw new ResourceNotFoundException(Asset.class, externalId);
+        }
+
+        return mapper.toAsset(assetDocument);
+    }
+
+    @Override
+    public List<Asset> listByCriteria(ListAssetsByCriteriaUseCase.Input input) {
+        if (input.getDigitalUserId() == null) {
+            throw new ParameterValidationErrorException("digitalUserId cannot be empty");
+        }
+
+        Criteria criteria = Criteria.where("digitalUserId").is(input.getDigitalUserId());
+        Query query = new Query(AssetDataProviderNoSql.toAssetCriteria(criteria, input, "", "id"))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "id"))
+                .skip(input.getOffset())
+                .limit(input.getLimit());
+
+        List<Asset> assets = mongoTemplate.find(query, AssetDocument.class).stream()
+                .map(mapper::toAsset)
+                .toList();
+
+        // An empty page is ambiguous, only then is it worth checking whether the user exists
+        if (assets.isEmpty() && !digitalUserDataProviderNoSql.existsById(input.getDigitalUserId())) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, input.getDigitalUserId());
+        }
+
+        return assets;
+    }
+
+    @Override
+    public Supplier<Stream<Asset>> streamAll(String digitalUserId) {
+        if (!digitalUserDataProviderNoSql.existsById(digitalUserId)) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, digitalUserId);
+        }
+
+        // Walks the (digitalUserId, created_at, _id) index, so the order comes without an in-memory sort
+        Query query = new Query(Criteria.where("digitalUserId").is(digitalUserId))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "id"))
+                .cursorBatchSize(AssetDataProviderNoSql.STREAM_BATCH_SIZE);
+
+        return () -> mongoTemplate.stream(query, AssetDocument.class).map(mapper::toAsset);
+    }
+
+    @Override
+    public void delete(String digitalUserId, String externalId) {
+        if (removeAll(digitalUserId, List.of(externalId)) == 0) {
+            throw new ResourceNotFoundException(Asset.class, externalId);
+        }
+    }
+
+    @Override
+    public void deleteAll(String digitalUserId, Collection<String> externalIds) {
+        if (externalIds == null || externalIds.isEmpty()) {
+            return;
+        }
+
+        // Unknown externalIds are ignored, only a missing user is an error
+        if (removeAll(digitalUserId, externalIds) == 0 && !digitalUserDataProviderNoSql.existsById(digitalUserId)) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, digitalUserId);
+        }
+    }
+
+    // Idempotent copy keyed on (digitalUserId, externalId), used by dual-write and the backfill job
+    public void upsertAll(String digitalUserId, List<Asset> assets) {
+        if (assets == null || assets.isEmpty()) {
+            return;
+        }
+
+        List<Pair<Query, Update>> upserts = assets.stream()
+                .map(asset -> Pair.of(
+                        byExternalIds(digitalUserId, List.of(asset.getExternalId())),
+                        toUpsert(asset, digitalUserId)
+                ))
+                .toList();
+
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetDocument.class).upsert(upserts).execute();
+    }
+
+    public long removeAll(String digitalUserId, Collection<String> externalIds) {
+        DeleteResult deleteResult = mongoTemplate.remove(
+                byExternalIds(digitalUserId, externalIds),
+                AssetDocument.class
+        );
+        return deleteResult.getDeletedCount();
+    }
+
+    // Drops copies whose asset is no longer embedded, so a re-run converges on the embedded array
+    public long retainAll(String digitalUserId, Collection<String> externalIds) {
+        Query query = new Query(Criteria.where("digitalUserId").is(digitalUserId)
+                .and("externalId").nin(externalIds));
+        return mongoTemplate.remove(query, AssetDocument.class).getDeletedCount();
+    }
+
+    private boolean isDuplicateKey(BulkWriteError error) {
+        return ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY;
+    }
+
+    private Query byExternalIds(String digitalUserId, Collection<String> externalIds) {
+        Criteria criteria = Criteria.where("digitalUserId").is(digitalUserId);
+        return new Query(externalIds.size() == 1
+                ? criteria.and("externalId").is(externalIds.iterator().next())
+                : criteria.and("externalId").in(externalIds));
+    }
+
+    private Update toUpsert(Asset asset, String digitalUserId) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(mapper.toAssetDocument(asset, digitalUserId), document);
+
+        // An existing copy already holds the same immutable asset, so only inserts write the fields
+        Update update = new Update();
+        document.forEach(update::setOnInsert);
+        return update;
+    }
+}
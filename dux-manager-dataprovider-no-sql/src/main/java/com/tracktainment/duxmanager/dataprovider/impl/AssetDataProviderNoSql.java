@@ -1,6 +1,7 @@
 package com.tracktainment.duxmanager.dataprovider.impl;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.client.result.UpdateResult;
 import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
 import com.tracktainment.duxmanager.document.DigitalUserDocument;
 import com.tracktainment.duxmanager.domain.Asset;
@@ -10,8 +11,13 @@ import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
 import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
 import com.tracktainment.duxmanager.mapper.AssetMapperDataProvider;
 import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import com.tracktainment.duxmanager.util.AssetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
@@ -19,14 +25,24 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AssetDataProviderNoSql implements AssetDataProvider {
 
+    // Embedded assets keep their id property under _id, and pipeline stages after $unwind are not remapped
+    private static final String EMBEDDED_ASSET_ID = "assets._id";
+
+    // Documents fetched per getMore while streaming, bounds what is buffered ahead of a slow reader
+    static final int STREAM_BATCH_SIZE = 100;
+
     private final AssetMapperDataProvider mapper;
     private final MongoTemplate mongoTemplate;
     private final DigitalUserDataProviderNoSql digitalUserDataProviderNoSql;
@@ -34,17 +50,63 @@ public class AssetDataProviderNoSql implements AssetDataProvider {
     @Override
     @Transactional
     public Asset create(String digitalUserId, AssetCreate assetCreate) {
-        if (existsByExternalId(digitalUserId, assetCreate.getExternalId())) {
+        Asset asset = mapper.toAsset(assetCreate);
+        asset.setCreatedAt(LocalDateTime.now());
+
+        // One conditional push: the filter rejects duplicates atomically and only the assets path is written
+        Query query = new Query(Criteria.where("id").is(digitalUserId)
+                .and("assets.externalId").ne(assetCreate.getExternalId()));
+        UpdateResult updateResult = mongoTemplate.updateFirst(
+                query,
+                new Update().push("assets", asset),
+                DigitalUserDocument.class
+        );
+
+        // No match means either the user is missing or the externalId is taken, only this path pays for telling which
+        if (updateResult.getMatchedCount() == 0) {
+            if (!digitalUserDataProviderNoSql.existsById(digitalUserId)) {
+                throw new ResourceNotFoundException(DigitalUserDocument.class, digitalUserId);
+            }
+
             throw new ResourceAlreadyExistsException(Asset.class, assetCreate.getExternalId());
         }
 
-        DigitalUserDocument digitalUserDocument = digitalUserDataProviderNoSql.findDigitalUserDocumentById(digitalUserId);
-        Asset asset = mapper.toAsset(assetCreate);
-        asset.setCreatedAt(LocalDateTime.now());
-        digitalUserDocument.getAssets().add(asset);
-        mongoTemplate.save(digitalUserDocument);
         return asset;
+    }
 
+    @Override
+    @Transactional
+    public List<Asset> createAll(String digitalUserId, List<AssetCreate> assetCreates) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<Asset> assets = new ArrayList<>(assetCreates.size());
+        for (AssetCreate assetCreate : assetCreates) {
+            Asset asset = mapper.toAsset(assetCreate);
+            asset.setCreatedAt(createdAt);
+            assets.add(asset);
+        }
+
+        while (!assets.isEmpty()) {
+            // One $push $each for the whole batch, matching only while none of its externalIds is taken
+            Query query = new Query(Criteria.where("id").is(digitalUserId)
+                    .and("assets.externalId").nin(assets.stream().map(Asset::getExternalId).toList()));
+            UpdateResult updateResult = mongoTemplate.updateFirst(
+                    query,
+                    new Update().push("assets").each(assets.toArray()),
+                    DigitalUserDocument.class
+            );
+
+            if (updateResult.getMatchedCount() > 0) {
+                return assets;
+            }
+
+            // Some externalIds are taken, drop those and push the rest
+            Set<String> takenExternalIds = findExternalIds(digitalUserId);
+            assets = assets.stream()
+                    .filter(asset -> !takenExternalIds.contains(asset.getExternalId()))
+                    .toList();
+        }
+
+        return assets;
     }
 
     @Override
@@ -69,88 +131,147 @@ public class AssetDataProviderNoSql implements AssetDataProvider {
             throw new ParameterValidationErrorException("digitalUserId cannot be empty");
         }
 
-        String userId = input.getDigitalUserId();
-        if (!digitalUserDataProviderNoSql.existsById(userId)) {
-            throw new ResourceNotFoundException(DigitalUserDocument.class, userId);
+        // Filtering and paging run server-side, so only the requested page crosses the wire
+        List<Asset> assets = mongoTemplate.aggregate(toAssetsAggregation(input), Asset.class).getMappedResults();
+
+        // An empty page is ambiguous, only then is it worth checking whether the user exists
+        if (assets.isEmpty() && !digitalUserDataProviderNoSql.existsById(input.getDigitalUserId())) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, input.getDigitalUserId());
         }
 
-        Query query = new Query(Criteria.where("id").is(userId));
-        DigitalUserDocument digitalUserDocument = mongoTemplate.findOne(query, DigitalUserDocument.class);
+        return assets;
+    }
 
-        if (digitalUserDocument == null || digitalUserDocument.getAssets() == null ||
-                digitalUserDocument.getAssets().isEmpty()) {
-            return Collections.emptyList();
+    @Override
+    public Supplier<Stream<Asset>> streamAll(String digitalUserId) {
+        // Checked up front, once the stream is handed out a missing user is indistinguishable from an empty library
+        if (!digitalUserDataProviderNoSql.existsById(digitalUserId)) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, digitalUserId);
         }
 
-        return digitalUserDocument.getAssets()
-                .stream()
-                .filter(asset -> matchesAssetCriteria(asset, input))
-                .skip(input.getOffset())
-                .limit(input.getLimit())
-                .collect(Collectors.toList());
+        TypedAggregation<DigitalUserDocument> aggregation = Aggregation.newAggregation(
+                DigitalUserDocument.class,
+                Aggregation.match(Criteria.where("id").is(digitalUserId)),
+                Aggregation.project("assets"),
+                Aggregation.unwind("assets"),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "assets.createdAt", EMBEDDED_ASSET_ID)),
+                Aggregation.replaceRoot("assets")
+        ).withOptions(AggregationOptions.builder()
+                .cursorBatchSize(STREAM_BATCH_SIZE)
+                .allowDiskUse(true) // A large library can outgrow the in-memory limit of the $sort stage
+                .build());
+
+        return () -> mongoTemplate.aggregateStream(aggregation, Asset.class);
     }
 
     @Override
     @Transactional
     public void delete(String digitalUserId, String externalId) {
-        if (!existsByExternalId(digitalUserId, externalId)) {
+        // The filter doubles as the existence check, so delete is a single round trip
+        Query query = new Query(Criteria.where("id").is(digitalUserId)
+                .and("assets.externalId").is(externalId));
+        Update update = new Update().pull("assets", new BasicDBObject("externalId", externalId));
+        UpdateResult updateResult = mongoTemplate.updateFirst(query, update, DigitalUserDocument.class);
+
+        if (updateResult.getModifiedCount() == 0) {
             throw new ResourceNotFoundException(Asset.class, externalId);
         }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll(String digitalUserId, Collection<String> externalIds) {
+        if (externalIds == null || externalIds.isEmpty()) {
+            return;
+        }
 
         Query query = new Query(Criteria.where("id").is(digitalUserId));
-        Update update = new Update().pull("assets", new BasicDBObject("externalId", externalId));
-        mongoTemplate.updateFirst(query, update, DigitalUserDocument.class);
+        Update update = new Update().pull("assets",
+                new BasicDBObject("externalId", new BasicDBObject("$in", externalIds)));
+        UpdateResult updateResult = mongoTemplate.updateFirst(query, update, DigitalUserDocument.class);
+
+        // Unknown externalIds are ignored, only a missing user is an error
+        if (updateResult.getMatchedCount() == 0) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, digitalUserId);
+        }
     }
 
-    private boolean existsByExternalId(String digitalUserId, String externalId) {
-        Query query = new Query().addCriteria(Criteria.where("id").is(digitalUserId))
-                .addCriteria(Criteria.where("assets.externalId").is(externalId));
+    private Set<String> findExternalIds(String digitalUserId) {
+        Query query = new Query(Criteria.where("id").is(digitalUserId));
+        query.fields().include("assets.externalId");
+        DigitalUserDocument digitalUserDocument = mongoTemplate.findOne(query, DigitalUserDocument.class);
 
-        return mongoTemplate.exists(query, DigitalUserDocument.class);
+        if (digitalUserDocument == null) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, digitalUserId);
+        }
+
+        return digitalUserDocument.getAssets().stream()
+                .map(Asset::getExternalId)
+                .collect(Collectors.toSet());
+    }
+
+    private TypedAggregation<DigitalUserDocument> toAssetsAggregation(ListAssetsByCriteriaUseCase.Input input) {
+        return Aggregation.newAggregation(
+                DigitalUserDocument.class,
+                Aggregation.match(Criteria.where("id").is(input.getDigitalUserId())),
+                Aggregation.project("assets"), // PII is neither fetched nor decrypted for asset listing
+                Aggregation.unwind("assets"),
+                Aggregation.match(toAssetCriteria(new Criteria(), input, "assets.", EMBEDDED_ASSET_ID)),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "assets.createdAt", EMBEDDED_ASSET_ID)),
+                Aggregation.skip((long) input.getOffset()),
+                Aggregation.limit(input.getLimit()),
+                Aggregation.replaceRoot("assets")
+        );
     }
 
-    private boolean matchesAssetCriteria(Asset asset, ListAssetsByCriteriaUseCase.Input input) {
+    // Shared with the assets collection, where the same predicates apply to top-level fields
+    static Criteria toAssetCriteria(
+            Criteria criteria,
+            ListAssetsByCriteriaUseCase.Input input,
+            String prefix,
+            String idField
+    ) {
         if (input.getGroupId() != null) {
-            if (asset.getArtifactInformation() == null
-                    || !input.getGroupId().equals(asset.getArtifactInformation().getGroupId())) {
-                return false;
-            }
+            criteria.and(prefix + "artifactInformation.groupId").is(input.getGroupId());
         }
 
         if (input.getArtifactId() != null) {
-            if (asset.getArtifactInformation() == null
-                    || !input.getArtifactId().equals(asset.getArtifactInformation().getArtifactId())) {
-                return false;
-            }
+            criteria.and(prefix + "artifactInformation.artifactId").is(input.getArtifactId());
         }
 
-        if (input.getType() != null && !input.getType().equals(asset.getType())) {
-            return false;
+        if (input.getType() != null) {
+            criteria.and(prefix + "type").is(input.getType());
         }
 
         if (input.getExternalIds() != null && !input.getExternalIds().isEmpty()) {
-            List<String> externalIds = List.of(input.getExternalIds().split(","));
-
-            if (asset.getExternalId() == null || !externalIds.contains(asset.getExternalId())) {
-                return false;
-            }
+            criteria.and(prefix + "externalId").in(List.of(input.getExternalIds().split(",")));
         }
 
         if (input.getCreatedAt() != null) {
-            if (!asset.getCreatedAt().toLocalDate().equals(input.getCreatedAt())) {
-                return false;
-            }
-        } else {
-            if (input.getFrom() != null && asset.getCreatedAt().isBefore(input.getFrom().atStartOfDay())) {
-                return false;
+            criteria.and(prefix + "createdAt")
+                    .gte(input.getCreatedAt().atStartOfDay())
+                    .lt(input.getCreatedAt().plusDays(1).atStartOfDay());
+        } else if (input.getFrom() != null || input.getTo() != null) {
+            Criteria createdAt = criteria.and(prefix + "createdAt");
+
+            if (input.getFrom() != null) {
+                createdAt.gte(input.getFrom().atStartOfDay());
             }
 
-            if (input.getTo() != null && asset.getCreatedAt()
-                    .isAfter(input.getTo().atTime(23, 59, 59, 999999999))) {
-                return false;
+            if (input.getTo() != null) {
+                createdAt.lt(input.getTo().plusDays(1).atStartOfDay());
             }
         }
 
-        return true;
+        // Keyset seek past the cursor in (createdAt, id) order, the same order both storages sort by
+        AssetCursor cursor = AssetCursor.decode(input.getCursor());
+        if (cursor != null) {
+            criteria.orOperator(
+                    Criteria.where(prefix + "createdAt").gt(cursor.getCreatedAt()),
+                    Criteria.where(prefix + "createdAt").is(cursor.getCreatedAt()).and(idField).gt(cursor.getId())
+            );
+        }
+
+        return criteria;
     }
 }
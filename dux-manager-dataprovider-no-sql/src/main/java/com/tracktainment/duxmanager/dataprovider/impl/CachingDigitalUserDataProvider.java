@@ -0,0 +1,273 @@
+package com.tracktainment.duxmanager.dataprovider.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
+import com.tracktainment.duxmanager.domain.BaseObject;
+import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.dto.DigitalUserCreate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Near-cache for login lookups, entries live on the heap only and other instances see writes once the TTL expires
+public class CachingDigitalUserDataProvider implements DigitalUserDataProvider {
+
+    private final DigitalUserDataProvider delegate;
+    private final Set<DigitalUser.Expansion> cachedExpansions;
+    private final Cache<String, DigitalUser> usersById;
+    private final Cache<IdentityKey, String> idsByIdentity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Bumped by every delete, a load that overlaps one is served but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CachingDigitalUserDataProvider(
+            DigitalUserDataProvider delegate,
+            long maximumSize,
+            Duration timeToLive,
+            boolean includePersonalData
+    ) {
+        this.delegate = delegate;
+
+        // Assets are never cached, so asset writes cannot leave an entry stale
+        this.cachedExpansions = includePersonalData
+                ? EnumSet.of(DigitalUser.Expansion.PERSONAL_INFORMATION, DigitalUser.Expansion.CONTACT_MEDIUM_LIST)
+                : EnumSet.noneOf(DigitalUser.Expansion.class);
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.idsByIdentity = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    @Override
+    public DigitalUser create(DigitalUserCreate digitalUserCreate) {
+        DigitalUser digitalUser = delegate.create(digitalUserCreate);
+        idsByIdentity.invalidate(IdentityKey.of(digitalUser.getIdentityProviderInformation()));
+        return digitalUser;
+    }
+
+    @Override
+    public DigitalUser findById(String id, Set<DigitalUser.Expansion> expansions) {
+        if (!cachedExpansions.containsAll(expansions)) {
+            return delegate.findById(id, expansions);
+        }
+
+        DigitalUser digitalUser = usersById.getIfPresent(id);
+        if (digitalUser == null) {
+            misses.increment();
+            digitalUser = load(() -> delegate.findById(id, cachedExpansions));
+        } else {
+            hits.increment();
+        }
+
+        return project(digitalUser, expansions);
+    }
+
+    @Override
+    public DigitalUser findBySubAndIdPAndTenant(
+            String subject,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+            String tenantId,
+            Set<DigitalUser.Expansion> expansions
+    ) {
+        if (!cachedExpansions.containsAll(expansions)) {
+            return delegate.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, expansions);
+        }
+
+        String id = idsByIdentity.getIfPresent(new IdentityKey(subject, identityProvider, tenantId));
+        DigitalUser digitalUser = id == null ? null : usersById.getIfPresent(id);
+        if (digitalUser == null) {
+            misses.increment();
+            digitalUser = load(() ->
+                    delegate.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, cachedExpansions));
+        } else {
+            hits.increment();
+        }
+
+        return project(digitalUser, expansions);
+    }
+
+    @Override
+    public BaseObject resolveIdBySubAndIdPAndTenant(
+            String subject,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+            String tenantId
+    ) {
+        // Misses are not cached, the resolved id alone would not serve a full lookup
+        String id = idsByIdentity.getIfPresent(new IdentityKey(subject, identityProvider, tenantId));
+        DigitalUser digitalUser = id == null ? null : usersById.getIfPresent(id);
+        if (digitalUser == null) {
+            misses.increment();
+            return delegate.resolveIdBySubAndIdPAndTenant(subject, identityProvider, tenantId);
+        }
+
+        hits.increment();
+        return BaseObject.builder()
+                .id(digitalUser.getId())
+                .createdAt(digitalUser.getCreatedAt())
+                .updatedAt(digitalUser.getUpdatedAt())
+                .build();
+    }
+
+    @Override
+    public List<DigitalUser> findByEmailAddress(String emailAddress) {
+        return delegate.findByEmailAddress(emailAddress);
+    }
+
+    @Override
+    public List<DigitalUser> findByPhoneNumber(String countryCode, String phoneNumber) {
+        return delegate.findByPhoneNumber(countryCode, phoneNumber);
+    }
+
+    @Override
+    public void delete(String id) {
+        // Identity entries pointing at the id fall back to the delegate once the user is gone
+        try {
+            delegate.delete(id);
+        } finally {
+            invalidations.incrementAndGet();
+            usersById.invalidate(id);
+        }
+    }
+
+    // Hits and misses count lookups the cache could serve, evictions come from the by-id entries
+    public CacheStats stats() {
+        CacheStats entryStats = usersById.stats();
+        return CacheStats.of(
+                hits.sum(),
+                misses.sum(),
+                0,
+                0,
+                0,
+                entryStats.evictionCount(),
+                entryStats.evictionWeight()
+        );
+    }
+
+    public long size() {
+        return usersById.estimatedSize();
+    }
+
+    private DigitalUser load(Supplier<DigitalUser> loader) {
+        long version = invalidations.get();
+        DigitalUser digitalUser = loader.get();
+
+        // compute runs under the same lock as invalidate, so a racing delete either removes the entry afterwards
+        // or has already bumped the version and the stale read is never stored
+        usersById.asMap().compute(
+                digitalUser.getId(),
+                (id, cached) -> invalidations.get() == version ? digitalUser : cached
+        );
+        idsByIdentity.put(IdentityKey.of(digitalUser.getIdentityProviderInformation()), digitalUser.getId());
+        return digitalUser;
+    }
+
+    // Deep copy per caller, trimmed to what was asked for, so callers can never mutate a cached entry
+    private DigitalUser project(DigitalUser digitalUser, Set<DigitalUser.Expansion> expansions) {
+        return DigitalUser.builder()
+                .id(digitalUser.getId())
+                .createdAt(digitalUser.getCreatedAt())
+                .updatedAt(digitalUser.getUpdatedAt())
+                .identityProviderInformation(copy(digitalUser.getIdentityProviderInformation()))
+                .personalInformation(expansions.contains(DigitalUser.Expansion.PERSONAL_INFORMATION)
+                        ? copy(digitalUser.getPersonalInformation())
+                        : null)
+                .contactMediumList(expansions.contains(DigitalUser.Expansion.CONTACT_MEDIUM_LIST)
+                        ? copy(digitalUser.getContactMediumList())
+                        : null)
+                .build();
+    }
+
+    private static DigitalUser.IdentityProviderInformation copy(
+            DigitalUser.IdentityProviderInformation identityProviderInformation
+    ) {
+        if (identityProviderInformation == null) {
+            return null;
+        }
+
+        return DigitalUser.IdentityProviderInformation.builder()
+                .subject(identityProviderInformation.getSubject())
+                .identityProvider(identityProviderInformation.getIdentityProvider())
+                .tenantId(identityProviderInformation.getTenantId())
+                .build();
+    }
+
+    private static DigitalUser.PersonalInformation copy(DigitalUser.PersonalInformation personalInformation) {
+        if (personalInformation == null) {
+            return null;
+        }
+
+        return DigitalUser.PersonalInformation.builder()
+                .fullName(personalInformation.getFullName())
+                .firstName(personalInformation.getFirstName())
+                .middleName(personalInformation.getMiddleName())
+                .lastName(personalInformation.getLastName())
+                .nickname(personalInformation.getNickname())
+                .birthDate(personalInformation.getBirthDate())
+                .build();
+    }
+
+    private static List<DigitalUser.ContactMedium> copy(List<DigitalUser.ContactMedium> contactMediumList) {
+        if (contactMediumList == null) {
+            return null;
+        }
+
+        return contactMediumList.stream()
+                .map(CachingDigitalUserDataProvider::copy)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static DigitalUser.ContactMedium copy(DigitalUser.ContactMedium contactMedium) {
+        if (contactMedium == null) {
+            return null;
+        }
+
+        DigitalUser.ContactMedium.Characteristic characteristic = contactMedium.getCharacteristic();
+        return DigitalUser.ContactMedium.builder()
+                .preferred(contactMedium.isPreferred())
+                .type(contactMedium.getType())
+                .expiresAt(contactMedium.getExpiresAt())
+                .characteristic(characteristic == null ? null : DigitalUser.ContactMedium.Characteristic.builder()
+                        .countryCode(characteristic.getCountryCode())
+                        .phoneNumber(characteristic.getPhoneNumber())
+                        .emailAddress(characteristic.getEmailAddress())
+                        .country(characteristic.getCountry())
+                        .city(characteristic.getCity())
+                        .stateOrProvince(characteristic.getStateOrProvince())
+                        .postalCode(characteristic.getPostalCode())
+                        .street1(characteristic.getStreet1())
+                        .street2(characteristic.getStreet2())
+                        .build())
+                .build();
+    }
+
+    private record IdentityKey(
+            String subject,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+            String tenantId
+    ) {
+
+        static IdentityKey of(DigitalUser.IdentityProviderInformation identityProviderInformation) {
+            return new IdentityKey(
+                    identityProviderInformation.getSubject(),
+                    identityProviderInformation.getIdentityProvider(),
+                    identityProviderInformation.getTenantId()
+            );
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.tracktainment.duxmanager.dataprovider.impl;
+
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.exception.InternalServerErrorException;
+import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
+import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Group commit for creates: concurrent creates on one digital user share a single createAll instead of contending for its document
+@RequiredArgsConstructor
+@Slf4j
+public class CoalescingAssetDataProvider implements AssetDataProvider {
+
+    private final AssetDataProvider delegate;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Map<String, Batch> openBatches = new ConcurrentHashMap<>();
+
+    @Override
+    public Asset create(String digitalUserId, AssetCreate assetCreate) {
+        PendingCreate pendingCreate = new PendingCreate(assetCreate, new CompletableFuture<>());
+
+        while (true) {
+            Batch batch = openBatches.computeIfAbsent(digitalUserId, id -> new Batch());
+            int position = batch.add(pendingCreate, maxBatchSize);
+
+            if (position < 0) {
+                // Sealed between lookup and add, retire it and join a fresh one
+                openBatches.remove(digitalUserId, batch);
+                continue;
+            }
+
+            if (position == 0) {
+                // The first caller leads: it waits out the window, unless the batch fills up and is flushed earlier
+                try {
+                    pendingCreate.result().get(windowMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException | ExecutionException e) {
+                    // Handled by await below
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    flush(digitalUserId, batch);
+                }
+            } else if (position == maxBatchSize - 1) {
+                flush(digitalUserId, batch);
+            }
+
+            return await(pendingCreate.result());
+        }
+    }
+
+    @Override
+    public List<Asset> createAll(String digitalUserId, List<AssetCreate> assetCreates) {
+        return delegate.createAll(digitalUserId, assetCreates);
+    }
+
+    @Override
+    public Asset findByExternalId(String digitalUserId, String externalId) {
+        return delegate.findByExternalId(digitalUserId, externalId);
+    }
+
+    @Override
+    public List<Asset> listByCriteria(ListAssetsByCriteriaUseCase.Input input) {
+        return delegate.listByCriteria(input);
+    }
+
+    @Override
+    public Supplier<Stream<Asset>> streamAll(String digitalUserId) {
+        return delegate.streamAll(digitalUserId);
+    }
+
+    @Override
+    public void delete(String digitalUserId, String externalId) {
+        delegate.delete(digitalUserId, externalId);
+    }
+
+    @Override
+    public void deleteAll(String digitalUserId, Collection<String> externalIds) {
+        delegate.deleteAll(digitalUserId, externalIds);
+    }
+
+    private void flush(String digitalUserId, Batch batch) {
+        List<PendingCreate> pendingCreates = batch.seal();
+        if (pendingCreates == null) {
+            return;
+        }
+
+        openBatches.remove(digitalUserId, batch);
+        try {
+            write(digitalUserId, pendingCreates);
+        } finally {
+            // No caller may be left waiting, whatever went wrong above
+            pendingCreates.forEach(pendingCreate -> pendingCreate.result().completeExceptionally(
+                    new InternalServerErrorException("Coalesced asset creation did not complete.")));
+        }
+    }
+
+    private void write(String digitalUserId, List<PendingCreate> pendingCreates) {
+        // A repeated externalId in the window fails like it would have when written one after the other
+        Map<String, PendingCreate> byExternalId = new LinkedHashMap<>();
+        for (PendingCreate pendingCreate : pendingCreates) {
+            String externalId = pendingCreate.assetCreate().getExternalId();
+            if (byExternalId.putIfAbsent(externalId, pendingCreate) != null) {
+                pendingCreate.result().completeExceptionally(new ResourceAlreadyExistsException(Asset.class, externalId));
+            }
+        }
+
+        try {
+            Map<String, Asset> createdAssets = delegate.createAll(
+                    digitalUserId,
+                    byExternalId.values().stream().map(PendingCreate::assetCreate).toList()
+            ).stream().collect(Collectors.toMap(Asset::getExternalId, Function.identity()));
+
+            byExternalId.forEach((externalId, pendingCreate) -> {
+                Asset asset = createdAssets.get(externalId);
+                if (asset != null) {
+                    pendingCreate.result().complete(asset);
+                } else {
+                    pendingCreate.result().completeExceptionally(new ResourceAlreadyExistsException(Asset.class, externalId));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.debug("Coalesced creation of {} assets for digital user {} failed", byExternalId.size(), digitalUserId, e);
+            byExternalId.values().forEach(pendingCreate -> pendingCreate.result().completeExceptionally(e));
+        }
+    }
+
+    private Asset await(CompletableFuture<Asset> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new InternalServerErrorException("Coalesced asset creation failed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorException("Interrupted while waiting for coalesced asset creation.");
+        }
+    }
+
+    private record PendingCreate(AssetCreate assetCreate, CompletableFuture<Asset> result) {
+    }
+
+    private static class Batch {
+
+        private final List<PendingCreate> pendingCreates = new ArrayList<>();
+        private boolean sealed;
+
+        // Position of the added create, or -1 once the batch no longer takes creates
+        synchronized int add(PendingCreate pendingCreate, int maxSize) {
+            if (sealed || pendingCreates.size() >= maxSize) {
+                return -1;
+            }
+
+            pendingCreates.add(pendingCreate);
+            return pendingCreates.size() - 1;
+        }
+
+        // Creates to write, only to the first caller
+        synchronized List<PendingCreate> seal() {
+            if (sealed) {
+                return null;
+            }
+
+            sealed = true;
+            return pendingCreates;
+        }
+    }
+}
@@ -1,37 +1,59 @@
 package com.tracktainment.duxmanager.dataprovider.impl;
 
 import com.mongodb.client.result.DeleteResult;
+import com.tracktainment.duxmanager.annotation.BlindIndex;
+import com.tracktainment.duxmanager.config.AssetStorageConfig;
 import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
+import com.tracktainment.duxmanager.document.AssetDocument;
 import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.domain.BaseObject;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import com.tracktainment.duxmanager.dto.DigitalUserCreate;
+import com.tracktainment.duxmanager.encryption.EncryptionService;
 import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
 import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import com.tracktainment.duxmanager.mapper.AssetMapperDataProvider;
 import com.tracktainment.duxmanager.mapper.DigitalUserMapperDataProvider;
+import com.tracktainment.duxmanager.util.Constants;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DigitalUserDataProviderNoSql implements DigitalUserDataProvider {
 
     private final DigitalUserMapperDataProvider mapper;
+    private final AssetMapperDataProvider assetMapper;
     private final MongoTemplate mongoTemplate;
+    private final EncryptionService encryptionService;
+
+    @Value("${assets.storage-mode:EMBEDDED}")
+    private AssetStorageConfig.StorageMode assetStorageMode = AssetStorageConfig.StorageMode.EMBEDDED;
 
     @Override
-    @Transactional
     public DigitalUser create(DigitalUserCreate digitalUserCreate) {
-        if (existsBySubjectAndIdentityProviderAndTenant(
-                digitalUserCreate.getIdentityProviderInformation().getSubject(),
-                digitalUserCreate.getIdentityProviderInformation().getIdentityProvider(),
-                digitalUserCreate.getIdentityProviderInformation().getTenantId()
-        )) {
+        DigitalUserDocument digitalUserDocument = mapper.toDigitalUserDocument(digitalUserCreate);
+
+        // The unique identity index rejects duplicates without a prior lookup
+        try {
+            return mapper.toDigitalUser(mongoTemplate.insert(digitalUserDocument));
+        } catch (DuplicateKeyException e) {
             throw new ResourceAlreadyExistsException(
                     DigitalUserDocument.class,
                     String.format(
@@ -42,37 +64,102 @@ public class DigitalUserDataProviderNoSql implements DigitalUserDataProvider {
                     )
             );
         }
-
-        DigitalUserDocument digitalUserDocument = mapper.toDigitalUserDocument(digitalUserCreate);
-        digitalUserDocument = mongoTemplate.save(digitalUserDocument);
-        return mapper.toDigitalUser(digitalUserDocument);
     }
 
     @Override
-    public DigitalUser findById(String id) {
-        return mapper.toDigitalUser(findDigitalUserDocumentById(id));
+    public DigitalUser findById(String id, Set<DigitalUser.Expansion> expansions) {
+        // Once assets live in their own collection the embedded array is stale, so it is never read
+        boolean assetsFromCollection = expansions.contains(DigitalUser.Expansion.ASSETS)
+                && assetStorageMode == AssetStorageConfig.StorageMode.COLLECTION;
+        Set<DigitalUser.Expansion> documentExpansions = assetsFromCollection
+                ? expansions.stream()
+                        .filter(expansion -> expansion != DigitalUser.Expansion.ASSETS)
+                        .collect(Collectors.toSet())
+                : expansions;
+
+        Query query = new Query(Criteria.where("id").is(id));
+        excludeUnexpanded(query, documentExpansions);
+
+        DigitalUserDocument digitalUserDocument = mongoTemplate.findOne(query, DigitalUserDocument.class);
+        if (digitalUserDocument == null) {
+            throw new ResourceNotFoundException(DigitalUserDocument.class, id);
+        }
+
+        DigitalUser digitalUser = toDigitalUser(digitalUserDocument, documentExpansions);
+        if (assetsFromCollection) {
+            digitalUser.setAssets(findCollectionAssets(id));
+        }
+
+        return digitalUser;
     }
 
     @Override
-    public DigitalUser findBySubAndIdPAndTenant(String subject, DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider, String tenantId) {
-        Query query = new Query().addCriteria(Criteria.where("identityProviderInformation.subject").is(subject))
-                .addCriteria(Criteria.where("identityProviderInformation.identityProvider").is(identityProvider))
-                .addCriteria(Criteria.where("identityProviderInformation.tenantId").is(tenantId));
+    public DigitalUser findBySubAndIdPAndTenant(
+            String subject,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+            String tenantId,
+            Set<DigitalUser.Expansion> expansions
+    ) {
+        Set<DigitalUser.Expansion> loginExpansions = expansions.stream()
+                .filter(expansion -> expansion != DigitalUser.Expansion.ASSETS)
+                .collect(Collectors.toSet());
+
+        Query query = identityQuery(subject, identityProvider, tenantId);
+        excludeUnexpanded(query, loginExpansions);
 
         DigitalUserDocument digitalUserDocument = mongoTemplate.findOne(query, DigitalUserDocument.class);
         if (digitalUserDocument == null) {
-            throw new ResourceNotFoundException(
-                    DigitalUserDocument.class,
-                    String.format(
-                            "with combination of subject: %s, identity provider: %s and tenant ID: %s",
-                            subject,
-                            identityProvider,
-                            tenantId
-                    )
-            );
+            throw identityNotFound(subject, identityProvider, tenantId);
         }
 
-        return mapper.toDigitalUser(digitalUserDocument);
+        return toDigitalUser(digitalUserDocument, loginExpansions);
+    }
+
+    @Override
+    public BaseObject resolveIdBySubAndIdPAndTenant(
+            String subject,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+            String tenantId
+    ) {
+        // Covered by the identity covering index, read as a raw document so nothing is mapped or decrypted
+        Query query = identityQuery(subject, identityProvider, tenantId)
+                .withHint(DigitalUserDocument.IDENTITY_COVERING_INDEX);
+        query.fields().include("_id", "created_at", "updated_at");
+
+        Document document = mongoTemplate.findOne(
+                query,
+                Document.class,
+                mongoTemplate.getCollectionName(DigitalUserDocument.class)
+        );
+        if (document == null) {
+            throw identityNotFound(subject, identityProvider, tenantId);
+        }
+
+        return BaseObject.builder()
+                .id(document.getString("_id"))
+                .createdAt(toLocalDateTime(document.getDate("created_at")))
+                .updatedAt(toLocalDateTime(document.getDate("updated_at")))
+                .build();
+    }
+
+    @Override
+    public List<DigitalUser> findByEmailAddress(String emailAddress) {
+        return findByBlindIndex(
+                "contactMediumList.characteristic.emailAddressIndex",
+                BlindIndex.Normalization.LOWERCASE.normalize(emailAddress)
+        );
+    }
+
+    @Override
+    public List<DigitalUser> findByPhoneNumber(String countryCode, String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            return List.of();
+        }
+
+        return findByBlindIndex(
+                "contactMediumList.characteristic.phoneNumberIndex",
+                BlindIndex.Normalization.DIGITS.normalizeAndJoin(countryCode, phoneNumber)
+        );
     }
 
     @Override
@@ -84,19 +171,87 @@ public class DigitalUserDataProviderNoSql implements DigitalUserDataProvider {
         if (deleteResult.getDeletedCount() == 0) {
             throw new ResourceNotFoundException(DigitalUserDocument.class, id);
         }
+
+        // Copies in the assets collection go with their user, only the embedded layout never writes any
+        if (assetStorageMode != AssetStorageConfig.StorageMode.EMBEDDED) {
+            mongoTemplate.remove(new Query(Criteria.where("digitalUserId").is(id)), AssetDocument.class);
+        }
     }
 
-    private boolean existsBySubjectAndIdentityProviderAndTenant(
+    // Equality on every key of the unique identity index, a single index seek
+    private Query identityQuery(
             String subject,
-            DigitalUserCreate.IdentityProviderInformation.IdentityProvider identityProvider,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
             String tenantId
     ) {
-        Query query = new Query()
-                .addCriteria(Criteria.where("identityProviderInformation.subject").is(subject))
+        return new Query().addCriteria(Criteria.where("identityProviderInformation.subject").is(subject))
                 .addCriteria(Criteria.where("identityProviderInformation.identityProvider").is(identityProvider))
-                .addCriteria(Criteria.where("identityProvider.tenantId").is(tenantId));
+                .addCriteria(Criteria.where("identityProviderInformation.tenantId").is(tenantId));
+    }
 
-        return mongoTemplate.exists(query, DigitalUserDocument.class);
+    private ResourceNotFoundException identityNotFound(
+            String subject,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+            String tenantId
+    ) {
+        return new ResourceNotFoundException(
+                DigitalUserDocument.class,
+                String.format(
+                        "with combination of subject: %s, identity provider: %s and tenant ID: %s",
+                        subject,
+                        identityProvider,
+                        tenantId
+                )
+        );
+    }
+
+    // Spring Data writes LocalDateTime in the system zone, so it is read back the same way
+    private LocalDateTime toLocalDateTime(Date date) {
+        return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    // Normalization must match the @BlindIndex declaration on DigitalUserDocument.ContactMedium.Characteristic
+    private List<DigitalUser> findByBlindIndex(String indexField, String normalizedValue) {
+        if (normalizedValue == null || normalizedValue.isEmpty()) {
+            return List.of();
+        }
+
+        // Identity only, personal data of whoever matches is neither read nor decrypted
+        Query query = new Query(Criteria.where(indexField).is(encryptionService.blindIndex(normalizedValue)))
+                .limit(Constants.MAX_LIMIT);
+        excludeUnexpanded(query, Set.of());
+
+        return mongoTemplate.find(query, DigitalUserDocument.class).stream()
+                .map(digitalUserDocument -> toDigitalUser(digitalUserDocument, Set.of()))
+                .toList();
+    }
+
+    // Same order as the export, along the (digitalUserId, created_at, _id) index
+    private List<Asset> findCollectionAssets(String digitalUserId) {
+        Query query = new Query(Criteria.where("digitalUserId").is(digitalUserId))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "id"));
+
+        return mongoTemplate.find(query, AssetDocument.class).stream()
+                .map(assetMapper::toAsset)
+                .toList();
+    }
+
+    // Excluded parts are never sent by the server, so neither decrypted nor mapped
+    private void excludeUnexpanded(Query query, Set<DigitalUser.Expansion> expansions) {
+        for (DigitalUser.Expansion expansion : DigitalUser.Expansion.values()) {
+            if (!expansions.contains(expansion)) {
+                query.fields().exclude(expansion.getValue());
+            }
+        }
+    }
+
+    private DigitalUser toDigitalUser(DigitalUserDocument digitalUserDocument, Set<DigitalUser.Expansion> expansions) {
+        // The document defaults to an empty asset list, which would read as a user without assets
+        if (!expansions.contains(DigitalUser.Expansion.ASSETS)) {
+            digitalUserDocument.setAssets(null);
+        }
+
+        return mapper.toDigitalUser(digitalUserDocument);
     }
 
     public boolean existsById(String id) {
@@ -0,0 +1,76 @@
+package com.tracktainment.duxmanager.dataprovider.impl;
+
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Migration mode: the embedded array stays the source of truth, every write is mirrored to the assets collection
+@RequiredArgsConstructor
+@Slf4j
+public class DualWriteAssetDataProvider implements AssetDataProvider {
+
+    private final AssetDataProviderNoSql embedded;
+    private final AssetCollectionDataProviderNoSql collection;
+
+    @Override
+    public Asset create(String digitalUserId, AssetCreate assetCreate) {
+        Asset asset = embedded.create(digitalUserId, assetCreate);
+        mirror(digitalUserId, () -> collection.upsertAll(digitalUserId, List.of(asset)));
+        return asset;
+    }
+
+    @Override
+    public List<Asset> createAll(String digitalUserId, List<AssetCreate> assetCreates) {
+        List<Asset> assets = embedded.createAll(digitalUserId, assetCreates);
+        if (!assets.isEmpty()) {
+            mirror(digitalUserId, () -> collection.upsertAll(digitalUserId, assets));
+        }
+        return assets;
+    }
+
+    @Override
+    public Asset findByExternalId(String digitalUserId, String externalId) {
+        return embedded.findByExternalId(digitalUserId, externalId);
+    }
+
+    @Override
+    public List<Asset> listByCriteria(ListAssetsByCriteriaUseCase.Input input) {
+        return embedded.listByCriteria(input);
+    }
+
+    @Override
+    public Supplier<Stream<Asset>> streamAll(String digitalUserId) {
+        return embedded.streamAll(digitalUserId);
+    }
+
+    @Override
+    public void delete(String digitalUserId, String externalId) {
+        embedded.delete(digitalUserId, externalId);
+        mirror(digitalUserId, () -> collection.removeAll(digitalUserId, List.of(externalId)));
+    }
+
+    @Override
+    public void deleteAll(String digitalUserId, Collection<String> externalIds) {
+        embedded.deleteAll(digitalUserId, externalIds);
+        if (externalIds != null && !externalIds.isEmpty()) {
+            mirror(digitalUserId, () -> collection.removeAll(digitalUserId, externalIds));
+        }
+    }
+
+    // A failed mirror must not fail a write that already succeeded, re-running the backfill repairs the copy
+    private void mirror(String digitalUserId, Runnable write) {
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            log.warn("Failed to mirror asset write to the assets collection for digital user {}", digitalUserId, e);
+        }
+    }
+}
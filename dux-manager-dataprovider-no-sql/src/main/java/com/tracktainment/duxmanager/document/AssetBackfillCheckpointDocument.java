@@ -0,0 +1,35 @@
+package com.tracktainment.duxmanager.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Document(collection = "asset-backfill-checkpoints")
+public class AssetBackfillCheckpointDocument {
+
+    // Deleting the checkpoint starts a new pass, which is how copies are reconciled before switching to COLLECTION
+    @Id
+    private String id;
+
+    private String lastProcessedId;
+    private long processedCount;
+    private long copiedCount;
+
+    // Users whose copy failed, retried at the end of each pass, completion waits until none are left
+    @Builder.Default
+    private List<String> failedIds = new ArrayList<>();
+
+    private boolean completed;
+    private LocalDateTime updatedAt;
+}
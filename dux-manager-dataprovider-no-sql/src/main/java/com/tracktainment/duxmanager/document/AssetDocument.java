@@ -0,0 +1,30 @@
+package com.tracktainment.duxmanager.document;
+
+import com.tracktainment.duxmanager.domain.Asset;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@Document(collection = "assets")
+@CompoundIndex(name = "digitalUserId_externalId", def = "{'digitalUserId': 1, 'externalId': 1}", unique = true)
+@CompoundIndex(name = "digitalUserId_type_createdAt", def = "{'digitalUserId': 1, 'type': 1, 'created_at': 1}")
+@CompoundIndex(name = "digitalUserId_createdAt__id", def = "{'digitalUserId': 1, 'created_at': 1, '_id': 1}")
+public class AssetDocument extends BaseDocument implements Persistable<String> {
+
+    @Id
+    private String id;
+
+    private String digitalUserId;
+    private String externalId;
+    private String type;
+    private Asset.PermissionPolicy permissionPolicy;
+    private Asset.ArtifactInformation artifactInformation;
+}
@@ -1,27 +1,23 @@
 package com.tracktainment.duxmanager.document;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
-import org.bson.types.ObjectId;
 import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 
-@AllArgsConstructor
 @NoArgsConstructor
 @Data
 @SuperBuilder
 public class BaseDocument {
 
-    @Id
-    @Field("_id_")
-    private ObjectId dbId;
-
     @CreatedDate
     @Field("created_at")
     private LocalDateTime createdAt;
@@ -30,7 +26,27 @@ public class BaseDocument {
     @Field("updated_at")
     private LocalDateTime updatedAt;
 
-    private boolean isNew() {
+    // Plaintext and ciphertext seen by the encryption listeners, lets unchanged fields keep their ciphertext on save
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient EncryptedValueSnapshot encryptedValueSnapshot;
+
+    public BaseDocument(LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public EncryptedValueSnapshot encryptedValueSnapshot() {
+        if (encryptedValueSnapshot == null) {
+            encryptedValueSnapshot = new EncryptedValueSnapshot();
+        }
+
+        return encryptedValueSnapshot;
+    }
+
+    // Ids are assigned before the first save, so auditing cannot tell a new document by its id
+    public boolean isNew() {
         return updatedAt == null;
     }
 }
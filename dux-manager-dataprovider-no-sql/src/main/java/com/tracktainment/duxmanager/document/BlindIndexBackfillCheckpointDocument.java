@@ -0,0 +1,35 @@
+package com.tracktainment.duxmanager.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Document(collection = "blind-index-backfill-checkpoints")
+public class BlindIndexBackfillCheckpointDocument {
+
+    // Deleting the checkpoint starts a new pass, e.g. after the blind index secret or salt changed
+    @Id
+    private String id;
+
+    private String lastProcessedId;
+    private long processedCount;
+    private long rewrittenCount;
+
+    // Documents that could not be indexed, retried at the end of each pass, completion waits until none are left
+    @Builder.Default
+    private List<String> failedIds = new ArrayList<>();
+
+    private boolean completed;
+    private LocalDateTime updatedAt;
+}
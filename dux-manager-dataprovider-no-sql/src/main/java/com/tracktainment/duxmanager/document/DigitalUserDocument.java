@@ -1,10 +1,15 @@
 package com.tracktainment.duxmanager.document;
 
+import com.tracktainment.duxmanager.annotation.BlindIndex;
 import com.tracktainment.duxmanager.annotation.Encrypted;
+import com.tracktainment.duxmanager.annotation.EncryptedSubdocument;
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -19,9 +24,25 @@ import java.util.List;
 @SuperBuilder
 @EqualsAndHashCode(callSuper = true)
 @Document(collection = "digital-users")
-public class DigitalUserDocument extends BaseDocument {
-
-    @Indexed(unique = true)
+@CompoundIndex(
+        name = "identityProviderInformation_subject_identityProvider_tenantId",
+        def = "{'identityProviderInformation.subject': 1, 'identityProviderInformation.identityProvider': 1, " +
+                "'identityProviderInformation.tenantId': 1}",
+        unique = true
+)
+// Holds everything identity resolution returns, so it is answered from the index without reading the document
+@CompoundIndex(
+        name = DigitalUserDocument.IDENTITY_COVERING_INDEX,
+        def = "{'identityProviderInformation.subject': 1, 'identityProviderInformation.identityProvider': 1, " +
+                "'identityProviderInformation.tenantId': 1, '_id': 1, 'created_at': 1, 'updated_at': 1}"
+)
+public class DigitalUserDocument extends BaseDocument implements Persistable<String> {
+
+    public static final String IDENTITY_COVERING_INDEX =
+            "identityProviderInformation_subject_identityProvider_tenantId__id_created_at_updated_at";
+
+    // The UUID is the _id, so lookups by id use the primary index
+    @Id
     private String id;
 
     private IdentityProviderInformation identityProviderInformation;
@@ -47,6 +68,7 @@ public class DigitalUserDocument extends BaseDocument {
     @Data
     @Builder
     @EqualsAndHashCode
+    @EncryptedSubdocument
     public static class PersonalInformation {
 
         @Encrypted
@@ -85,6 +107,7 @@ public class DigitalUserDocument extends BaseDocument {
         @Data
         @Builder
         @EqualsAndHashCode
+        @EncryptedSubdocument
         public static class Characteristic {
 
             // Phone
@@ -94,10 +117,18 @@ public class DigitalUserDocument extends BaseDocument {
             @Encrypted
             private String phoneNumber;
 
+            @BlindIndex(sources = {"countryCode", "phoneNumber"}, normalization = BlindIndex.Normalization.DIGITS)
+            @Indexed(sparse = true)
+            private String phoneNumberIndex;
+
             // Email
             @Encrypted
             private String emailAddress;
 
+            @BlindIndex(sources = "emailAddress", normalization = BlindIndex.Normalization.LOWERCASE)
+            @Indexed(sparse = true)
+            private String emailAddressIndex;
+
             // Geographic address
             @Encrypted
             private String country;
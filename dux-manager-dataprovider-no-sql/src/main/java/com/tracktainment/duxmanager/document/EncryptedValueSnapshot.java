@@ -0,0 +1,38 @@
+package com.tracktainment.duxmanager.document;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public final class EncryptedValueSnapshot {
+
+    // Holders are tracked by identity, documents are mutable and their equals/hashCode are deep
+    private final Map<Object, Map<String, Entry>> entries = new IdentityHashMap<>();
+
+    public void record(Object holder, String fieldName, String plainText, String cipherText) {
+        entries.computeIfAbsent(holder, key -> new HashMap<>()).put(fieldName, new Entry(plainText, cipherText));
+    }
+
+    public String findCipherText(Object holder, String fieldName, String plainText) {
+        Entry entry = findEntry(holder, fieldName);
+        return entry != null && Objects.equals(entry.plainText(), plainText) ? entry.cipherText() : null;
+    }
+
+    public String findPlainText(Object holder, String fieldName, String cipherText) {
+        Entry entry = findEntry(holder, fieldName);
+        return entry != null && Objects.equals(entry.cipherText(), cipherText) ? entry.plainText() : null;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    private Entry findEntry(Object holder, String fieldName) {
+        Map<String, Entry> holderEntries = entries.get(holder);
+        return holderEntries == null ? null : holderEntries.get(fieldName);
+    }
+
+    private record Entry(String plainText, String cipherText) {
+    }
+}
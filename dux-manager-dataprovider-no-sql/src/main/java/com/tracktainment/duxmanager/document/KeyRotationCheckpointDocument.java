@@ -0,0 +1,36 @@
+package com.tracktainment.duxmanager.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Document(collection = "key-rotation-checkpoints")
+public class KeyRotationCheckpointDocument {
+
+    // One checkpoint per collection and target key version, a new rotation starts from the beginning
+    @Id
+    private String id;
+
+    private int keyVersion;
+    private String lastProcessedId;
+    private long processedCount;
+    private long rewrittenCount;
+
+    // Documents that could not be rewritten, retried at the end of each pass, completion waits until none are left
+    @Builder.Default
+    private List<String> failedIds = new ArrayList<>();
+
+    private boolean completed;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,248 @@
+package com.tracktainment.duxmanager.job;
+
+import com.mongodb.client.result.UpdateResult;
+import com.tracktainment.duxmanager.config.AssetStorageConfig;
+import com.tracktainment.duxmanager.dataprovider.impl.AssetCollectionDataProviderNoSql;
+import com.tracktainment.duxmanager.document.AssetBackfillCheckpointDocument;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@ConditionalOnProperty(name = "assets.backfill.enabled", havingValue = "true")
+@Slf4j
+public class AssetBackfillJob {
+
+    private static final String CHECKPOINT_ID = "digital-users:assets";
+    private static final String DROP_CHECKPOINT_ID = "digital-users:assets:drop";
+
+    private final MongoTemplate mongoTemplate;
+    private final AssetCollectionDataProviderNoSql assetCollectionDataProvider;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${assets.storage-mode:EMBEDDED}")
+    private AssetStorageConfig.StorageMode storageMode = AssetStorageConfig.StorageMode.EMBEDDED;
+
+    @Value("${assets.backfill.users-per-second:50}")
+    private int usersPerSecond = 50;
+
+    @Value("${assets.backfill.batch-size:20}")
+    private int batchSize = 20;
+
+    @Value("${assets.backfill.assets-per-write:500}")
+    private int assetsPerWrite = 500;
+
+    public AssetBackfillJob(MongoTemplate mongoTemplate, AssetCollectionDataProviderNoSql assetCollectionDataProvider) {
+        this.mongoTemplate = mongoTemplate;
+        this.assetCollectionDataProvider = assetCollectionDataProvider;
+    }
+
+    @Scheduled(
+            initialDelayString = "${assets.backfill.poll-interval-ms:300000}",
+            fixedDelayString = "${assets.backfill.poll-interval-ms:300000}"
+    )
+    public void backfill() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            // Copying after the cut-over would bring back deleted assets, so COLLECTION only drops the arrays
+            if (storageMode == AssetStorageConfig.StorageMode.COLLECTION) {
+                dropEmbeddedArrays();
+            } else {
+                copyEmbeddedArrays();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void copyEmbeddedArrays() throws InterruptedException {
+        AssetBackfillCheckpointDocument checkpoint = loadCheckpoint();
+        while (!checkpoint.isCompleted()) {
+            long startedAt = System.nanoTime();
+            int processed = backfillBatch(checkpoint);
+            if (processed == 0) {
+                break; // users that still fail are retried on the next poll
+            }
+
+            throttle(processed, System.nanoTime() - startedAt);
+        }
+    }
+
+    // Only a completed copy pass, which waits for every failed user, shows that all arrays made it into the collection
+    private void dropEmbeddedArrays() throws InterruptedException {
+        if (!loadCheckpoint().isCompleted()) {
+            log.warn("Embedded asset arrays are kept, no copy pass has completed under DUAL_WRITE");
+            return;
+        }
+
+        AssetBackfillCheckpointDocument checkpoint = loadDropCheckpoint();
+        while (!checkpoint.isCompleted()) {
+            long startedAt = System.nanoTime();
+            int processed = dropBatch(checkpoint);
+            throttle(processed, System.nanoTime() - startedAt);
+        }
+    }
+
+    public AssetBackfillCheckpointDocument loadCheckpoint() {
+        return loadCheckpoint(CHECKPOINT_ID);
+    }
+
+    public AssetBackfillCheckpointDocument loadDropCheckpoint() {
+        return loadCheckpoint(DROP_CHECKPOINT_ID);
+    }
+
+    private AssetBackfillCheckpointDocument loadCheckpoint(String checkpointId) {
+        AssetBackfillCheckpointDocument checkpoint = mongoTemplate.findById(checkpointId, AssetBackfillCheckpointDocument.class);
+        if (checkpoint == null) {
+            checkpoint = AssetBackfillCheckpointDocument.builder()
+                    .id(checkpointId)
+                    .build();
+        }
+
+        return checkpoint;
+    }
+
+    // Copies the embedded arrays of the next users in _id order and advances the checkpoint
+    public int backfillBatch(AssetBackfillCheckpointDocument checkpoint) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+        if (checkpoint.getLastProcessedId() != null) {
+            query.addCriteria(Criteria.where("_id").gt(checkpoint.getLastProcessedId()));
+        }
+        query.fields().include("id", "assets"); // PII is neither fetched nor decrypted
+
+        List<DigitalUserDocument> digitalUserDocuments = mongoTemplate.find(query, DigitalUserDocument.class);
+        if (digitalUserDocuments.isEmpty()) {
+            finishPass(checkpoint);
+            return 0;
+        }
+
+        copyAll(digitalUserDocuments, checkpoint);
+        checkpoint.setLastProcessedId(digitalUserDocuments.get(digitalUserDocuments.size() - 1).getId());
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + digitalUserDocuments.size());
+        saveCheckpoint(checkpoint);
+        return digitalUserDocuments.size();
+    }
+
+    // Retries the users that failed during the pass, the backfill only completes once none are left
+    private void finishPass(AssetBackfillCheckpointDocument checkpoint) {
+        List<String> failedIds = List.copyOf(checkpoint.getFailedIds());
+        checkpoint.getFailedIds().clear();
+        for (int from = 0; from < failedIds.size(); from += batchSize) {
+            List<String> retryIds = failedIds.subList(from, Math.min(from + batchSize, failedIds.size()));
+            Query query = new Query(Criteria.where("_id").in(retryIds));
+            query.fields().include("id", "assets");
+
+            copyAll(mongoTemplate.find(query, DigitalUserDocument.class), checkpoint);
+        }
+
+        if (checkpoint.getFailedIds().isEmpty()) {
+            checkpoint.setCompleted(true);
+            log.info(
+                    "Asset backfill completed: {} digital users read, {} assets copied",
+                    checkpoint.getProcessedCount(),
+                    checkpoint.getCopiedCount()
+            );
+        } else {
+            log.warn(
+                    "Asset backfill not completed: copying the assets of {} digital users still fails",
+                    checkpoint.getFailedIds().size()
+            );
+        }
+
+        saveCheckpoint(checkpoint);
+    }
+
+    private void copyAll(List<DigitalUserDocument> digitalUserDocuments, AssetBackfillCheckpointDocument checkpoint) {
+        for (DigitalUserDocument digitalUserDocument : digitalUserDocuments) {
+            try {
+                checkpoint.setCopiedCount(checkpoint.getCopiedCount() + copy(digitalUserDocument));
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Could not copy the assets of digital user {}, retried at the end of the pass",
+                        digitalUserDocument.getId(),
+                        e
+                );
+                checkpoint.getFailedIds().add(digitalUserDocument.getId());
+            }
+        }
+    }
+
+    // Unsets the arrays of the next users in _id order, so no user document keeps growing toward the 16MB limit
+    public int dropBatch(AssetBackfillCheckpointDocument checkpoint) {
+        Query query = new Query(Criteria.where("assets").exists(true))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize);
+        if (checkpoint.getLastProcessedId() != null) {
+            query.addCriteria(Criteria.where("_id").gt(checkpoint.getLastProcessedId()));
+        }
+        query.fields().include("id");
+
+        List<DigitalUserDocument> digitalUserDocuments = mongoTemplate.find(query, DigitalUserDocument.class);
+        if (digitalUserDocuments.isEmpty()) {
+            checkpoint.setCompleted(true);
+            saveCheckpoint(checkpoint);
+            log.info("Embedded asset arrays dropped from {} digital users", checkpoint.getProcessedCount());
+            return 0;
+        }
+
+        List<String> ids = digitalUserDocuments.stream().map(DigitalUserDocument::getId).toList();
+        UpdateResult updateResult = mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(ids)),
+                new Update().unset("assets"),
+                DigitalUserDocument.class
+        );
+
+        checkpoint.setLastProcessedId(ids.get(ids.size() - 1));
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + updateResult.getModifiedCount());
+        saveCheckpoint(checkpoint);
+        return digitalUserDocuments.size();
+    }
+
+    private int copy(DigitalUserDocument digitalUserDocument) {
+        List<Asset> assets = digitalUserDocument.getAssets() == null ? List.of() : digitalUserDocument.getAssets();
+
+        // Large arrays are written in slices so no single bulk write grows with the heaviest user
+        for (int from = 0; from < assets.size(); from += assetsPerWrite) {
+            List<Asset> slice = assets.subList(from, Math.min(from + assetsPerWrite, assets.size()));
+            assetCollectionDataProvider.upsertAll(digitalUserDocument.getId(), slice);
+        }
+
+        assetCollectionDataProvider.retainAll(
+                digitalUserDocument.getId(),
+                assets.stream().map(Asset::getExternalId).toList()
+        );
+        return assets.size();
+    }
+
+    private void saveCheckpoint(AssetBackfillCheckpointDocument checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        mongoTemplate.save(checkpoint);
+    }
+
+    // Spreads the work so the job stays within its users-per-second budget
+    private void throttle(int processed, long elapsedNanos) throws InterruptedException {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(processed) / Math.max(1, usersPerSecond);
+        if (budgetNanos > elapsedNanos) {
+            TimeUnit.NANOSECONDS.sleep(budgetNanos - elapsedNanos);
+        }
+    }
+}
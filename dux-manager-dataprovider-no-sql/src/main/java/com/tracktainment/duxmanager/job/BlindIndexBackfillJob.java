@@ -0,0 +1,245 @@
+package com.tracktainment.duxmanager.job;
+
+import com.tracktainment.duxmanager.config.EncryptedFieldPlan;
+import com.tracktainment.duxmanager.document.BlindIndexBackfillCheckpointDocument;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.encryption.EncryptionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@ConditionalOnProperty(name = "encryption.blind-index-backfill.enabled", havingValue = "true")
+@Slf4j
+public class BlindIndexBackfillJob {
+
+    private static final String COLLECTION = "digital-users";
+
+    // Bump the version whenever the index format changes, so a new pass recomputes every stored index
+    private static final String CHECKPOINT_ID = COLLECTION + ":blind-indexes:v1";
+
+    private final MongoTemplate mongoTemplate;
+    private final EncryptionService encryptionService;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${encryption.blind-index-backfill.documents-per-second:200}")
+    private int documentsPerSecond = 200;
+
+    @Value("${encryption.blind-index-backfill.batch-size:100}")
+    private int batchSize = 100;
+
+    public BlindIndexBackfillJob(MongoTemplate mongoTemplate, EncryptionService encryptionService) {
+        this.mongoTemplate = mongoTemplate;
+        this.encryptionService = encryptionService;
+    }
+
+    @Scheduled(
+            initialDelayString = "${encryption.blind-index-backfill.poll-interval-ms:300000}",
+            fixedDelayString = "${encryption.blind-index-backfill.poll-interval-ms:300000}"
+    )
+    public void backfill() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            BlindIndexBackfillCheckpointDocument checkpoint = loadCheckpoint();
+            while (!checkpoint.isCompleted()) {
+                long startedAt = System.nanoTime();
+                int processed = backfillBatch(checkpoint);
+                if (processed == 0) {
+                    break; // documents that still fail are retried on the next poll
+                }
+
+                throttle(processed, System.nanoTime() - startedAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public BlindIndexBackfillCheckpointDocument loadCheckpoint() {
+        BlindIndexBackfillCheckpointDocument checkpoint =
+                mongoTemplate.findById(CHECKPOINT_ID, BlindIndexBackfillCheckpointDocument.class);
+        if (checkpoint == null) {
+            checkpoint = BlindIndexBackfillCheckpointDocument.builder()
+                    .id(CHECKPOINT_ID)
+                    .build();
+        }
+
+        return checkpoint;
+    }
+
+    // Recomputes the contact indexes of the next batch in _id order and advances the checkpoint
+    public int backfillBatch(BlindIndexBackfillCheckpointDocument checkpoint) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+        if (checkpoint.getLastProcessedId() != null) {
+            query.addCriteria(Criteria.where("_id").gt(checkpoint.getLastProcessedId()));
+        }
+        query.fields().include("id", "contactMediumList", "updatedAt");
+
+        List<DigitalUserDocument> digitalUserDocuments = mongoTemplate.find(query, DigitalUserDocument.class);
+        if (digitalUserDocuments.isEmpty()) {
+            finishPass(checkpoint);
+            return 0;
+        }
+
+        checkpoint.setRewrittenCount(
+                checkpoint.getRewrittenCount() + reIndex(digitalUserDocuments, checkpoint.getFailedIds())
+        );
+        checkpoint.setLastProcessedId(digitalUserDocuments.get(digitalUserDocuments.size() - 1).getId());
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + digitalUserDocuments.size());
+        saveCheckpoint(checkpoint);
+        return digitalUserDocuments.size();
+    }
+
+    // Retries the documents that failed during the pass, the backfill only completes once none are left
+    private void finishPass(BlindIndexBackfillCheckpointDocument checkpoint) {
+        List<String> failedIds = List.copyOf(checkpoint.getFailedIds());
+        checkpoint.getFailedIds().clear();
+        for (int from = 0; from < failedIds.size(); from += batchSize) {
+            List<String> retryIds = failedIds.subList(from, Math.min(from + batchSize, failedIds.size()));
+            Query query = new Query(Criteria.where("_id").in(retryIds));
+            query.fields().include("id", "contactMediumList", "updatedAt");
+
+            List<DigitalUserDocument> digitalUserDocuments = mongoTemplate.find(query, DigitalUserDocument.class);
+            checkpoint.setRewrittenCount(
+                    checkpoint.getRewrittenCount() + reIndex(digitalUserDocuments, checkpoint.getFailedIds())
+            );
+        }
+
+        if (checkpoint.getFailedIds().isEmpty()) {
+            checkpoint.setCompleted(true);
+            log.info(
+                    "Blind index backfill completed: {} documents read, {} rewritten",
+                    checkpoint.getProcessedCount(),
+                    checkpoint.getRewrittenCount()
+            );
+        } else {
+            log.warn(
+                    "Blind index backfill not completed: {} documents still fail and cannot be found by contact",
+                    checkpoint.getFailedIds().size()
+            );
+        }
+
+        saveCheckpoint(checkpoint);
+    }
+
+    // Returns how many documents were rewritten, the ids of those that failed are added to failedIds
+    private int reIndex(List<DigitalUserDocument> digitalUserDocuments, List<String> failedIds) {
+        List<Pair<Query, UpdateDefinition>> updates = new ArrayList<>();
+        for (DigitalUserDocument digitalUserDocument : digitalUserDocuments) {
+            try {
+                Pair<Query, UpdateDefinition> update = reIndex(digitalUserDocument);
+                if (update != null) {
+                    updates.add(update);
+                }
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Could not index document {}, it is retried at the end of the pass",
+                        digitalUserDocument.getId(),
+                        e
+                );
+                failedIds.add(digitalUserDocument.getId());
+            }
+        }
+
+        // Compare-and-set on updated_at, documents saved by live traffic in the meantime already carry fresh indexes
+        if (!updates.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION).updateOne(updates).execute();
+        }
+
+        return updates.size();
+    }
+
+    private Pair<Query, UpdateDefinition> reIndex(DigitalUserDocument digitalUserDocument) {
+        List<DigitalUserDocument.ContactMedium> contactMediumList = digitalUserDocument.getContactMediumList();
+        if (contactMediumList == null || contactMediumList.isEmpty()) {
+            return null;
+        }
+
+        List<StoredIndexes> storedIndexes = new ArrayList<>();
+        for (DigitalUserDocument.ContactMedium contactMedium : contactMediumList) {
+            DigitalUserDocument.ContactMedium.Characteristic characteristic = contactMedium.getCharacteristic();
+            storedIndexes.add(characteristic == null
+                    ? null
+                    : new StoredIndexes(characteristic.getPhoneNumberIndex(), characteristic.getEmailAddressIndex()));
+        }
+
+        EncryptedFieldPlan.applyBlindIndexes(
+                digitalUserDocument,
+                encryptionService::blindIndex,
+                Collections.newSetFromMap(new IdentityHashMap<>())
+        );
+
+        Update update = new Update();
+        for (int i = 0; i < contactMediumList.size(); i++) {
+            DigitalUserDocument.ContactMedium.Characteristic characteristic = contactMediumList.get(i).getCharacteristic();
+            if (characteristic == null) {
+                continue;
+            }
+
+            String path = "contactMediumList." + i + ".characteristic.";
+            StoredIndexes stored = storedIndexes.get(i);
+            setChanged(update, path + "phoneNumberIndex", stored.phoneNumberIndex(), characteristic.getPhoneNumberIndex());
+            setChanged(update, path + "emailAddressIndex", stored.emailAddressIndex(), characteristic.getEmailAddressIndex());
+        }
+
+        if (update.getUpdateObject().isEmpty()) {
+            return null;
+        }
+
+        Criteria criteria = Criteria.where("_id").is(digitalUserDocument.getId())
+                .and("updated_at").is(digitalUserDocument.getUpdatedAt());
+        return Pair.of(new Query(criteria), update);
+    }
+
+    private void setChanged(Update update, String fieldPath, String storedIndex, String index) {
+        if (Objects.equals(storedIndex, index)) {
+            return;
+        }
+
+        if (index == null) {
+            update.unset(fieldPath);
+        } else {
+            update.set(fieldPath, index);
+        }
+    }
+
+    private void saveCheckpoint(BlindIndexBackfillCheckpointDocument checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        mongoTemplate.save(checkpoint);
+    }
+
+    // Spreads the work so the job stays within its documents-per-second budget
+    private void throttle(int processed, long elapsedNanos) throws InterruptedException {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(processed) / Math.max(1, documentsPerSecond);
+        if (budgetNanos > elapsedNanos) {
+            TimeUnit.NANOSECONDS.sleep(budgetNanos - elapsedNanos);
+        }
+    }
+
+    private record StoredIndexes(String phoneNumberIndex, String emailAddressIndex) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.tracktainment.duxmanager.job;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tracktainment.duxmanager.dataprovider.impl.CachingDigitalUserDataProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(name = "digital-users.cache.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class DigitalUserCacheStatsJob {
+
+    private final CachingDigitalUserDataProvider cachingDigitalUserDataProvider;
+
+    // Counts are cumulative since startup
+    @Scheduled(
+            initialDelayString = "${digital-users.cache.stats-interval-ms:60000}",
+            fixedDelayString = "${digital-users.cache.stats-interval-ms:60000}"
+    )
+    public void logStats() {
+        CacheStats stats = cachingDigitalUserDataProvider.stats();
+        log.info(
+                "Digital user cache: size={}, hits={}, misses={}, hitRate={}, evictions={}",
+                cachingDigitalUserDataProvider.size(),
+                stats.hitCount(),
+                stats.missCount(),
+                String.format("%.3f", stats.hitRate()),
+                stats.evictionCount()
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package com.tracktainment.duxmanager.job;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.tracktainment.duxmanager.document.AssetBackfillCheckpointDocument;
+import com.tracktainment.duxmanager.document.BlindIndexBackfillCheckpointDocument;
+import com.tracktainment.duxmanager.document.AssetDocument;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.document.KeyRotationCheckpointDocument;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.UnsetOperation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Service;
+
+// Moves documents written with an ObjectId _id and a separate id field to the layout where the UUID is the _id
+@Service
+@Slf4j
+public class IdLayoutMigrationJob {
+
+    public static final String STAGING_SUFFIX = "-id-migration";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public IdLayoutMigrationJob(
+            MongoTemplate mongoTemplate,
+            @Value("${storage.id-migration.enabled:false}") boolean enabled
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    // Runs before the web server starts, so no request sees a collection in the old layout
+    @PostConstruct
+    public void migrate() {
+        if (migrate(DigitalUserDocument.class)) {
+            // Checkpoints hold ObjectIds that no longer exist, jobs in progress start over, all are idempotent
+            Update update = new Update().unset("lastProcessedId");
+            mongoTemplate.updateMulti(new Query(), update, KeyRotationCheckpointDocument.class);
+            mongoTemplate.updateMulti(new Query(), update, AssetBackfillCheckpointDocument.class);
+            mongoTemplate.updateMulti(new Query(), update, BlindIndexBackfillCheckpointDocument.class);
+        }
+
+        migrate(AssetDocument.class);
+    }
+
+    private boolean migrate(Class<?> documentClass) {
+        String collection = mongoTemplate.getCollectionName(documentClass);
+        Query legacyDocuments = new Query(Criteria.where("_id").type(JsonSchemaObject.Type.OBJECT_ID));
+        if (!mongoTemplate.exists(legacyDocuments, collection)) {
+            return false;
+        }
+
+        // Left to the operator, the rewrite needs every writer stopped and a failed startup would not help with that
+        if (!enabled) {
+            log.warn(
+                    "Collection {} still uses ObjectId _ids, lookups by id miss those documents. Stop every writer " +
+                            "and start once with storage.id-migration.enabled=true",
+                    collection
+            );
+            return false;
+        }
+
+        // $out into a collection keeps its indexes, so the staging copy is indexed before the swap
+        String staging = collection + STAGING_SUFFIX;
+        mongoTemplate.dropCollection(staging);
+        IndexOperations indexOperations = mongoTemplate.indexOps(staging);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(documentClass)
+                .forEach(indexOperations::ensureIndex);
+
+        // Untyped on purpose, a typed aggregation would map id to _id
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.addFields()
+                        .addField("_id").withValue(ConditionalOperators.ifNull("id").thenValueOf("_id"))
+                        .build(),
+                UnsetOperation.unset("id"),
+                Aggregation.out(staging)
+        );
+        mongoTemplate.aggregate(aggregation, collection, Document.class);
+
+        mongoTemplate.getCollection(staging).renameCollection(
+                new MongoNamespace(mongoTemplate.getDb().getName(), collection),
+                new RenameCollectionOptions().dropTarget(true)
+        );
+
+        log.info("Migrated collection {} to UUID _ids", collection);
+        return true;
+    }
+}
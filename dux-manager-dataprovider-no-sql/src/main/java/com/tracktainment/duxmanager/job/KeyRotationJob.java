@@ -0,0 +1,232 @@
+package com.tracktainment.duxmanager.job;
+
+import com.tracktainment.duxmanager.config.EncryptedFieldPlan;
+import com.tracktainment.duxmanager.config.MongoEncryptionConfig;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.document.KeyRotationCheckpointDocument;
+import com.tracktainment.duxmanager.encryption.EncryptionService;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@ConditionalOnProperty(name = "encryption.rotation.enabled", havingValue = "true")
+@Slf4j
+public class KeyRotationJob {
+
+    private static final String COLLECTION = "digital-users";
+
+    private final MongoTemplate mongoTemplate;
+    private final EncryptionService encryptionService;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${encryption.storage-format:TEXT}")
+    private MongoEncryptionConfig.StorageFormat storageFormat = MongoEncryptionConfig.StorageFormat.TEXT;
+
+    @Value("${encryption.rotation.documents-per-second:200}")
+    private int documentsPerSecond = 200;
+
+    @Value("${encryption.rotation.batch-size:100}")
+    private int batchSize = 100;
+
+    public KeyRotationJob(MongoTemplate mongoTemplate, EncryptionService encryptionService) {
+        this.mongoTemplate = mongoTemplate;
+        this.encryptionService = encryptionService;
+    }
+
+    @Scheduled(
+            initialDelayString = "${encryption.rotation.poll-interval-ms:300000}",
+            fixedDelayString = "${encryption.rotation.poll-interval-ms:300000}"
+    )
+    public void rotate() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            KeyRotationCheckpointDocument checkpoint = loadCheckpoint();
+            while (!checkpoint.isCompleted()) {
+                long startedAt = System.nanoTime();
+                int processed = rotateBatch(checkpoint);
+                if (processed == 0) {
+                    break; // documents that still fail are retried on the next poll
+                }
+
+                throttle(processed, System.nanoTime() - startedAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public KeyRotationCheckpointDocument loadCheckpoint() {
+        int keyVersion = encryptionService.getActiveKeyVersion();
+        String checkpointId = COLLECTION + ":v" + keyVersion;
+
+        KeyRotationCheckpointDocument checkpoint = mongoTemplate.findById(checkpointId, KeyRotationCheckpointDocument.class);
+        if (checkpoint == null) {
+            checkpoint = KeyRotationCheckpointDocument.builder()
+                    .id(checkpointId)
+                    .keyVersion(keyVersion)
+                    .build();
+        }
+
+        return checkpoint;
+    }
+
+    // Reads the next batch in _id order, rewrites stale ciphertext and advances the checkpoint
+    public int rotateBatch(KeyRotationCheckpointDocument checkpoint) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+        if (checkpoint.getLastProcessedId() != null) {
+            query.addCriteria(Criteria.where("_id").gt(checkpoint.getLastProcessedId()));
+        }
+        query.fields().exclude("assets");
+
+        List<Document> documents = mongoTemplate.find(query, Document.class, COLLECTION);
+        if (documents.isEmpty()) {
+            finishPass(checkpoint);
+            return 0;
+        }
+
+        checkpoint.setRewrittenCount(checkpoint.getRewrittenCount() + rotate(documents, checkpoint.getFailedIds()));
+        checkpoint.setLastProcessedId(documents.get(documents.size() - 1).getString("_id"));
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + documents.size());
+        saveCheckpoint(checkpoint);
+        return documents.size();
+    }
+
+    // Retries the documents that failed during the pass, the rotation only completes once none are left
+    private void finishPass(KeyRotationCheckpointDocument checkpoint) {
+        List<String> failedIds = List.copyOf(checkpoint.getFailedIds());
+        checkpoint.getFailedIds().clear();
+        for (int from = 0; from < failedIds.size(); from += batchSize) {
+            List<String> retryIds = failedIds.subList(from, Math.min(from + batchSize, failedIds.size()));
+            Query query = new Query(Criteria.where("_id").in(retryIds));
+            query.fields().exclude("assets");
+
+            List<Document> documents = mongoTemplate.find(query, Document.class, COLLECTION);
+            checkpoint.setRewrittenCount(checkpoint.getRewrittenCount() + rotate(documents, checkpoint.getFailedIds()));
+        }
+
+        if (checkpoint.getFailedIds().isEmpty()) {
+            checkpoint.setCompleted(true);
+            log.info(
+                    "Key rotation to version {} completed: {} documents read, {} rewritten",
+                    checkpoint.getKeyVersion(),
+                    checkpoint.getProcessedCount(),
+                    checkpoint.getRewrittenCount()
+            );
+        } else {
+            log.warn(
+                    "Key rotation to version {} not completed: {} documents still fail and keep the previous key",
+                    checkpoint.getKeyVersion(),
+                    checkpoint.getFailedIds().size()
+            );
+        }
+
+        saveCheckpoint(checkpoint);
+    }
+
+    // Returns how many documents were rewritten, the ids of those that failed are added to failedIds
+    private int rotate(List<Document> documents, List<String> failedIds) {
+        List<Pair<Query, UpdateDefinition>> updates = new ArrayList<>();
+        for (Document document : documents) {
+            try {
+                Pair<Query, UpdateDefinition> update = reEncrypt(document);
+                if (update != null) {
+                    updates.add(update);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not rotate document {}, it is retried at the end of the pass", document.get("_id"), e);
+                failedIds.add(document.getString("_id"));
+            }
+        }
+
+        // Compare-and-set on the old ciphertext, documents rewritten by live traffic in the meantime are left alone
+        if (!updates.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION).updateOne(updates).execute();
+        }
+
+        return updates.size();
+    }
+
+    private Pair<Query, UpdateDefinition> reEncrypt(Document document) {
+        String id = document.getString("_id");
+        Criteria criteria = Criteria.where("_id").is(id);
+        Update update = new Update();
+
+        EncryptedFieldPlan.visitStored(document, DigitalUserDocument.class, "", (path, storedDocument, plan) -> {
+            List<String> storedNames = new ArrayList<>(plan.getEncryptedStoredFieldNames());
+            if (plan.isSealed()) {
+                storedNames.add(EncryptedFieldPlan.SEALED_FIELD);
+            }
+
+            for (String storedName : storedNames) {
+                Object value = storedDocument.get(storedName);
+                if (value == null || isCurrent(value)) {
+                    continue;
+                }
+
+                String fieldPath = EncryptedFieldPlan.childPath(path, storedName);
+                criteria.and(fieldPath).is(value);
+                update.set(fieldPath, encrypt(decrypt(value)));
+            }
+        });
+
+        return update.getUpdateObject().isEmpty() ? null : Pair.of(new Query(criteria), update);
+    }
+
+    private boolean isCurrent(Object value) {
+        if (value instanceof Binary binary) {
+            return encryptionService.isActiveKeyVersion(binary.getData());
+        }
+
+        return !(value instanceof String text) || encryptionService.isActiveKeyVersion(text);
+    }
+
+    private String decrypt(Object value) {
+        return value instanceof Binary binary
+                ? encryptionService.decryptEnvelope(binary.getData())
+                : encryptionService.decrypt((String) value);
+    }
+
+    private Object encrypt(String plainText) {
+        return storageFormat == MongoEncryptionConfig.StorageFormat.BINARY
+                ? new Binary(BsonBinarySubType.USER_DEFINED, encryptionService.encryptToEnvelope(plainText))
+                : encryptionService.encryptToEnvelopeText(plainText);
+    }
+
+    private void saveCheckpoint(KeyRotationCheckpointDocument checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        mongoTemplate.save(checkpoint);
+    }
+
+    // Spreads the work so the job stays within its documents-per-second budget
+    private void throttle(int processed, long elapsedNanos) throws InterruptedException {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(processed) / Math.max(1, documentsPerSecond);
+        if (budgetNanos > elapsedNanos) {
+            TimeUnit.NANOSECONDS.sleep(budgetNanos - elapsedNanos);
+        }
+    }
+}
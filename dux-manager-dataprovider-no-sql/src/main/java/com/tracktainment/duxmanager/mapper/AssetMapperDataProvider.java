@@ -1,22 +1,27 @@
 package com.tracktainment.duxmanager.mapper;
 
+import com.tracktainment.duxmanager.document.AssetDocument;
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.util.IdGenerator;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
-import java.util.UUID;
-
 @Mapper(
         componentModel = "spring",
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
-        imports = {UUID.class}
+        imports = {IdGenerator.class}
 )
 public interface AssetMapperDataProvider {
 
-    @Mapping(target = "id", expression = "java(java.util.UUID.randomUUID().toString())")
+    @Mapping(target = "id", expression = "java(IdGenerator.DEFAULT.generate())")
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Asset toAsset(AssetCreate assetCreate);
+
+    Asset toAsset(AssetDocument assetDocument);
+
+    @Mapping(target = "encryptedValueSnapshot", ignore = true)
+    AssetDocument toAssetDocument(Asset asset, String digitalUserId);
 }
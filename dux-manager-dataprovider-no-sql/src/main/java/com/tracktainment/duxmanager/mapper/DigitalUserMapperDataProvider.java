@@ -3,25 +3,31 @@ package com.tracktainment.duxmanager.mapper;
 import com.tracktainment.duxmanager.document.DigitalUserDocument;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import com.tracktainment.duxmanager.dto.DigitalUserCreate;
+import com.tracktainment.duxmanager.util.IdGenerator;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
-import java.util.UUID;
-
 @Mapper(
         componentModel = "spring",
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
-        imports = {UUID.class}
+        imports = {IdGenerator.class}
 )
 public interface DigitalUserMapperDataProvider {
 
     DigitalUser toDigitalUser(DigitalUserDocument digitalUserDocument);
 
-    @Mapping(target = "id", expression = "java(java.util.UUID.randomUUID().toString())")
+    @Mapping(target = "id", expression = "java(IdGenerator.DEFAULT.generate())")
     @Mapping(target = "assets", ignore = true)
-    @Mapping(target = "dbId", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "encryptedValueSnapshot", ignore = true)
     DigitalUserDocument toDigitalUserDocument(DigitalUserCreate digitalUserCreate);
+
+    // Blind indexes are computed by the encryption listener on save
+    @Mapping(target = "phoneNumberIndex", ignore = true)
+    @Mapping(target = "emailAddressIndex", ignore = true)
+    DigitalUserDocument.ContactMedium.Characteristic toCharacteristicDocument(
+            DigitalUserCreate.ContactMedium.Characteristic characteristic
+    );
 }
@@ -0,0 +1,164 @@
+package config;
+
+import com.tracktainment.duxmanager.annotation.Encrypted;
+import com.tracktainment.duxmanager.config.EncryptedFieldPlan;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptedFieldPlanTest {
+
+    @Test
+    void shouldBuildPlanForDigitalUserDocumentWithoutAssets() {
+        // Arrange & Act
+        EncryptedFieldPlan plan = EncryptedFieldPlan.forClass(DigitalUserDocument.class);
+
+        // Assert
+        assertTrue(plan.getEncryptedFieldNames().isEmpty());
+        assertEquals(List.of("personalInformation", "contactMediumList"), plan.getNestedFieldNames());
+    }
+
+    @Test
+    void shouldExposeStoredFieldNames() {
+        // Arrange & Act
+        EncryptedFieldPlan plan = EncryptedFieldPlan.forClass(MappedContainer.class);
+
+        // Assert
+        assertEquals(Set.of("secret_value", "holder"), plan.getStoredFieldNames());
+    }
+
+    @Test
+    void shouldReturnEmptyPlanForTypesWithoutEncryptedFields() {
+        // Arrange & Act & Assert
+        assertTrue(EncryptedFieldPlan.forClass(Asset.class).isEmpty());
+        assertTrue(EncryptedFieldPlan.forClass(String.class).isEmpty());
+        assertTrue(EncryptedFieldPlan.forClass(DigitalUserDocument.IdentityProviderInformation.class).isEmpty());
+    }
+
+    @Test
+    void shouldMarkEncryptedSubdocumentsAsSealed() {
+        // Arrange & Act & Assert
+        assertTrue(EncryptedFieldPlan.forClass(DigitalUserDocument.PersonalInformation.class).isSealed());
+        assertTrue(EncryptedFieldPlan.forClass(DigitalUserDocument.ContactMedium.Characteristic.class).isSealed());
+        assertFalse(EncryptedFieldPlan.forClass(DigitalUserDocument.class).isSealed());
+        assertFalse(EncryptedFieldPlan.forClass(EqualHolder.class).isSealed());
+    }
+
+    @Test
+    void shouldCachePlanPerClass() {
+        // Arrange & Act & Assert
+        assertSame(
+                EncryptedFieldPlan.forClass(DigitalUserDocument.PersonalInformation.class),
+                EncryptedFieldPlan.forClass(DigitalUserDocument.PersonalInformation.class)
+        );
+    }
+
+    @Test
+    void shouldNotTraverseAssets() {
+        // Arrange
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setAssets(new ThrowingList());
+        document.setPersonalInformation(DigitalUserDocument.PersonalInformation.builder().firstName("John").build());
+
+        // Act
+        EncryptedFieldPlan.transform(document, value -> "enc:" + value, Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        // Assert
+        assertEquals("enc:John", document.getPersonalInformation().getFirstName());
+    }
+
+    @Test
+    void shouldTransformEqualButDistinctObjects() {
+        // Arrange
+        EqualHolder first = new EqualHolder("secret");
+        EqualHolder second = new EqualHolder("secret");
+        Container container = new Container(List.of(first, second), null);
+
+        // Act
+        EncryptedFieldPlan.transform(container, value -> "enc:" + value, Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        // Assert
+        assertEquals("enc:secret", first.getValue());
+        assertEquals("enc:secret", second.getValue());
+    }
+
+    @Test
+    void shouldResolveOpenTypesAtRuntime() {
+        // Arrange
+        EqualHolder holder = new EqualHolder("secret");
+        Container container = new Container(List.of(), Map.of("key", holder));
+
+        // Act
+        EncryptedFieldPlan.transform(container, value -> "enc:" + value, Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        // Assert
+        assertEquals("enc:secret", holder.getValue());
+    }
+
+    @Test
+    void shouldHandleCyclicReferences() {
+        // Arrange
+        Node first = new Node("first", null);
+        Node second = new Node("second", first);
+        first.setNext(second);
+
+        // Act
+        EncryptedFieldPlan.transform(first, value -> "enc:" + value, Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        // Assert
+        assertEquals("enc:first", first.getValue());
+        assertEquals("enc:second", second.getValue());
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    static class EqualHolder {
+        @Encrypted
+        private String value;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Container {
+        private List<EqualHolder> holders;
+        private Map<String, Object> extras;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Node {
+        @Encrypted
+        private String value;
+        private Node next;
+    }
+
+    @Data
+    static class MappedContainer {
+        @Encrypted
+        @Field("secret_value")
+        private String secretValue;
+        private EqualHolder holder;
+    }
+
+    static class ThrowingList extends ArrayList<Asset> {
+        @Override
+        public Iterator<Asset> iterator() {
+            throw new AssertionError("Assets must not be traversed");
+        }
+    }
+}
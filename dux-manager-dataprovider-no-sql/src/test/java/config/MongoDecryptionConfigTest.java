@@ -2,7 +2,11 @@ package config;
 
 import com.tracktainment.duxmanager.annotation.Encrypted;
 import com.tracktainment.duxmanager.config.MongoDecryptionConfig;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
 import com.tracktainment.duxmanager.encryption.EncryptionService;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +14,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -48,13 +54,13 @@ class MongoDecryptionConfigTest {
 
         // Call processDecryptedFields directly since we can't create a proper AfterConvertEvent
         Method processDecryptedFields = MongoDecryptionConfig.DecryptionMongoEventListener.class
-                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class);
+                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class, java.util.Set.class, java.util.Set.class);
         processDecryptedFields.setAccessible(true);
 
         when(encryptionService.decrypt(anyString())).thenReturn("sensitive data");
 
         // Act
-        processDecryptedFields.invoke(listener, testObject, new java.util.HashSet<>());
+        processDecryptedFields.invoke(listener, testObject, null, java.util.Set.of(), new java.util.HashSet<>());
 
         // Assert
         verify(encryptionService).decrypt(decryptionCaptor.capture());
@@ -72,11 +78,11 @@ class MongoDecryptionConfigTest {
 
         // Call processDecryptedFields directly
         Method processDecryptedFields = MongoDecryptionConfig.DecryptionMongoEventListener.class
-                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class);
+                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class, java.util.Set.class, java.util.Set.class);
         processDecryptedFields.setAccessible(true);
 
         // Act
-        processDecryptedFields.invoke(listener, testObject, new java.util.HashSet<>());
+        processDecryptedFields.invoke(listener, testObject, null, java.util.Set.of(), new java.util.HashSet<>());
 
         // Assert
         verify(encryptionService, never()).decrypt(anyString());
@@ -94,13 +100,13 @@ class MongoDecryptionConfigTest {
 
         // Call processDecryptedFields directly
         Method processDecryptedFields = MongoDecryptionConfig.DecryptionMongoEventListener.class
-                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class);
+                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class, java.util.Set.class, java.util.Set.class);
         processDecryptedFields.setAccessible(true);
 
         when(encryptionService.decrypt(anyString())).thenReturn("nested sensitive data");
 
         // Act
-        processDecryptedFields.invoke(listener, testObject, new java.util.HashSet<>());
+        processDecryptedFields.invoke(listener, testObject, null, java.util.Set.of(), new java.util.HashSet<>());
 
         // Assert
         verify(encryptionService).decrypt(decryptionCaptor.capture());
@@ -124,14 +130,14 @@ class MongoDecryptionConfigTest {
 
         // Call processDecryptedFields directly
         Method processDecryptedFields = MongoDecryptionConfig.DecryptionMongoEventListener.class
-                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class);
+                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class, java.util.Set.class, java.util.Set.class);
         processDecryptedFields.setAccessible(true);
 
         when(encryptionService.decrypt("encrypted-nested-data-1")).thenReturn("nested data 1");
         when(encryptionService.decrypt("encrypted-nested-data-2")).thenReturn("nested data 2");
 
         // Act
-        processDecryptedFields.invoke(listener, testObject, new java.util.HashSet<>());
+        processDecryptedFields.invoke(listener, testObject, null, java.util.Set.of(), new java.util.HashSet<>());
 
         // Assert
         verify(encryptionService, times(2)).decrypt(anyString());
@@ -155,14 +161,14 @@ class MongoDecryptionConfigTest {
 
         // Call processDecryptedFields directly
         Method processDecryptedFields = MongoDecryptionConfig.DecryptionMongoEventListener.class
-                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class);
+                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class, java.util.Set.class, java.util.Set.class);
         processDecryptedFields.setAccessible(true);
 
         when(encryptionService.decrypt("encrypted-nested-data-1")).thenReturn("nested data 1");
         when(encryptionService.decrypt("encrypted-nested-data-2")).thenReturn("nested data 2");
 
         // Act
-        processDecryptedFields.invoke(listener, testObject, new java.util.HashSet<>());
+        processDecryptedFields.invoke(listener, testObject, null, java.util.Set.of(), new java.util.HashSet<>());
 
         // Assert
         verify(encryptionService, times(2)).decrypt(anyString());
@@ -178,11 +184,11 @@ class MongoDecryptionConfigTest {
 
         // Call processDecryptedFields directly
         Method processDecryptedFields = MongoDecryptionConfig.DecryptionMongoEventListener.class
-                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class);
+                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class, java.util.Set.class, java.util.Set.class);
         processDecryptedFields.setAccessible(true);
 
         // Act
-        processDecryptedFields.invoke(listener, testObject, new java.util.HashSet<>());
+        processDecryptedFields.invoke(listener, testObject, null, java.util.Set.of(), new java.util.HashSet<>());
 
         // Assert
         verify(encryptionService, never()).decrypt(anyString());
@@ -198,14 +204,14 @@ class MongoDecryptionConfigTest {
 
         // Call processDecryptedFields directly
         Method processDecryptedFields = MongoDecryptionConfig.DecryptionMongoEventListener.class
-                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class);
+                .getDeclaredMethod("processDecryptedFields", Object.class, java.util.Set.class, java.util.Set.class, java.util.Set.class);
         processDecryptedFields.setAccessible(true);
 
         when(encryptionService.decrypt("encrypted-parent-field")).thenReturn("parent field");
         when(encryptionService.decrypt("encrypted-child-field")).thenReturn("child field");
 
         // Act
-        processDecryptedFields.invoke(listener, childObject, new java.util.HashSet<>());
+        processDecryptedFields.invoke(listener, childObject, null, java.util.Set.of(), new java.util.HashSet<>());
 
         // Assert
         verify(encryptionService, times(2)).decrypt(anyString());
@@ -213,6 +219,95 @@ class MongoDecryptionConfigTest {
         assertEquals("child field", childObject.getChildEncryptedField());
     }
 
+    @Test
+    void shouldOnlyDecryptFieldsPresentInLoadedDocument() {
+        // Arrange
+        TestClass testObject = new TestClass();
+        testObject.setEncryptedField("encrypted-data");
+        NestedTestClass nestedObject = new NestedTestClass();
+        nestedObject.setEncryptedNestedField("encrypted-nested-data");
+        testObject.setNestedObject(nestedObject);
+
+        Document document = new Document("nestedObject", new Document("encryptedNestedField", "encrypted-nested-data"));
+        AfterConvertEvent<Object> event = new AfterConvertEvent<>(document, testObject, "collection");
+
+        when(encryptionService.decrypt("encrypted-nested-data")).thenReturn("nested data");
+
+        // Act
+        listener.onAfterConvert(event);
+
+        // Assert
+        verify(encryptionService, times(1)).decrypt(anyString());
+        assertEquals("encrypted-data", testObject.getEncryptedField());
+        assertEquals("nested data", nestedObject.getEncryptedNestedField());
+    }
+
+    @Test
+    void shouldRecordLoadedCipherTextForDocuments() {
+        // Arrange
+        DigitalUserDocument.PersonalInformation personalInformation = DigitalUserDocument.PersonalInformation.builder()
+                .firstName("encrypted-first-name")
+                .build();
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setPersonalInformation(personalInformation);
+
+        when(encryptionService.decrypt("encrypted-first-name")).thenReturn("John");
+
+        // Act
+        listener.onAfterConvert(new AfterConvertEvent<>(new Document("personalInformation", new Document()), document, "digital-users"));
+
+        // Assert
+        assertEquals("John", personalInformation.getFirstName());
+        assertEquals(
+                "encrypted-first-name",
+                document.encryptedValueSnapshot().findCipherText(personalInformation, "firstName", "John")
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReadBinaryEnvelopesAndLegacyTextOnLoad() {
+        // Arrange
+        byte[] envelope = new byte[]{1, 1, 2, 3};
+        Document stored = new Document("personalInformation", new Document("firstName", new Binary(BsonBinarySubType.USER_DEFINED, envelope))
+                .append("lastName", "legacy-base64"));
+
+        // Act
+        listener.onAfterLoad(new AfterLoadEvent<>(stored, (Class<Object>) (Class<?>) DigitalUserDocument.class, "digital-users"));
+
+        // Assert
+        Document personalInformation = (Document) stored.get("personalInformation");
+        assertEquals(EncryptionService.encodeEnvelopeText(envelope), personalInformation.get("firstName"));
+        assertEquals("legacy-base64", personalInformation.get("lastName"));
+    }
+
+    @Test
+    void shouldUnsealSubdocumentAndDecryptLegacyFields() {
+        // Arrange
+        DigitalUserDocument.PersonalInformation personalInformation = new DigitalUserDocument.PersonalInformation();
+        DigitalUserDocument.ContactMedium.Characteristic characteristic = DigitalUserDocument.ContactMedium.Characteristic.builder()
+                .emailAddress("encrypted-email")
+                .build();
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setPersonalInformation(personalInformation);
+        document.setContactMediumList(List.of(DigitalUserDocument.ContactMedium.builder().characteristic(characteristic).build()));
+
+        Document stored = new Document("personalInformation", new Document("_sealed", "$sealed"))
+                .append("contactMediumList", List.of(new Document("characteristic", new Document("emailAddress", "encrypted-email"))));
+
+        when(encryptionService.decrypt("$sealed")).thenReturn("{\"firstName\": \"John\", \"lastName\": \"Doe\"}");
+        when(encryptionService.decrypt("encrypted-email")).thenReturn("john@example.com");
+
+        // Act
+        listener.onAfterConvert(new AfterConvertEvent<>(stored, document, "digital-users"));
+
+        // Assert
+        assertEquals("John", personalInformation.getFirstName());
+        assertEquals("Doe", personalInformation.getLastName());
+        assertEquals("john@example.com", characteristic.getEmailAddress());
+        verify(encryptionService, times(2)).decrypt(anyString());
+    }
+
     // Test classes
     static class TestClass {
         @Encrypted
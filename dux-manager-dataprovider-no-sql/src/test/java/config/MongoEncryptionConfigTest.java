@@ -1,8 +1,13 @@
 package config;
 
+import com.tracktainment.duxmanager.annotation.BlindIndex;
 import com.tracktainment.duxmanager.annotation.Encrypted;
 import com.tracktainment.duxmanager.config.MongoEncryptionConfig;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
 import com.tracktainment.duxmanager.encryption.EncryptionService;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,7 +15,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
 import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -48,13 +56,13 @@ class MongoEncryptionConfigTest {
 
         BeforeConvertEvent<Object> event = new BeforeConvertEvent<>(testObject, "collection");
 
-        when(encryptionService.encrypt(anyString())).thenReturn("encrypted-data");
+        when(encryptionService.encryptToEnvelopeText(anyString())).thenReturn("encrypted-data");
 
         // Act
         listener.onBeforeConvert(event);
 
         // Assert
-        verify(encryptionService).encrypt(encryptionCaptor.capture());
+        verify(encryptionService).encryptToEnvelopeText(encryptionCaptor.capture());
         assertEquals("sensitive data", encryptionCaptor.getValue());
         assertEquals("encrypted-data", testObject.getEncryptedField());
         assertEquals("normal data", testObject.getNormalField());
@@ -73,7 +81,7 @@ class MongoEncryptionConfigTest {
         listener.onBeforeConvert(event);
 
         // Assert
-        verify(encryptionService, never()).encrypt(anyString());
+        verify(encryptionService, never()).encryptToEnvelopeText(anyString());
         assertNull(testObject.getEncryptedField());
         assertEquals("normal data", testObject.getNormalField());
     }
@@ -88,13 +96,13 @@ class MongoEncryptionConfigTest {
 
         BeforeConvertEvent<Object> event = new BeforeConvertEvent<>(testObject, "collection");
 
-        when(encryptionService.encrypt(anyString())).thenReturn("encrypted-nested-data");
+        when(encryptionService.encryptToEnvelopeText(anyString())).thenReturn("encrypted-nested-data");
 
         // Act
         listener.onBeforeConvert(event);
 
         // Assert
-        verify(encryptionService).encrypt(encryptionCaptor.capture());
+        verify(encryptionService).encryptToEnvelopeText(encryptionCaptor.capture());
         assertEquals("nested sensitive data", encryptionCaptor.getValue());
         assertEquals("encrypted-nested-data", nestedObject.getEncryptedNestedField());
     }
@@ -115,14 +123,14 @@ class MongoEncryptionConfigTest {
 
         BeforeConvertEvent<Object> event = new BeforeConvertEvent<>(testObject, "collection");
 
-        when(encryptionService.encrypt("nested data 1")).thenReturn("encrypted-nested-data-1");
-        when(encryptionService.encrypt("nested data 2")).thenReturn("encrypted-nested-data-2");
+        when(encryptionService.encryptToEnvelopeText("nested data 1")).thenReturn("encrypted-nested-data-1");
+        when(encryptionService.encryptToEnvelopeText("nested data 2")).thenReturn("encrypted-nested-data-2");
 
         // Act
         listener.onBeforeConvert(event);
 
         // Assert
-        verify(encryptionService, times(2)).encrypt(anyString());
+        verify(encryptionService, times(2)).encryptToEnvelopeText(anyString());
         assertEquals("encrypted-nested-data-1", nestedObject1.getEncryptedNestedField());
         assertEquals("encrypted-nested-data-2", nestedObject2.getEncryptedNestedField());
     }
@@ -143,14 +151,14 @@ class MongoEncryptionConfigTest {
 
         BeforeConvertEvent<Object> event = new BeforeConvertEvent<>(testObject, "collection");
 
-        when(encryptionService.encrypt("nested data 1")).thenReturn("encrypted-nested-data-1");
-        when(encryptionService.encrypt("nested data 2")).thenReturn("encrypted-nested-data-2");
+        when(encryptionService.encryptToEnvelopeText("nested data 1")).thenReturn("encrypted-nested-data-1");
+        when(encryptionService.encryptToEnvelopeText("nested data 2")).thenReturn("encrypted-nested-data-2");
 
         // Act
         listener.onBeforeConvert(event);
 
         // Assert
-        verify(encryptionService, times(2)).encrypt(anyString());
+        verify(encryptionService, times(2)).encryptToEnvelopeText(anyString());
         assertEquals("encrypted-nested-data-1", nestedObject1.getEncryptedNestedField());
         assertEquals("encrypted-nested-data-2", nestedObject2.getEncryptedNestedField());
     }
@@ -167,7 +175,7 @@ class MongoEncryptionConfigTest {
         listener.onBeforeConvert(event);
 
         // Assert
-        verify(encryptionService, never()).encrypt(anyString());
+        verify(encryptionService, never()).encryptToEnvelopeText(anyString());
         assertEquals(123L, testObject.getEncryptedLong());
     }
 
@@ -180,18 +188,183 @@ class MongoEncryptionConfigTest {
 
         BeforeConvertEvent<Object> event = new BeforeConvertEvent<>(childObject, "collection");
 
-        when(encryptionService.encrypt("parent field")).thenReturn("encrypted-parent-field");
-        when(encryptionService.encrypt("child field")).thenReturn("encrypted-child-field");
+        when(encryptionService.encryptToEnvelopeText("parent field")).thenReturn("encrypted-parent-field");
+        when(encryptionService.encryptToEnvelopeText("child field")).thenReturn("encrypted-child-field");
 
         // Act
         listener.onBeforeConvert(event);
 
         // Assert
-        verify(encryptionService, times(2)).encrypt(anyString());
+        verify(encryptionService, times(2)).encryptToEnvelopeText(anyString());
         assertEquals("encrypted-parent-field", childObject.getEncryptedField());
         assertEquals("encrypted-child-field", childObject.getChildEncryptedField());
     }
 
+    @Test
+    void shouldReuseCipherTextForUnchangedDocumentFields() {
+        // Arrange
+        DigitalUserDocument.PersonalInformation personalInformation = DigitalUserDocument.PersonalInformation.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setPersonalInformation(personalInformation);
+        document.encryptedValueSnapshot().record(personalInformation, "firstName", "John", "loaded-first-name");
+        document.encryptedValueSnapshot().record(personalInformation, "lastName", "Smith", "loaded-last-name");
+
+        when(encryptionService.isActiveKeyVersion("loaded-first-name")).thenReturn(true);
+        when(encryptionService.encryptToEnvelopeText("Doe")).thenReturn("encrypted-last-name");
+
+        // Act
+        listener.onBeforeConvert(new BeforeConvertEvent<>(document, "digital-users"));
+
+        // Assert
+        verify(encryptionService, times(1)).encryptToEnvelopeText(anyString());
+        assertEquals("loaded-first-name", personalInformation.getFirstName());
+        assertEquals("encrypted-last-name", personalInformation.getLastName());
+    }
+
+    @Test
+    void shouldComputeBlindIndexesFromPlainTextBeforeEncrypting() {
+        // Arrange
+        DigitalUserDocument.ContactMedium.Characteristic characteristic =
+                DigitalUserDocument.ContactMedium.Characteristic.builder()
+                        .emailAddress("John.Doe@Example.com")
+                        .countryCode("+1")
+                        .phoneNumber("555-123-4567")
+                        .build();
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setContactMediumList(List.of(DigitalUserDocument.ContactMedium.builder()
+                .characteristic(characteristic)
+                .build()));
+
+        when(encryptionService.blindIndex("john.doe@example.com")).thenReturn("email-index");
+        when(encryptionService.blindIndex("1" + BlindIndex.SOURCE_SEPARATOR + "5551234567")).thenReturn("phone-index");
+        when(encryptionService.encryptToEnvelopeText(anyString())).thenAnswer(invocation -> "enc:" + invocation.getArgument(0));
+
+        // Act
+        listener.onBeforeConvert(new BeforeConvertEvent<>(document, "digital-users"));
+
+        // Assert
+        assertEquals("email-index", characteristic.getEmailAddressIndex());
+        assertEquals("phone-index", characteristic.getPhoneNumberIndex());
+        assertEquals("enc:John.Doe@Example.com", characteristic.getEmailAddress());
+    }
+
+    @Test
+    void shouldReEncryptUnchangedFieldsWrittenUnderOlderKey() {
+        // Arrange
+        DigitalUserDocument.PersonalInformation personalInformation = DigitalUserDocument.PersonalInformation.builder()
+                .firstName("John")
+                .build();
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setPersonalInformation(personalInformation);
+        document.encryptedValueSnapshot().record(personalInformation, "firstName", "John", "old-key-first-name");
+
+        when(encryptionService.isActiveKeyVersion("old-key-first-name")).thenReturn(false);
+        when(encryptionService.encryptToEnvelopeText("John")).thenReturn("new-key-first-name");
+
+        // Act
+        listener.onBeforeConvert(new BeforeConvertEvent<>(document, "digital-users"));
+
+        // Assert
+        assertEquals("new-key-first-name", personalInformation.getFirstName());
+    }
+
+    @Test
+    void shouldRestorePlainTextAfterSave() {
+        // Arrange
+        DigitalUserDocument.PersonalInformation personalInformation = DigitalUserDocument.PersonalInformation.builder()
+                .firstName("John")
+                .build();
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setPersonalInformation(personalInformation);
+
+        when(encryptionService.encryptToEnvelopeText("John")).thenReturn("encrypted-first-name");
+        listener.onBeforeConvert(new BeforeConvertEvent<>(document, "digital-users"));
+
+        // Act
+        listener.onAfterSave(new AfterSaveEvent<>(document, new Document(), "digital-users"));
+
+        // Assert
+        assertEquals("John", personalInformation.getFirstName());
+        verify(encryptionService, never()).decrypt(anyString());
+    }
+
+    @Test
+    void shouldStoreEnvelopeAsBinaryInBinaryMode() {
+        // Arrange
+        ReflectionTestUtils.setField(mongoEncryptionConfig, "storageFormat", MongoEncryptionConfig.StorageFormat.BINARY);
+        DigitalUserDocument.PersonalInformation personalInformation = DigitalUserDocument.PersonalInformation.builder()
+                .firstName("John")
+                .build();
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setPersonalInformation(personalInformation);
+        byte[] envelope = new byte[]{1, 1, 2, 3};
+
+        when(encryptionService.encryptToEnvelopeText("John")).thenReturn("$AQECAw==");
+        listener.onBeforeConvert(new BeforeConvertEvent<>(document, "digital-users"));
+
+        Document stored = new Document("personalInformation", new Document("firstName", personalInformation.getFirstName()))
+                .append("assets", List.of(new Document("externalId", "$not-encrypted")));
+
+        // Act
+        listener.onBeforeSave(new BeforeSaveEvent<>(document, stored, "digital-users"));
+
+        // Assert
+        Object storedFirstName = ((Document) stored.get("personalInformation")).get("firstName");
+        assertInstanceOf(Binary.class, storedFirstName);
+        assertArrayEquals(envelope, ((Binary) storedFirstName).getData());
+        assertEquals(BsonBinarySubType.USER_DEFINED.getValue(), ((Binary) storedFirstName).getType());
+        assertEquals("$not-encrypted", ((Document) stored.getList("assets", Document.class).get(0)).get("externalId"));
+        verify(encryptionService, never()).encrypt(anyString());
+    }
+
+    @Test
+    void shouldKeepTextFormatByDefault() {
+        // Arrange
+        TestClass testObject = new TestClass();
+        testObject.setEncryptedField("sensitive data");
+        Document stored = new Document("encryptedField", "$AQECAw==");
+
+        when(encryptionService.encryptToEnvelopeText("sensitive data")).thenReturn("$AQECAw==");
+        listener.onBeforeConvert(new BeforeConvertEvent<>(testObject, "collection"));
+
+        // Act
+        listener.onBeforeSave(new BeforeSaveEvent<>(testObject, stored, "collection"));
+
+        // Assert
+        assertEquals("$AQECAw==", stored.get("encryptedField"));
+        verify(encryptionService, never()).encrypt(anyString());
+    }
+
+    @Test
+    void shouldSealSubdocumentAsOneBlobWhenEnabled() {
+        // Arrange
+        ReflectionTestUtils.setField(mongoEncryptionConfig, "sealSubdocuments", true);
+        DigitalUserDocument.PersonalInformation personalInformation = DigitalUserDocument.PersonalInformation.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+        DigitalUserDocument document = new DigitalUserDocument();
+        document.setPersonalInformation(personalInformation);
+
+        listener.onBeforeConvert(new BeforeConvertEvent<>(document, "digital-users"));
+
+        Document stored = new Document("personalInformation", new Document("firstName", "John").append("lastName", "Doe"));
+        when(encryptionService.encryptToEnvelopeText(anyString())).thenReturn("$sealed");
+
+        // Act
+        listener.onBeforeSave(new BeforeSaveEvent<>(document, stored, "digital-users"));
+
+        // Assert
+        verify(encryptionService, never()).encrypt(anyString());
+        verify(encryptionService).encryptToEnvelopeText(encryptionCaptor.capture());
+        assertEquals(new Document("firstName", "John").append("lastName", "Doe"), Document.parse(encryptionCaptor.getValue()));
+        assertEquals(new Document("_sealed", "$sealed"), stored.get("personalInformation"));
+        assertEquals("John", personalInformation.getFirstName());
+    }
+
     // Test classes
     static class TestClass {
         @Encrypted
@@ -0,0 +1,445 @@
+package dataprovider;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.tracktainment.duxmanager.dataprovider.impl.AssetCollectionDataProviderNoSql;
+import com.tracktainment.duxmanager.dataprovider.impl.DigitalUserDataProviderNoSql;
+import com.tracktainment.duxmanager.document.AssetDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
+import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import com.tracktainment.duxmanager.mapper.AssetMapperDataProvider;
+import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import com.tracktainment.duxmanager.util.AssetCursor;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mapstruct.factory.Mappers;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import testutil.TestAssetDataUtil;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetCollectionDataProviderNoSqlTest {
+
+    private static final String DIGITAL_USER_ID = "a23e4567-e89b-12d3-a456-426614174009";
+
+    private final AssetMapperDataProvider mapper = Mappers.getMapper(AssetMapperDataProvider.class);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DigitalUserDataProviderNoSql digitalUserDataProviderNoSql;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private MongoConverter mongoConverter;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<Pair<Query, Update>>> upsertsCaptor;
+
+    private AssetCollectionDataProviderNoSql assetCollectionDataProvider;
+    private AssetCreate assetCreate;
+    private Asset asset;
+
+    @BeforeEach
+    void setUp() {
+        assetCollectionDataProvider = new AssetCollectionDataProviderNoSql(mapper, mongoTemplate, digitalUserDataProviderNoSql);
+        assetCreate = TestAssetDataUtil.createTestAssetCreate1();
+        asset = TestAssetDataUtil.createTestAsset1();
+    }
+
+    @Test
+    void shouldCreateAssetSuccessfully() {
+        // Arrange
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(true);
+        when(mongoTemplate.insert(any(AssetDocument.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Asset result = assetCollectionDataProvider.create(DIGITAL_USER_ID, assetCreate);
+
+        // Assert
+        ArgumentCaptor<AssetDocument> documentCaptor = ArgumentCaptor.forClass(AssetDocument.class);
+        verify(mongoTemplate).insert(documentCaptor.capture());
+        assertEquals(DIGITAL_USER_ID, documentCaptor.getValue().getDigitalUserId());
+        assertEquals(assetCreate.getExternalId(), documentCaptor.getValue().getExternalId());
+
+        assertNotNull(result.getId());
+        assertNotNull(result.getCreatedAt());
+        assertEquals(assetCreate.getExternalId(), result.getExternalId());
+    }
+
+    @Test
+    void shouldThrowResourceAlreadyExistsExceptionOnDuplicateKey() {
+        // Arrange
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(true);
+        when(mongoTemplate.insert(any(AssetDocument.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        // Act & Assert
+        assertThrows(ResourceAlreadyExistsException.class,
+                () -> assetCollectionDataProvider.create(DIGITAL_USER_ID, assetCreate));
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenCreatingAssetForNonExistentUser() {
+        // Arrange
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetCollectionDataProvider.create(DIGITAL_USER_ID, assetCreate));
+
+        verify(mongoTemplate, never()).insert(any(AssetDocument.class));
+    }
+
+    @Test
+    void shouldCreateAllAssetsWithOneBulkInsert() {
+        // Arrange
+        List<AssetCreate> assetCreates = List.of(
+                TestAssetDataUtil.createTestAssetCreate1(),
+                TestAssetDataUtil.createTestAssetCreate2()
+        );
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(true);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        // Act
+        List<Asset> results = assetCollectionDataProvider.createAll(DIGITAL_USER_ID, assetCreates);
+
+        // Assert
+        assertEquals(
+                assetCreates.stream().map(AssetCreate::getExternalId).toList(),
+                results.stream().map(Asset::getExternalId).toList()
+        );
+
+        ArgumentCaptor<List<AssetDocument>> documentsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(documentsCaptor.capture());
+        verify(bulkOperations).execute();
+        assertEquals(2, documentsCaptor.getValue().size());
+        assertTrue(documentsCaptor.getValue().stream()
+                .allMatch(document -> DIGITAL_USER_ID.equals(document.getDigitalUserId())));
+        verify(mongoTemplate, never()).insert(any(AssetDocument.class));
+    }
+
+    @Test
+    void shouldSkipTakenExternalIdsInBulkInsert() {
+        // Arrange
+        List<AssetCreate> assetCreates = List.of(
+                TestAssetDataUtil.createTestAssetCreate1(),
+                TestAssetDataUtil.createTestAssetCreate2()
+        );
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(true);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(bulkOperationException(11000));
+
+        // Act
+        List<Asset> results = assetCollectionDataProvider.createAll(DIGITAL_USER_ID, assetCreates);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(assetCreates.get(1).getExternalId(), results.get(0).getExternalId());
+    }
+
+    @Test
+    void shouldRethrowBulkInsertFailuresOtherThanDuplicates() {
+        // Arrange
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(true);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(bulkOperationException(121));
+
+        // Act & Assert
+        assertThrows(BulkOperationException.class,
+                () -> assetCollectionDataProvider.createAll(DIGITAL_USER_ID, List.of(assetCreate)));
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenCreatingAllForNonExistentUser() {
+        // Arrange
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetCollectionDataProvider.createAll(DIGITAL_USER_ID, List.of(assetCreate)));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(AssetDocument.class));
+    }
+
+    @Test
+    void shouldFindAssetByExternalIdSuccessfully() {
+        // Arrange
+        when(mongoTemplate.findOne(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(mapper.toAssetDocument(asset, DIGITAL_USER_ID));
+
+        // Act
+        Asset result = assetCollectionDataProvider.findByExternalId(DIGITAL_USER_ID, asset.getExternalId());
+
+        // Assert
+        assertEquals(asset, result);
+
+        verify(mongoTemplate).findOne(queryCaptor.capture(), eq(AssetDocument.class));
+        assertEquals(
+                new Document("digitalUserId", DIGITAL_USER_ID).append("externalId", asset.getExternalId()),
+                queryCaptor.getValue().getQueryObject()
+        );
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenAssetNotFound() {
+        // Arrange
+        when(mongoTemplate.findOne(any(Query.class), eq(AssetDocument.class))).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetCollectionDataProvider.findByExternalId(DIGITAL_USER_ID, asset.getExternalId()));
+    }
+
+    @Test
+    void shouldListAssetsByCriteriaWithIndexedQuery() {
+        // Arrange
+        ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(5)
+                .limit(10)
+                .digitalUserId(DIGITAL_USER_ID)
+                .type("book")
+                .build();
+
+        when(mongoTemplate.find(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(List.of(mapper.toAssetDocument(asset, DIGITAL_USER_ID)));
+
+        // Act
+        List<Asset> results = assetCollectionDataProvider.listByCriteria(input);
+
+        // Assert
+        assertEquals(List.of(asset), results);
+
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(AssetDocument.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(new Document("digitalUserId", DIGITAL_USER_ID).append("type", "book"), query.getQueryObject());
+        assertEquals(new Document("createdAt", 1).append("id", 1), query.getSortObject());
+        assertEquals(5, query.getSkip());
+        assertEquals(10, query.getLimit());
+        verify(digitalUserDataProviderNoSql, never()).existsById(anyString());
+    }
+
+    @Test
+    void shouldSeekPastCursorOnCollectionFields() {
+        // Arrange
+        AssetCursor cursor = AssetCursor.of(asset);
+        ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(0)
+                .limit(10)
+                .digitalUserId(DIGITAL_USER_ID)
+                .cursor(cursor.encode())
+                .build();
+
+        when(mongoTemplate.find(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(List.of(mapper.toAssetDocument(asset, DIGITAL_USER_ID)));
+
+        // Act
+        assetCollectionDataProvider.listByCriteria(input);
+
+        // Assert
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(AssetDocument.class));
+        assertEquals(
+                new Document("digitalUserId", DIGITAL_USER_ID).append("$or", List.of(
+                        new Document("createdAt", new Document("$gt", cursor.getCreatedAt())),
+                        new Document("createdAt", cursor.getCreatedAt()).append("id", new Document("$gt", cursor.getId()))
+                )),
+                queryCaptor.getValue().getQueryObject()
+        );
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenListingAssetsOfNonExistentUser() {
+        // Arrange
+        ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(0)
+                .limit(10)
+                .digitalUserId(DIGITAL_USER_ID)
+                .build();
+
+        when(mongoTemplate.find(any(Query.class), eq(AssetDocument.class))).thenReturn(Collections.emptyList());
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> assetCollectionDataProvider.listByCriteria(input));
+    }
+
+    @Test
+    void shouldStreamAllAssetsInIndexOrder() {
+        // Arrange
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(true);
+        when(mongoTemplate.stream(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(Stream.of(mapper.toAssetDocument(asset, DIGITAL_USER_ID)));
+
+        // Act
+        Supplier<Stream<Asset>> supplier = assetCollectionDataProvider.streamAll(DIGITAL_USER_ID);
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(AssetDocument.class));
+
+        List<Asset> results;
+        try (Stream<Asset> assets = supplier.get()) {
+            results = assets.toList();
+        }
+
+        // Assert
+        assertEquals(List.of(asset), results);
+
+        verify(mongoTemplate).stream(queryCaptor.capture(), eq(AssetDocument.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(new Document("digitalUserId", DIGITAL_USER_ID), query.getQueryObject());
+        assertEquals(new Document("createdAt", 1).append("id", 1), query.getSortObject());
+        assertEquals(100, query.getMeta().getCursorBatchSize());
+        assertEquals(0, query.getLimit());
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenStreamingAssetsOfNonExistentUser() {
+        // Arrange
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> assetCollectionDataProvider.streamAll(DIGITAL_USER_ID));
+
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(AssetDocument.class));
+    }
+
+    @Test
+    void shouldDeleteAssetSuccessfully() {
+        // Arrange
+        when(mongoTemplate.remove(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(DeleteResult.acknowledged(1));
+
+        // Act
+        assetCollectionDataProvider.delete(DIGITAL_USER_ID, asset.getExternalId());
+
+        // Assert
+        verify(mongoTemplate).remove(queryCaptor.capture(), eq(AssetDocument.class));
+        assertEquals(
+                new Document("digitalUserId", DIGITAL_USER_ID).append("externalId", asset.getExternalId()),
+                queryCaptor.getValue().getQueryObject()
+        );
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenDeletingNonExistentAsset() {
+        // Arrange
+        when(mongoTemplate.remove(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(DeleteResult.acknowledged(0));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetCollectionDataProvider.delete(DIGITAL_USER_ID, asset.getExternalId()));
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenDeletingAllForNonExistentUser() {
+        // Arrange
+        when(mongoTemplate.remove(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(DeleteResult.acknowledged(0));
+        when(digitalUserDataProviderNoSql.existsById(DIGITAL_USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetCollectionDataProvider.deleteAll(DIGITAL_USER_ID, List.of("a", "b")));
+    }
+
+    @Test
+    void shouldUpsertAssetsKeyedOnDigitalUserAndExternalId() {
+        // Arrange
+        Asset otherAsset = TestAssetDataUtil.createTestAsset2();
+        when(mongoTemplate.getConverter()).thenReturn(mongoConverter);
+        doAnswer(invocation -> {
+            AssetDocument assetDocument = invocation.getArgument(0);
+            Document target = invocation.getArgument(1);
+            target.append("_id", assetDocument.getId())
+                    .append("digitalUserId", assetDocument.getDigitalUserId())
+                    .append("externalId", assetDocument.getExternalId());
+            return null;
+        }).when(mongoConverter).write(any(AssetDocument.class), any(Document.class));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(anyList())).thenReturn(bulkOperations);
+
+        // Act
+        assetCollectionDataProvider.upsertAll(DIGITAL_USER_ID, List.of(asset, otherAsset));
+
+        // Assert
+        verify(bulkOperations).upsert(upsertsCaptor.capture());
+        verify(bulkOperations).execute();
+
+        List<Pair<Query, Update>> upserts = upsertsCaptor.getValue();
+        assertEquals(2, upserts.size());
+        assertEquals(
+                new Document("digitalUserId", DIGITAL_USER_ID).append("externalId", otherAsset.getExternalId()),
+                upserts.get(1).getFirst().getQueryObject()
+        );
+
+        Document setOnInsert = (Document) upserts.get(0).getSecond().getUpdateObject().get("$setOnInsert");
+        assertEquals(asset.getExternalId(), setOnInsert.get("externalId"));
+        assertEquals(asset.getId(), setOnInsert.get("_id"));
+    }
+
+    @Test
+    void shouldRemoveCopiesNoLongerEmbedded() {
+        // Arrange
+        when(mongoTemplate.remove(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(DeleteResult.acknowledged(3));
+
+        // Act
+        long removed = assetCollectionDataProvider.retainAll(DIGITAL_USER_ID, List.of(asset.getExternalId()));
+
+        // Assert
+        assertEquals(3, removed);
+
+        verify(mongoTemplate).remove(queryCaptor.capture(), eq(AssetDocument.class));
+        assertEquals(
+                new Document("digitalUserId", DIGITAL_USER_ID)
+                        .append("externalId", new Document("$nin", List.of(asset.getExternalId()))),
+                queryCaptor.getValue().getQueryObject()
+        );
+    }
+
+    // The first insert of the batch fails with the given server error code
+    private BulkOperationException bulkOperationException(int code) {
+        return new BulkOperationException("bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(code, "write failed", new BsonDocument(), 0)),
+                null,
+                new ServerAddress(),
+                Set.of()
+        ));
+    }
+}
@@ -1,5 +1,6 @@
 package dataprovider;
 
+import com.mongodb.client.result.UpdateResult;
 import com.tracktainment.duxmanager.dataprovider.impl.AssetDataProviderNoSql;
 import com.tracktainment.duxmanager.dataprovider.impl.DigitalUserDataProviderNoSql;
 import com.tracktainment.duxmanager.document.DigitalUserDocument;
@@ -10,6 +11,7 @@ import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
 import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
 import com.tracktainment.duxmanager.mapper.AssetMapperDataProvider;
 import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import com.tracktainment.duxmanager.util.AssetCursor;
 import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +22,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import testutil.TestAssetDataUtil;
@@ -29,6 +34,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -55,6 +63,9 @@ class AssetDataProviderNoSqlTest {
     @Captor
     private ArgumentCaptor<Update> updateCaptor;
 
+    @Captor
+    private ArgumentCaptor<TypedAggregation<DigitalUserDocument>> aggregationCaptor;
+
     private AssetCreate assetCreate;
     private Asset asset;
     private DigitalUserDocument digitalUserDocument;
@@ -73,17 +84,11 @@ class AssetDataProviderNoSqlTest {
     @Test
     void shouldCreateAssetSuccessfully() {
         // Arrange
-        when(mongoTemplate.exists(any(Query.class), eq(DigitalUserDocument.class)))
-                .thenReturn(false);
-
-        when(digitalUserDataProviderNoSql.findDigitalUserDocumentById(digitalUserDocument.getId()))
-                .thenReturn(digitalUserDocument);
-
         when(mapper.toAsset(assetCreate))
                 .thenReturn(asset);
 
-        when(mongoTemplate.save(digitalUserDocument))
-                .thenReturn(digitalUserDocument);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
 
         // Act
         Asset result = assetDataProviderNoSql.create(digitalUserDocument.getId(), assetCreate);
@@ -92,31 +97,139 @@ class AssetDataProviderNoSqlTest {
         assertNotNull(result);
         assertEquals(asset.getId(), result.getId());
         assertEquals(asset.getExternalId(), result.getExternalId());
+        assertNotNull(result.getCreatedAt());
 
-        verify(mongoTemplate).exists(queryCaptor.capture(), eq(DigitalUserDocument.class));
-        verify(digitalUserDataProviderNoSql).findDigitalUserDocumentById(digitalUserDocument.getId());
         verify(mapper).toAsset(assetCreate);
-        verify(mongoTemplate).save(digitalUserDocument);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DigitalUserDocument.class));
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(DigitalUserDocument.class));
+        verify(digitalUserDataProviderNoSql, never()).existsById(anyString());
+        verify(digitalUserDataProviderNoSql, never()).findDigitalUserDocumentById(anyString());
+        verify(mongoTemplate, never()).save(any());
+
+        // Verify the duplicate check is part of the update filter
+        Document queryObject = queryCaptor.getValue().getQueryObject();
+        assertEquals(digitalUserDocument.getId(), queryObject.get("id"));
+        assertEquals(new Document("$ne", assetCreate.getExternalId()), queryObject.get("assets.externalId"));
+
+        // Verify only the assets path is written
+        Document updateObject = updateCaptor.getValue().getUpdateObject();
+        assertEquals(Collections.singleton("$push"), updateObject.keySet());
+        assertTrue(((Document) updateObject.get("$push")).containsKey("assets"));
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenCreatingAssetForNonExistentUser() {
+        // Arrange
+        when(mapper.toAsset(assetCreate))
+                .thenReturn(asset);
 
-        // Verify asset was added to the user document
-        assertEquals(1, digitalUserDocument.getAssets().size());
-        assertEquals(asset, digitalUserDocument.getAssets().get(0));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId()))
+                .thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetDataProviderNoSql.create(digitalUserDocument.getId(), assetCreate));
     }
 
     @Test
     void shouldThrowResourceAlreadyExistsExceptionWhenAssetExists() {
         // Arrange
-        when(mongoTemplate.exists(any(Query.class), eq(DigitalUserDocument.class)))
+        when(mapper.toAsset(assetCreate))
+                .thenReturn(asset);
+
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId()))
                 .thenReturn(true);
 
         // Act & Assert
         assertThrows(ResourceAlreadyExistsException.class,
                 () -> assetDataProviderNoSql.create(digitalUserDocument.getId(), assetCreate));
 
-        verify(mongoTemplate).exists(any(Query.class), eq(DigitalUserDocument.class));
-        verify(digitalUserDataProviderNoSql, never()).findDigitalUserDocumentById(anyString());
-        verify(mapper, never()).toAsset(any());
-        verify(mongoTemplate, never()).save(any());
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(DigitalUserDocument.class));
+        verify(digitalUserDataProviderNoSql).existsById(digitalUserDocument.getId());
+    }
+
+    @Test
+    void shouldCreateAllAssetsWithOnePush() {
+        // Arrange
+        List<AssetCreate> assetCreates = List.of(
+                TestAssetDataUtil.createTestAssetCreate1(),
+                TestAssetDataUtil.createTestAssetCreate2()
+        );
+        when(mapper.toAsset(any(AssetCreate.class))).thenAnswer(invocation -> toAsset(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        List<Asset> results = assetDataProviderNoSql.createAll(digitalUserDocument.getId(), assetCreates);
+
+        // Assert
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getCreatedAt() != null));
+
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DigitalUserDocument.class));
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(DigitalUserDocument.class));
+
+        // Verify the filter only matches while no externalId of the batch is taken
+        Document queryObject = queryCaptor.getValue().getQueryObject();
+        assertEquals(
+                new Document("$nin", assetCreates.stream().map(AssetCreate::getExternalId).toList()),
+                queryObject.get("assets.externalId")
+        );
+
+        // Verify the whole batch is pushed at once
+        Document push = (Document) updateCaptor.getValue().getUpdateObject().get("$push");
+        Update.Modifier each = ((Update.Modifiers) push.get("assets")).getModifiers().iterator().next();
+        assertEquals("$each", each.getKey());
+        assertArrayEquals(results.toArray(), (Object[]) each.getValue());
+    }
+
+    @Test
+    void shouldPushOnlyUntakenAssetsWhenSomeExternalIdsExist() {
+        // Arrange
+        List<AssetCreate> assetCreates = List.of(
+                TestAssetDataUtil.createTestAssetCreate1(),
+                TestAssetDataUtil.createTestAssetCreate2()
+        );
+        Asset taken = Asset.builder().externalId(assetCreates.get(0).getExternalId()).build();
+        DigitalUserDocument existing = new DigitalUserDocument();
+        existing.setAssets(new ArrayList<>(List.of(taken)));
+
+        when(mapper.toAsset(any(AssetCreate.class))).thenAnswer(invocation -> toAsset(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(existing);
+
+        // Act
+        List<Asset> results = assetDataProviderNoSql.createAll(digitalUserDocument.getId(), assetCreates);
+
+        // Assert
+        assertEquals(List.of(assetCreates.get(1).getExternalId()), results.stream().map(Asset::getExternalId).toList());
+
+        verify(mongoTemplate, times(2)).updateFirst(queryCaptor.capture(), any(Update.class), eq(DigitalUserDocument.class));
+        assertEquals(
+                new Document("$nin", List.of(assetCreates.get(1).getExternalId())),
+                queryCaptor.getAllValues().get(1).getQueryObject().get("assets.externalId")
+        );
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenCreatingAllForNonExistentUser() {
+        // Arrange
+        when(mapper.toAsset(any(AssetCreate.class))).thenAnswer(invocation -> toAsset(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetDataProviderNoSql.createAll(digitalUserDocument.getId(), List.of(assetCreate)));
     }
 
     @Test
@@ -175,21 +288,14 @@ class AssetDataProviderNoSqlTest {
         Asset asset1 = TestAssetDataUtil.createTestAsset1();
         Asset asset2 = TestAssetDataUtil.createTestAsset2();
 
-        DigitalUserDocument userWithAssets = new DigitalUserDocument();
-        userWithAssets.setId(digitalUserDocument.getId());
-        userWithAssets.setAssets(Arrays.asList(asset1, asset2));
-
         ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
-                .offset(0)
+                .offset(5)
                 .limit(10)
                 .digitalUserId(digitalUserDocument.getId())
                 .build();
 
-        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId()))
-                .thenReturn(true);
-
-        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class)))
-                .thenReturn(userWithAssets);
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Asset.class)))
+                .thenReturn(new AggregationResults<>(Arrays.asList(asset1, asset2), new Document()));
 
         // Act
         List<Asset> results = assetDataProviderNoSql.listByCriteria(input);
@@ -200,25 +306,36 @@ class AssetDataProviderNoSqlTest {
         assertTrue(results.contains(asset1));
         assertTrue(results.contains(asset2));
 
-        verify(digitalUserDataProviderNoSql).existsById(digitalUserDocument.getId());
-        verify(mongoTemplate).findOne(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        verify(digitalUserDataProviderNoSql, never()).existsById(anyString());
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(DigitalUserDocument.class));
+        verify(mongoTemplate).aggregate(aggregationCaptor.capture(), eq(Asset.class));
+
+        // Verify only the requested page of assets is produced server-side
+        List<Document> pipeline = aggregationCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(
+                List.of("$match", "$project", "$unwind", "$match", "$sort", "$skip", "$limit", "$replaceRoot"),
+                pipeline.stream().map(stage -> stage.keySet().iterator().next()).toList()
+        );
+        assertEquals(new Document("id", digitalUserDocument.getId()), pipeline.get(0).get("$match"));
+        assertEquals(new Document("assets", 1), pipeline.get(1).get("$project"));
+        assertEquals(new Document(), pipeline.get(3).get("$match"));
+        assertEquals(new Document("assets.createdAt", 1).append("assets._id", 1), pipeline.get(4).get("$sort"));
+        assertEquals(5L, pipeline.get(5).get("$skip"));
+        assertEquals(10L, pipeline.get(6).get("$limit"));
     }
 
     @Test
     void shouldReturnEmptyListWhenNoAssetsFound() {
         // Arrange
-        DigitalUserDocument emptyUserDocument = new DigitalUserDocument();
-        emptyUserDocument.setId(digitalUserDocument.getId());
-        emptyUserDocument.setAssets(Collections.emptyList());
-
         ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
                 .offset(0)
                 .limit(10)
                 .digitalUserId(digitalUserDocument.getId())
                 .build();
 
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Asset.class)))
+                .thenReturn(new AggregationResults<>(Collections.emptyList(), new Document()));
         when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId())).thenReturn(true);
-        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(emptyUserDocument);
 
         // Act
         List<Asset> results = assetDataProviderNoSql.listByCriteria(input);
@@ -228,7 +345,7 @@ class AssetDataProviderNoSqlTest {
         assertTrue(results.isEmpty());
 
         verify(digitalUserDataProviderNoSql).existsById(digitalUserDocument.getId());
-        verify(mongoTemplate).findOne(any(Query.class), eq(DigitalUserDocument.class));
+        verify(mongoTemplate).aggregate(any(TypedAggregation.class), eq(Asset.class));
     }
 
     @Test
@@ -243,6 +360,8 @@ class AssetDataProviderNoSqlTest {
         // Act & Assert
         assertThrows(ParameterValidationErrorException.class,
                 () -> assetDataProviderNoSql.listByCriteria(input));
+
+        verifyNoInteractions(mongoTemplate);
     }
 
     @Test
@@ -254,6 +373,8 @@ class AssetDataProviderNoSqlTest {
                 .digitalUserId(digitalUserDocument.getId())
                 .build();
 
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Asset.class)))
+                .thenReturn(new AggregationResults<>(Collections.emptyList(), new Document()));
         when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId()))
                 .thenReturn(false);
 
@@ -262,19 +383,11 @@ class AssetDataProviderNoSqlTest {
                 () -> assetDataProviderNoSql.listByCriteria(input));
 
         verify(digitalUserDataProviderNoSql).existsById(digitalUserDocument.getId());
-        verify(mongoTemplate, never()).findOne(any(Query.class), eq(DigitalUserDocument.class));
     }
 
     @Test
     void shouldFilterAssetsByType() {
         // Arrange
-        Asset asset1 = TestAssetDataUtil.createTestAsset1();
-        Asset asset2 = TestAssetDataUtil.createTestAsset2();
-
-        DigitalUserDocument userWithAssets = new DigitalUserDocument();
-        userWithAssets.setId(digitalUserDocument.getId());
-        userWithAssets.setAssets(Arrays.asList(asset1, asset2));
-
         ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
                 .offset(0)
                 .limit(10)
@@ -282,22 +395,11 @@ class AssetDataProviderNoSqlTest {
                 .type("book")
                 .build();
 
-        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId()))
-                .thenReturn(true);
-
-        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class)))
-                .thenReturn(userWithAssets);
-
         // Act
-        List<Asset> results = assetDataProviderNoSql.listByCriteria(input);
+        Document assetMatch = listAndCaptureAssetMatch(input);
 
         // Assert
-        assertNotNull(results);
-        assertEquals(1, results.size());
-        assertEquals("book", results.get(0).getType());
-
-        verify(digitalUserDataProviderNoSql).existsById(digitalUserDocument.getId());
-        verify(mongoTemplate).findOne(any(Query.class), eq(DigitalUserDocument.class));
+        assertEquals(new Document("assets.type", "book"), assetMatch);
     }
 
     @Test
@@ -307,10 +409,6 @@ class AssetDataProviderNoSqlTest {
         Asset asset2 = TestAssetDataUtil.createTestAsset2();
         String targetExternalId = asset1.getExternalId() + "," + asset2.getExternalId();
 
-        DigitalUserDocument userWithAssets = new DigitalUserDocument();
-        userWithAssets.setId(digitalUserDocument.getId());
-        userWithAssets.setAssets(Arrays.asList(asset1, asset2));
-
         ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
                 .offset(0)
                 .limit(10)
@@ -318,109 +416,176 @@ class AssetDataProviderNoSqlTest {
                 .externalIds(targetExternalId)
                 .build();
 
-        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId()))
-                .thenReturn(true);
-
-        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class)))
-                .thenReturn(userWithAssets);
-
         // Act
-        List<Asset> results = assetDataProviderNoSql.listByCriteria(input);
+        Document assetMatch = listAndCaptureAssetMatch(input);
 
         // Assert
-        assertNotNull(results);
-        assertEquals(2, results.size());
-        assertEquals(asset1.getExternalId(), results.get(0).getExternalId());
-
-        verify(digitalUserDataProviderNoSql).existsById(digitalUserDocument.getId());
-        verify(mongoTemplate).findOne(any(Query.class), eq(DigitalUserDocument.class));
+        assertEquals(
+                new Document("assets.externalId",
+                        new Document("$in", List.of(asset1.getExternalId(), asset2.getExternalId()))),
+                assetMatch
+        );
     }
 
     @Test
-    void shouldFilterAssetsByArtifactId() {
+    void shouldFilterAssetsByGroupIdAndArtifactId() {
         // Arrange
-        Asset asset1 = TestAssetDataUtil.createTestAsset1();
-        Asset asset2 = TestAssetDataUtil.createTestAsset2();
-
-        DigitalUserDocument userWithAssets = new DigitalUserDocument();
-        userWithAssets.setId(digitalUserDocument.getId());
-        userWithAssets.setAssets(Arrays.asList(asset1, asset2));
-
         ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
                 .offset(0)
                 .limit(10)
                 .digitalUserId(digitalUserDocument.getId())
+                .groupId("com.tracktainment")
                 .artifactId("book-manager")
                 .build();
 
-        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId()))
-                .thenReturn(true);
+        // Act
+        Document assetMatch = listAndCaptureAssetMatch(input);
 
-        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class)))
-                .thenReturn(userWithAssets);
+        // Assert
+        assertEquals(
+                new Document("assets.artifactInformation.groupId", "com.tracktainment")
+                        .append("assets.artifactInformation.artifactId", "book-manager"),
+                assetMatch
+        );
+    }
+
+    @Test
+    void shouldFilterAssetsByCreatedAtDate() {
+        // Arrange
+        LocalDate createdAt = LocalDate.of(2024, 3, 15);
+        ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(0)
+                .limit(10)
+                .digitalUserId(digitalUserDocument.getId())
+                .createdAt(createdAt)
+                .from(LocalDate.of(2024, 1, 1))
+                .build();
 
         // Act
-        List<Asset> results = assetDataProviderNoSql.listByCriteria(input);
+        Document assetMatch = listAndCaptureAssetMatch(input);
 
         // Assert
-        assertNotNull(results);
-        assertEquals(1, results.size());
-        assertEquals("book-manager", results.get(0).getArtifactInformation().getArtifactId());
-
-        verify(digitalUserDataProviderNoSql).existsById(digitalUserDocument.getId());
-        verify(mongoTemplate).findOne(any(Query.class), eq(DigitalUserDocument.class));
+        assertEquals(
+                new Document("assets.createdAt", new Document("$gte", createdAt.atStartOfDay())
+                        .append("$lt", createdAt.plusDays(1).atStartOfDay())),
+                assetMatch
+        );
     }
 
     @Test
-    void shouldFilterAssetsByCreatedAtDate() {
+    void shouldFilterAssetsByDateRange() {
         // Arrange
-        Asset asset1 = TestAssetDataUtil.createTestAsset1();
-        Asset asset2 = TestAssetDataUtil.createTestAsset2();
+        LocalDate from = LocalDate.of(2024, 1, 5);
+        LocalDate to = LocalDate.of(2024, 1, 20);
+        ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(0)
+                .limit(10)
+                .digitalUserId(digitalUserDocument.getId())
+                .from(from)
+                .to(to)
+                .build();
+
+        // Act
+        Document assetMatch = listAndCaptureAssetMatch(input);
 
-        DigitalUserDocument userWithAssets = new DigitalUserDocument();
-        userWithAssets.setId(digitalUserDocument.getId());
-        userWithAssets.setAssets(Arrays.asList(asset1, asset2));
+        // Assert
+        assertEquals(
+                new Document("assets.createdAt", new Document("$gte", from.atStartOfDay())
+                        .append("$lt", to.plusDays(1).atStartOfDay())),
+                assetMatch
+        );
+    }
 
+    @Test
+    void shouldSeekPastCursorInCreatedAtAndIdOrder() {
+        // Arrange
+        AssetCursor cursor = AssetCursor.of(asset);
         ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
                 .offset(0)
                 .limit(10)
                 .digitalUserId(digitalUserDocument.getId())
-                .createdAt(LocalDate.now())
+                .cursor(cursor.encode())
                 .build();
 
-        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId()))
-                .thenReturn(true);
+        // Act
+        Document assetMatch = listAndCaptureAssetMatch(input);
 
-        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class)))
-                .thenReturn(userWithAssets);
+        // Assert
+        assertEquals(
+                new Document("$or", List.of(
+                        new Document("assets.createdAt", new Document("$gt", cursor.getCreatedAt())),
+                        new Document("assets.createdAt", cursor.getCreatedAt())
+                                .append("assets._id", new Document("$gt", cursor.getId()))
+                )),
+                assetMatch
+        );
+    }
+
+    @Test
+    void shouldStreamAllAssetsFromCursor() {
+        // Arrange
+        Asset asset1 = TestAssetDataUtil.createTestAsset1();
+        Asset asset2 = TestAssetDataUtil.createTestAsset2();
+        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId())).thenReturn(true);
+        when(mongoTemplate.aggregateStream(any(TypedAggregation.class), eq(Asset.class)))
+                .thenReturn(Stream.of(asset1, asset2));
 
         // Act
-        List<Asset> results = assetDataProviderNoSql.listByCriteria(input);
+        Supplier<Stream<Asset>> supplier = assetDataProviderNoSql.streamAll(digitalUserDocument.getId());
+        verify(mongoTemplate, never()).aggregateStream(any(TypedAggregation.class), any(Class.class));
+
+        List<Asset> results;
+        try (Stream<Asset> assets = supplier.get()) {
+            results = assets.toList();
+        }
 
         // Assert
-        assertNotNull(results);
-        assertEquals(2, results.size());
-        assertEquals(LocalDate.now().atTime(12, 0), results.get(0).getCreatedAt());
+        assertEquals(List.of(asset1, asset2), results);
+        verify(mongoTemplate, never()).aggregate(any(TypedAggregation.class), any(Class.class));
+        verify(mongoTemplate).aggregateStream(aggregationCaptor.capture(), eq(Asset.class));
+
+        // Verify the whole array is unwound without paging, in listing order and in bounded batches
+        TypedAggregation<DigitalUserDocument> aggregation = aggregationCaptor.getValue();
+        List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(
+                List.of("$match", "$project", "$unwind", "$sort", "$replaceRoot"),
+                pipeline.stream().map(stage -> stage.keySet().iterator().next()).toList()
+        );
+        assertEquals(new Document("id", digitalUserDocument.getId()), pipeline.get(0).get("$match"));
+        assertEquals(new Document("assets.createdAt", 1).append("assets._id", 1), pipeline.get(3).get("$sort"));
+        assertEquals(100, aggregation.getOptions().getCursorBatchSize());
+        assertTrue(aggregation.getOptions().isAllowDiskUse());
+    }
 
-        verify(digitalUserDataProviderNoSql).existsById(digitalUserDocument.getId());
-        verify(mongoTemplate).findOne(any(Query.class), eq(DigitalUserDocument.class));
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenStreamingForNonExistentUser() {
+        // Arrange
+        when(digitalUserDataProviderNoSql.existsById(digitalUserDocument.getId())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetDataProviderNoSql.streamAll(digitalUserDocument.getId()));
+
+        verify(mongoTemplate, never()).aggregateStream(any(TypedAggregation.class), any(Class.class));
     }
 
     @Test
     void shouldDeleteAssetSuccessfully() {
         // Arrange
-        when(mongoTemplate.exists(any(Query.class), eq(DigitalUserDocument.class)))
-                .thenReturn(true);
-
         when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
-                .thenReturn(null);
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
 
         // Act
         assetDataProviderNoSql.delete(digitalUserDocument.getId(), asset.getExternalId());
 
         // Assert
-        verify(mongoTemplate).exists(queryCaptor.capture(), eq(DigitalUserDocument.class));
-        verify(mongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(DigitalUserDocument.class));
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(DigitalUserDocument.class));
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DigitalUserDocument.class));
+
+        // Verify the filter requires the asset to be present
+        Document queryObject = queryCaptor.getValue().getQueryObject();
+        assertEquals(digitalUserDocument.getId(), queryObject.get("id"));
+        assertEquals(asset.getExternalId(), queryObject.get("assets.externalId"));
 
         // Verify the update operation
         Update update = updateCaptor.getValue();
@@ -433,13 +598,69 @@ class AssetDataProviderNoSqlTest {
     @Test
     void shouldThrowResourceNotFoundExceptionWhenDeletingNonExistentAsset() {
         // Arrange
-        when(mongoTemplate.exists(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(false);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class,
                 () -> assetDataProviderNoSql.delete(digitalUserDocument.getId(), asset.getExternalId()));
 
-        verify(mongoTemplate).exists(any(Query.class), eq(DigitalUserDocument.class));
-        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), (Class<?>) any());
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(DigitalUserDocument.class));
+    }
+
+    @Test
+    void shouldDeleteAllAssetsSuccessfully() {
+        // Arrange
+        List<String> externalIds = List.of(asset.getExternalId(), "00000000-0000-0000-0000-000000000000");
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        assetDataProviderNoSql.deleteAll(digitalUserDocument.getId(), externalIds);
+
+        // Assert
+        verify(mongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(DigitalUserDocument.class));
+
+        Document pull = (Document) updateCaptor.getValue().getUpdateObject().get("$pull");
+        assertTrue(pull.toJson().contains("$in"));
+        externalIds.forEach(externalId -> assertTrue(pull.toJson().contains(externalId)));
+    }
+
+    @Test
+    void shouldSkipDeleteAllWhenNoExternalIdsGiven() {
+        // Act
+        assetDataProviderNoSql.deleteAll(digitalUserDocument.getId(), Collections.emptyList());
+
+        // Assert
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenDeletingAllForNonExistentUser() {
+        // Arrange
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> assetDataProviderNoSql.deleteAll(digitalUserDocument.getId(), List.of(asset.getExternalId())));
+    }
+
+    private Asset toAsset(AssetCreate assetCreate) {
+        return Asset.builder()
+                .id(UUID.randomUUID().toString())
+                .externalId(assetCreate.getExternalId())
+                .type(assetCreate.getType())
+                .build();
+    }
+
+    private Document listAndCaptureAssetMatch(ListAssetsByCriteriaUseCase.Input input) {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Asset.class)))
+                .thenReturn(new AggregationResults<>(List.of(asset), new Document()));
+
+        assetDataProviderNoSql.listByCriteria(input);
+
+        verify(mongoTemplate).aggregate(aggregationCaptor.capture(), eq(Asset.class));
+        return (Document) aggregationCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(3).get("$match");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,263 @@
+package dataprovider;
+
+import com.tracktainment.duxmanager.dataprovider.DigitalUserDataProvider;
+import com.tracktainment.duxmanager.dataprovider.impl.CachingDigitalUserDataProvider;
+import com.tracktainment.duxmanager.domain.BaseObject;
+import com.tracktainment.duxmanager.domain.DigitalUser;
+import com.tracktainment.duxmanager.dto.DigitalUserCreate;
+import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import testutil.TestDigitalUserDataUtil;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDigitalUserDataProviderTest {
+
+    private static final Set<DigitalUser.Expansion> PERSONAL_DATA =
+            EnumSet.of(DigitalUser.Expansion.PERSONAL_INFORMATION, DigitalUser.Expansion.CONTACT_MEDIUM_LIST);
+
+    @Mock
+    private DigitalUserDataProvider delegate;
+
+    private DigitalUser digitalUser;
+    private String subject;
+    private DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider;
+    private String tenantId;
+
+    @BeforeEach
+    void setUp() {
+        digitalUser = TestDigitalUserDataUtil.createTestDigitalUser();
+        subject = digitalUser.getIdentityProviderInformation().getSubject();
+        identityProvider = digitalUser.getIdentityProviderInformation().getIdentityProvider();
+        tenantId = digitalUser.getIdentityProviderInformation().getTenantId();
+    }
+
+    @Test
+    void shouldServeRepeatedLoginLookupsFromCache() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        when(delegate.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of())).thenReturn(digitalUser);
+
+        // Act
+        DigitalUser first = caching.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of());
+        DigitalUser second = caching.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of());
+
+        // Assert
+        assertEquals(digitalUser.getId(), first.getId());
+        assertEquals(digitalUser.getIdentityProviderInformation(), second.getIdentityProviderInformation());
+        assertNotSame(first, second);
+        verify(delegate, times(1)).findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of());
+        assertEquals(1, caching.stats().hitCount());
+        assertEquals(1, caching.stats().missCount());
+    }
+
+    @Test
+    void shouldShareEntriesBetweenIdAndLoginLookups() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        when(delegate.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of())).thenReturn(digitalUser);
+
+        // Act
+        caching.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of());
+        DigitalUser result = caching.findById(digitalUser.getId(), Set.of());
+
+        // Assert
+        assertEquals(digitalUser.getId(), result.getId());
+        verify(delegate, never()).findById(any(), any());
+        assertEquals(1, caching.stats().hitCount());
+    }
+
+    @Test
+    void shouldNotCachePersonalDataUnlessEnabled() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        when(delegate.findById(digitalUser.getId(), PERSONAL_DATA)).thenReturn(digitalUser);
+
+        // Act
+        caching.findById(digitalUser.getId(), PERSONAL_DATA);
+        caching.findById(digitalUser.getId(), PERSONAL_DATA);
+
+        // Assert
+        verify(delegate, times(2)).findById(digitalUser.getId(), PERSONAL_DATA);
+        assertEquals(0, caching.size());
+    }
+
+    @Test
+    void shouldTrimCachedPersonalDataToRequestedExpansions() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(true);
+        when(delegate.findById(digitalUser.getId(), PERSONAL_DATA)).thenReturn(digitalUser);
+
+        // Act
+        DigitalUser identityOnly = caching.findById(digitalUser.getId(), Set.of());
+        DigitalUser withPersonalInformation =
+                caching.findById(digitalUser.getId(), Set.of(DigitalUser.Expansion.PERSONAL_INFORMATION));
+
+        // Assert
+        assertNull(identityOnly.getPersonalInformation());
+        assertNull(identityOnly.getContactMediumList());
+        assertEquals(digitalUser.getPersonalInformation(), withPersonalInformation.getPersonalInformation());
+        assertNull(withPersonalInformation.getContactMediumList());
+        verify(delegate, times(1)).findById(digitalUser.getId(), PERSONAL_DATA);
+    }
+
+    @Test
+    void shouldBypassCacheWhenAssetsAreRequested() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(true);
+        Set<DigitalUser.Expansion> expansions = Set.of(DigitalUser.Expansion.ASSETS);
+        when(delegate.findById(digitalUser.getId(), expansions)).thenReturn(digitalUser);
+
+        // Act
+        DigitalUser result = caching.findById(digitalUser.getId(), expansions);
+
+        // Assert
+        assertSame(digitalUser, result);
+        assertEquals(0, caching.size());
+    }
+
+    @Test
+    void shouldInvalidateOnDelete() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        when(delegate.findById(digitalUser.getId(), Set.of())).thenReturn(digitalUser);
+        caching.findById(digitalUser.getId(), Set.of());
+
+        // Act
+        caching.delete(digitalUser.getId());
+        caching.findById(digitalUser.getId(), Set.of());
+
+        // Assert
+        verify(delegate).delete(digitalUser.getId());
+        verify(delegate, times(2)).findById(digitalUser.getId(), Set.of());
+    }
+
+    @Test
+    void shouldNotCacheLoadThatOverlapsDelete() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        when(delegate.findById(digitalUser.getId(), Set.of()))
+                .thenAnswer(invocation -> {
+                    // Another request deletes the user after this read was taken
+                    caching.delete(digitalUser.getId());
+                    return digitalUser;
+                })
+                .thenReturn(digitalUser);
+
+        // Act
+        caching.findById(digitalUser.getId(), Set.of());
+        caching.findById(digitalUser.getId(), Set.of());
+
+        // Assert
+        verify(delegate, times(2)).findById(digitalUser.getId(), Set.of());
+    }
+
+    @Test
+    void shouldNotShareCachedPersonalDataWithCallers() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(true);
+        String firstName = digitalUser.getPersonalInformation().getFirstName();
+        int contactMediumCount = digitalUser.getContactMediumList().size();
+        when(delegate.findById(digitalUser.getId(), PERSONAL_DATA)).thenReturn(digitalUser);
+
+        // Act
+        DigitalUser first = caching.findById(digitalUser.getId(), PERSONAL_DATA);
+        first.getPersonalInformation().setFirstName("Mutated");
+        first.getIdentityProviderInformation().setSubject("mutated");
+        first.getContactMediumList().clear();
+        DigitalUser second = caching.findById(digitalUser.getId(), PERSONAL_DATA);
+
+        // Assert
+        assertEquals(firstName, second.getPersonalInformation().getFirstName());
+        assertEquals(subject, second.getIdentityProviderInformation().getSubject());
+        assertEquals(contactMediumCount, second.getContactMediumList().size());
+        assertNotSame(digitalUser.getContactMediumList().get(0), second.getContactMediumList().get(0));
+        assertEquals(digitalUser.getContactMediumList(), second.getContactMediumList());
+        verify(delegate, times(1)).findById(digitalUser.getId(), PERSONAL_DATA);
+    }
+
+    @Test
+    void shouldFollowRecreatedIdentityToNewUser() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        DigitalUser recreated = TestDigitalUserDataUtil.createTestDigitalUser();
+        recreated.setId("323e4567-e89b-12d3-a456-426614174009");
+        DigitalUserCreate digitalUserCreate = TestDigitalUserDataUtil.createTestDigitalUserCreate();
+
+        when(delegate.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of()))
+                .thenReturn(digitalUser, recreated);
+        when(delegate.create(digitalUserCreate)).thenReturn(recreated);
+        caching.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of());
+
+        // Act
+        caching.delete(digitalUser.getId());
+        caching.create(digitalUserCreate);
+        DigitalUser result = caching.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of());
+
+        // Assert
+        assertEquals(recreated.getId(), result.getId());
+    }
+
+    @Test
+    void shouldResolveIdFromCachedLoginLookup() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        when(delegate.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of())).thenReturn(digitalUser);
+        caching.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of());
+
+        // Act
+        BaseObject result = caching.resolveIdBySubAndIdPAndTenant(subject, identityProvider, tenantId);
+
+        // Assert
+        assertEquals(digitalUser.getId(), result.getId());
+        assertEquals(digitalUser.getCreatedAt(), result.getCreatedAt());
+        verify(delegate, never()).resolveIdBySubAndIdPAndTenant(any(), any(), any());
+        assertEquals(1, caching.stats().hitCount());
+    }
+
+    @Test
+    void shouldResolveIdThroughDelegateOnMiss() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        BaseObject resolved = BaseObject.builder().id(digitalUser.getId()).build();
+        when(delegate.resolveIdBySubAndIdPAndTenant(subject, identityProvider, tenantId)).thenReturn(resolved);
+
+        // Act
+        BaseObject result = caching.resolveIdBySubAndIdPAndTenant(subject, identityProvider, tenantId);
+
+        // Assert
+        assertSame(resolved, result);
+        assertEquals(0, caching.size());
+        assertEquals(1, caching.stats().missCount());
+    }
+
+    @Test
+    void shouldNotCacheMisses() {
+        // Arrange
+        CachingDigitalUserDataProvider caching = caching(false);
+        when(delegate.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of()))
+                .thenThrow(new ResourceNotFoundException(DigitalUser.class, subject));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> caching.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of()));
+        assertThrows(ResourceNotFoundException.class,
+                () -> caching.findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of()));
+        verify(delegate, times(2)).findBySubAndIdPAndTenant(subject, identityProvider, tenantId, Set.of());
+    }
+
+    private CachingDigitalUserDataProvider caching(boolean includePersonalData) {
+        return new CachingDigitalUserDataProvider(delegate, 100, Duration.ofMinutes(5), includePersonalData);
+    }
+}
@@ -0,0 +1,179 @@
+package dataprovider;
+
+import com.tracktainment.duxmanager.dataprovider.AssetDataProvider;
+import com.tracktainment.duxmanager.dataprovider.impl.CoalescingAssetDataProvider;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
+import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import testutil.TestAssetDataUtil;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingAssetDataProviderTest {
+
+    private static final String DIGITAL_USER_ID = "a23e4567-e89b-12d3-a456-426614174009";
+
+    @Mock
+    private AssetDataProvider delegate;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void shouldMergeConcurrentCreatesIntoOneWrite() throws Exception {
+        // Arrange
+        CoalescingAssetDataProvider coalescing = new CoalescingAssetDataProvider(delegate, 500, 100);
+        List<AssetCreate> assetCreates = List.of(assetCreate(), assetCreate(), assetCreate());
+        when(delegate.createAll(eq(DIGITAL_USER_ID), anyList())).thenAnswer(invocation -> toAssets(invocation.getArgument(1)));
+
+        // Act
+        List<Future<Asset>> results = createConcurrently(coalescing, assetCreates);
+
+        // Assert
+        for (int i = 0; i < assetCreates.size(); i++) {
+            assertEquals(assetCreates.get(i).getExternalId(), results.get(i).get(5, TimeUnit.SECONDS).getExternalId());
+        }
+
+        ArgumentCaptor<List<AssetCreate>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(delegate).createAll(eq(DIGITAL_USER_ID), batchCaptor.capture());
+        assertEquals(3, batchCaptor.getValue().size());
+        assertTrue(batchCaptor.getValue().containsAll(assetCreates));
+        verify(delegate, never()).create(any(), any());
+    }
+
+    @Test
+    void shouldFlushFullBatchWithoutWaitingForWindow() {
+        // Arrange
+        CoalescingAssetDataProvider coalescing = new CoalescingAssetDataProvider(delegate, 60_000, 2);
+        List<AssetCreate> assetCreates = List.of(assetCreate(), assetCreate());
+        when(delegate.createAll(eq(DIGITAL_USER_ID), anyList())).thenAnswer(invocation -> toAssets(invocation.getArgument(1)));
+
+        // Act & Assert
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (Future<Asset> result : createConcurrently(coalescing, assetCreates)) {
+                assertNotNull(result.get());
+            }
+        });
+        verify(delegate).createAll(eq(DIGITAL_USER_ID), anyList());
+    }
+
+    @Test
+    void shouldFailRepeatedAndTakenExternalIdsIndividually() throws Exception {
+        // Arrange
+        CoalescingAssetDataProvider coalescing = new CoalescingAssetDataProvider(delegate, 500, 100);
+        AssetCreate repeated = assetCreate();
+        AssetCreate taken = assetCreate();
+        List<AssetCreate> assetCreates = List.of(repeated, repeated, taken);
+
+        // The store only accepts the first of the repeated ones, the other externalId is already taken
+        when(delegate.createAll(eq(DIGITAL_USER_ID), anyList())).thenAnswer(invocation -> toAssets(
+                invocation.<List<AssetCreate>>getArgument(1).stream().filter(item -> item != taken).toList()));
+
+        // Act
+        List<Future<Asset>> results = createConcurrently(coalescing, assetCreates);
+
+        // Assert
+        int created = 0;
+        int alreadyExisting = 0;
+        for (Future<Asset> result : results) {
+            try {
+                assertEquals(repeated.getExternalId(), result.get(5, TimeUnit.SECONDS).getExternalId());
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(ResourceAlreadyExistsException.class, e.getCause());
+                alreadyExisting++;
+            }
+        }
+        assertEquals(1, created);
+        assertEquals(2, alreadyExisting);
+
+        ArgumentCaptor<List<AssetCreate>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(delegate).createAll(eq(DIGITAL_USER_ID), batchCaptor.capture());
+        assertEquals(2, batchCaptor.getValue().size());
+    }
+
+    @Test
+    void shouldPropagateDelegateFailureToCaller() {
+        // Arrange
+        CoalescingAssetDataProvider coalescing = new CoalescingAssetDataProvider(delegate, 0, 100);
+        when(delegate.createAll(eq(DIGITAL_USER_ID), anyList()))
+                .thenThrow(new ResourceNotFoundException(DigitalUserDocument.class, DIGITAL_USER_ID));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> coalescing.create(DIGITAL_USER_ID, assetCreate()));
+    }
+
+    @Test
+    void shouldDelegateEverythingButCreate() {
+        // Arrange
+        CoalescingAssetDataProvider coalescing = new CoalescingAssetDataProvider(delegate, 5, 100);
+        Asset asset = TestAssetDataUtil.createTestAsset1();
+        when(delegate.findByExternalId(DIGITAL_USER_ID, asset.getExternalId())).thenReturn(asset);
+
+        // Act
+        Asset result = coalescing.findByExternalId(DIGITAL_USER_ID, asset.getExternalId());
+        coalescing.delete(DIGITAL_USER_ID, asset.getExternalId());
+
+        // Assert
+        assertEquals(asset, result);
+        verify(delegate).delete(DIGITAL_USER_ID, asset.getExternalId());
+    }
+
+    private List<Future<Asset>> createConcurrently(AssetDataProvider assetDataProvider, List<AssetCreate> assetCreates) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Asset>> results = new ArrayList<>();
+        for (AssetCreate assetCreate : assetCreates) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return assetDataProvider.create(DIGITAL_USER_ID, assetCreate);
+            }));
+        }
+
+        start.countDown();
+        return results;
+    }
+
+    private AssetCreate assetCreate() {
+        AssetCreate assetCreate = TestAssetDataUtil.createTestAssetCreate1();
+        assetCreate.setExternalId(UUID.randomUUID().toString());
+        return assetCreate;
+    }
+
+    private List<Asset> toAssets(List<AssetCreate> assetCreates) {
+        return assetCreates.stream().map(this::toAsset).toList();
+    }
+
+    private Asset toAsset(AssetCreate assetCreate) {
+        return Asset.builder()
+                .id(UUID.randomUUID().toString())
+                .externalId(assetCreate.getExternalId())
+                .build();
+    }
+}
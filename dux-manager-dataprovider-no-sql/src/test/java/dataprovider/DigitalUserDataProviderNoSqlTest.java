@@ -1,13 +1,21 @@
 package dataprovider;
 
 import com.mongodb.client.result.DeleteResult;
+import com.tracktainment.duxmanager.annotation.BlindIndex;
+import com.tracktainment.duxmanager.config.AssetStorageConfig;
 import com.tracktainment.duxmanager.dataprovider.impl.DigitalUserDataProviderNoSql;
+import com.tracktainment.duxmanager.document.AssetDocument;
 import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.domain.BaseObject;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import com.tracktainment.duxmanager.dto.DigitalUserCreate;
+import com.tracktainment.duxmanager.encryption.EncryptionService;
 import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
 import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
+import com.tracktainment.duxmanager.mapper.AssetMapperDataProvider;
 import com.tracktainment.duxmanager.mapper.DigitalUserMapperDataProvider;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,11 +24,23 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import testutil.TestAssetDataUtil;
 import testutil.TestDigitalUserDataUtil;
 import testutil.TestDigitalUserDocumentDataUtil;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,9 +52,15 @@ class DigitalUserDataProviderNoSqlTest {
     @Mock
     private DigitalUserMapperDataProvider mapper;
 
+    @Mock
+    private AssetMapperDataProvider assetMapper;
+
     @Mock
     private MongoTemplate mongoTemplate;
 
+    @Mock
+    private EncryptionService encryptionService;
+
     @InjectMocks
     private DigitalUserDataProviderNoSql digitalUserDataProviderNoSql;
 
@@ -58,9 +84,8 @@ class DigitalUserDataProviderNoSqlTest {
     @Test
     void shouldCreateDigitalUserSuccessfully() {
         // Arrange
-        when(mongoTemplate.exists(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(false);
         when(mapper.toDigitalUserDocument(digitalUserCreate)).thenReturn(digitalUserDocument);
-        when(mongoTemplate.save(digitalUserDocument)).thenReturn(digitalUserDocument);
+        when(mongoTemplate.insert(digitalUserDocument)).thenReturn(digitalUserDocument);
         when(mapper.toDigitalUser(digitalUserDocument)).thenReturn(digitalUser);
 
         // Act
@@ -70,24 +95,23 @@ class DigitalUserDataProviderNoSqlTest {
         assertNotNull(result);
         assertEquals(digitalUser.getId(), result.getId());
 
-        verify(mongoTemplate).exists(queryCaptor.capture(), eq(DigitalUserDocument.class));
         verify(mapper).toDigitalUserDocument(digitalUserCreate);
-        verify(mongoTemplate).save(digitalUserDocument);
+        verify(mongoTemplate).insert(digitalUserDocument);
         verify(mapper).toDigitalUser(digitalUserDocument);
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(DigitalUserDocument.class));
     }
 
     @Test
     void shouldThrowResourceAlreadyExistsExceptionWhenUserExists() {
         // Arrange
-        when(mongoTemplate.exists(any(Query.class), eq(DigitalUserDocument.class)))
-                .thenReturn(true);
+        when(mapper.toDigitalUserDocument(digitalUserCreate)).thenReturn(digitalUserDocument);
+        when(mongoTemplate.insert(digitalUserDocument)).thenThrow(new DuplicateKeyException("E11000"));
 
         // Act & Assert
         assertThrows(ResourceAlreadyExistsException.class, () -> digitalUserDataProviderNoSql.create(digitalUserCreate));
 
-        verify(mongoTemplate).exists(any(Query.class), eq(DigitalUserDocument.class));
-        verify(mapper, never()).toDigitalUserDocument(any());
-        verify(mongoTemplate, never()).save(any());
+        verify(mongoTemplate).insert(digitalUserDocument);
+        verify(mapper, never()).toDigitalUser(any());
     }
 
     @Test
@@ -100,7 +124,7 @@ class DigitalUserDataProviderNoSqlTest {
                 .thenReturn(digitalUser);
 
         // Act
-        DigitalUser result = digitalUserDataProviderNoSql.findById(digitalUser.getId());
+        DigitalUser result = digitalUserDataProviderNoSql.findById(digitalUser.getId(), Set.of());
 
         // Assert
         assertNotNull(result);
@@ -108,6 +132,72 @@ class DigitalUserDataProviderNoSqlTest {
 
         verify(mongoTemplate).findOne(queryCaptor.capture(), eq(DigitalUserDocument.class));
         verify(mapper).toDigitalUser(digitalUserDocument);
+        assertEquals(0, queryCaptor.getValue().getFieldsObject().get("personalInformation"));
+        assertEquals(0, queryCaptor.getValue().getFieldsObject().get("contactMediumList"));
+        assertEquals(0, queryCaptor.getValue().getFieldsObject().get("assets"));
+        assertNull(digitalUserDocument.getAssets());
+    }
+
+    @Test
+    void shouldOnlyReadExpandedPartsById() {
+        // Arrange
+        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class)))
+                .thenReturn(digitalUserDocument);
+
+        when(mapper.toDigitalUser(digitalUserDocument))
+                .thenReturn(digitalUser);
+
+        // Act
+        digitalUserDataProviderNoSql.findById(
+                digitalUser.getId(),
+                Set.of(DigitalUser.Expansion.PERSONAL_INFORMATION, DigitalUser.Expansion.ASSETS)
+        );
+
+        // Assert
+        verify(mongoTemplate).findOne(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(
+                new Document("contactMediumList", 0),
+                queryCaptor.getValue().getFieldsObject()
+        );
+        assertNotNull(digitalUserDocument.getAssets());
+    }
+
+    @Test
+    void shouldReadExpandedAssetsFromCollectionInCollectionMode() {
+        // Arrange
+        ReflectionTestUtils.setField(
+                digitalUserDataProviderNoSql,
+                "assetStorageMode",
+                AssetStorageConfig.StorageMode.COLLECTION
+        );
+        AssetDocument assetDocument = new AssetDocument();
+        Asset asset = TestAssetDataUtil.createTestAsset1();
+
+        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class)))
+                .thenReturn(digitalUserDocument);
+        when(mapper.toDigitalUser(digitalUserDocument))
+                .thenReturn(digitalUser);
+        when(mongoTemplate.find(any(Query.class), eq(AssetDocument.class)))
+                .thenReturn(List.of(assetDocument));
+        when(assetMapper.toAsset(assetDocument))
+                .thenReturn(asset);
+
+        // Act
+        DigitalUser result = digitalUserDataProviderNoSql.findById(
+                digitalUser.getId(),
+                Set.of(DigitalUser.Expansion.ASSETS)
+        );
+
+        // Assert
+        assertEquals(List.of(asset), result.getAssets());
+
+        verify(mongoTemplate).findOne(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(0, queryCaptor.getValue().getFieldsObject().get("assets"));
+        assertNull(digitalUserDocument.getAssets());
+
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(AssetDocument.class));
+        assertEquals(new Document("digitalUserId", digitalUser.getId()), queryCaptor.getValue().getQueryObject());
+        assertEquals(new Document("createdAt", 1).append("id", 1), queryCaptor.getValue().getSortObject());
     }
 
     @Test
@@ -117,7 +207,7 @@ class DigitalUserDataProviderNoSqlTest {
                 .thenReturn(null);
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> digitalUserDataProviderNoSql.findById(digitalUser.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> digitalUserDataProviderNoSql.findById(digitalUser.getId(), Set.of()));
 
         verify(mongoTemplate).findOne(any(Query.class), eq(DigitalUserDocument.class));
         verify(mapper, never()).toDigitalUser(any());
@@ -136,7 +226,8 @@ class DigitalUserDataProviderNoSqlTest {
         DigitalUser result = digitalUserDataProviderNoSql.findBySubAndIdPAndTenant(
                 digitalUser.getIdentityProviderInformation().getSubject(),
                 digitalUser.getIdentityProviderInformation().getIdentityProvider(),
-                digitalUser.getIdentityProviderInformation().getTenantId()
+                digitalUser.getIdentityProviderInformation().getTenantId(),
+                Set.of(DigitalUser.Expansion.CONTACT_MEDIUM_LIST, DigitalUser.Expansion.ASSETS)
         );
 
         // Assert
@@ -157,6 +248,38 @@ class DigitalUserDataProviderNoSqlTest {
 
         verify(mongoTemplate).findOne(queryCaptor.capture(), eq(DigitalUserDocument.class));
         verify(mapper).toDigitalUser(digitalUserDocument);
+
+        // Login lookups never read the assets, even when asked to
+        assertEquals(0, queryCaptor.getValue().getFieldsObject().get("personalInformation"));
+        assertNull(queryCaptor.getValue().getFieldsObject().get("contactMediumList"));
+        assertEquals(0, queryCaptor.getValue().getFieldsObject().get("assets"));
+    }
+
+    @Test
+    void shouldLookUpBySubAndIdPAndTenantOnTheUniqueIdentityIndex() {
+        // Arrange
+        when(mongoTemplate.findOne(any(Query.class), eq(DigitalUserDocument.class)))
+                .thenReturn(digitalUserDocument);
+
+        CompoundIndex identityIndex = Arrays.stream(DigitalUserDocument.class.getAnnotationsByType(CompoundIndex.class))
+                .filter(CompoundIndex::unique)
+                .findFirst()
+                .orElseThrow();
+
+        // Act
+        digitalUserDataProviderNoSql.findBySubAndIdPAndTenant(
+                digitalUser.getIdentityProviderInformation().getSubject(),
+                digitalUser.getIdentityProviderInformation().getIdentityProvider(),
+                digitalUser.getIdentityProviderInformation().getTenantId(),
+                Set.of()
+        );
+
+        // Assert
+        verify(mongoTemplate).findOne(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(
+                Document.parse(identityIndex.def()).keySet(),
+                queryCaptor.getValue().getQueryObject().keySet()
+        );
     }
 
     @Test
@@ -170,16 +293,76 @@ class DigitalUserDataProviderNoSqlTest {
                 () -> digitalUserDataProviderNoSql.findBySubAndIdPAndTenant(
                         digitalUser.getIdentityProviderInformation().getSubject(),
                         digitalUser.getIdentityProviderInformation().getIdentityProvider(),
-                        digitalUser.getIdentityProviderInformation().getTenantId()
+                        digitalUser.getIdentityProviderInformation().getTenantId(),
+                        Set.of()
                 ));
 
         verify(mongoTemplate).findOne(any(Query.class), eq(DigitalUserDocument.class));
         verify(mapper, never()).toDigitalUser(any());
     }
 
+    @Test
+    void shouldResolveIdFromTheCoveringIdentityIndexOnly() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 15, 10, 30, 45);
+        LocalDateTime updatedAt = createdAt.plusDays(2);
+        Document stored = new Document("_id", digitalUser.getId())
+                .append("created_at", Date.from(createdAt.atZone(ZoneId.systemDefault()).toInstant()))
+                .append("updated_at", Date.from(updatedAt.atZone(ZoneId.systemDefault()).toInstant()));
+
+        when(mongoTemplate.getCollectionName(DigitalUserDocument.class)).thenReturn("digital-users");
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("digital-users"))).thenReturn(stored);
+
+        CompoundIndex coveringIndex = Arrays.stream(DigitalUserDocument.class.getAnnotationsByType(CompoundIndex.class))
+                .filter(index -> index.name().equals(DigitalUserDocument.IDENTITY_COVERING_INDEX))
+                .findFirst()
+                .orElseThrow();
+
+        // Act
+        BaseObject result = digitalUserDataProviderNoSql.resolveIdBySubAndIdPAndTenant(
+                digitalUser.getIdentityProviderInformation().getSubject(),
+                digitalUser.getIdentityProviderInformation().getIdentityProvider(),
+                digitalUser.getIdentityProviderInformation().getTenantId()
+        );
+
+        // Assert
+        assertEquals(digitalUser.getId(), result.getId());
+        assertEquals(createdAt, result.getCreatedAt());
+        assertEquals(updatedAt, result.getUpdatedAt());
+
+        verify(mongoTemplate).findOne(queryCaptor.capture(), eq(Document.class), eq("digital-users"));
+        Query query = queryCaptor.getValue();
+        Set<String> indexKeys = Document.parse(coveringIndex.def()).keySet();
+        assertTrue(indexKeys.containsAll(query.getQueryObject().keySet()));
+        assertEquals(indexKeys, Stream.concat(
+                query.getQueryObject().keySet().stream(),
+                query.getFieldsObject().keySet().stream()
+        ).collect(Collectors.toSet()));
+        assertEquals(DigitalUserDocument.IDENTITY_COVERING_INDEX, query.getHint());
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundExceptionWhenIdentityCannotBeResolved() {
+        // Arrange
+        when(mongoTemplate.getCollectionName(DigitalUserDocument.class)).thenReturn("digital-users");
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("digital-users"))).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> digitalUserDataProviderNoSql.resolveIdBySubAndIdPAndTenant(
+                        digitalUser.getIdentityProviderInformation().getSubject(),
+                        digitalUser.getIdentityProviderInformation().getIdentityProvider(),
+                        digitalUser.getIdentityProviderInformation().getTenantId()
+                ));
+    }
+
     @Test
     void shouldDeleteDigitalUserSuccessfully() {
         // Arrange
+        ReflectionTestUtils.setField(
+                digitalUserDataProviderNoSql, "assetStorageMode", AssetStorageConfig.StorageMode.COLLECTION
+        );
         DeleteResult deleteResult = mock(DeleteResult.class);
         when(deleteResult.getDeletedCount())
                 .thenReturn(1L);
@@ -192,6 +375,26 @@ class DigitalUserDataProviderNoSqlTest {
 
         // Assert
         verify(mongoTemplate).remove(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        verify(mongoTemplate).remove(queryCaptor.capture(), eq(AssetDocument.class));
+        assertEquals(digitalUser.getId(), queryCaptor.getValue().getQueryObject().get("digitalUserId"));
+    }
+
+    @Test
+    void shouldNotTouchAssetsCollectionWhenDeletingWithEmbeddedAssets() {
+        // Arrange
+        DeleteResult deleteResult = mock(DeleteResult.class);
+        when(deleteResult.getDeletedCount())
+                .thenReturn(1L);
+
+        when(mongoTemplate.remove(any(Query.class), eq(DigitalUserDocument.class)))
+                .thenReturn(deleteResult);
+
+        // Act
+        digitalUserDataProviderNoSql.delete(digitalUser.getId());
+
+        // Assert
+        verify(mongoTemplate).remove(any(Query.class), eq(DigitalUserDocument.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(AssetDocument.class));
     }
 
     @Test
@@ -208,6 +411,7 @@ class DigitalUserDataProviderNoSqlTest {
         assertThrows(ResourceNotFoundException.class, () -> digitalUserDataProviderNoSql.delete(digitalUser.getId()));
 
         verify(mongoTemplate).remove(any(Query.class), eq(DigitalUserDocument.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(AssetDocument.class));
     }
 
     @Test
@@ -253,4 +457,47 @@ class DigitalUserDataProviderNoSqlTest {
 
         verify(mongoTemplate).findOne(any(Query.class), eq(DigitalUserDocument.class));
     }
+
+    @Test
+    void shouldFindDigitalUsersByNormalizedEmailAddressIndex() {
+        // Arrange
+        when(encryptionService.blindIndex("john.doe@example.com")).thenReturn("email-index");
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of(digitalUserDocument));
+        when(mapper.toDigitalUser(digitalUserDocument)).thenReturn(digitalUser);
+
+        // Act
+        List<DigitalUser> result = digitalUserDataProviderNoSql.findByEmailAddress(" John.Doe@Example.com ");
+
+        // Assert
+        assertEquals(List.of(digitalUser), result);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(
+                "email-index",
+                queryCaptor.getValue().getQueryObject().get("contactMediumList.characteristic.emailAddressIndex")
+        );
+
+        // Identity only, the personal data of a match is never read
+        assertEquals(
+                new Document("personalInformation", 0).append("contactMediumList", 0).append("assets", 0),
+                queryCaptor.getValue().getFieldsObject()
+        );
+    }
+
+    @Test
+    void shouldFindDigitalUsersByNormalizedPhoneNumberIndex() {
+        // Arrange
+        when(encryptionService.blindIndex("1" + BlindIndex.SOURCE_SEPARATOR + "5551234567")).thenReturn("phone-index");
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of());
+
+        // Act
+        List<DigitalUser> result = digitalUserDataProviderNoSql.findByPhoneNumber("+1", "(555) 123-4567");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(
+                "phone-index",
+                queryCaptor.getValue().getQueryObject().get("contactMediumList.characteristic.phoneNumberIndex")
+        );
+    }
 }
@@ -0,0 +1,132 @@
+package dataprovider;
+
+import com.tracktainment.duxmanager.dataprovider.impl.AssetCollectionDataProviderNoSql;
+import com.tracktainment.duxmanager.dataprovider.impl.AssetDataProviderNoSql;
+import com.tracktainment.duxmanager.dataprovider.impl.DualWriteAssetDataProvider;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.exception.ResourceAlreadyExistsException;
+import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import testutil.TestAssetDataUtil;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DualWriteAssetDataProviderTest {
+
+    private static final String DIGITAL_USER_ID = "a23e4567-e89b-12d3-a456-426614174009";
+
+    @Mock
+    private AssetDataProviderNoSql embedded;
+
+    @Mock
+    private AssetCollectionDataProviderNoSql collection;
+
+    private DualWriteAssetDataProvider dualWriteAssetDataProvider;
+    private AssetCreate assetCreate;
+    private Asset asset;
+
+    @BeforeEach
+    void setUp() {
+        dualWriteAssetDataProvider = new DualWriteAssetDataProvider(embedded, collection);
+        assetCreate = TestAssetDataUtil.createTestAssetCreate1();
+        asset = TestAssetDataUtil.createTestAsset1();
+    }
+
+    @Test
+    void shouldMirrorCreatedAssetToCollection() {
+        // Arrange
+        when(embedded.create(DIGITAL_USER_ID, assetCreate)).thenReturn(asset);
+
+        // Act
+        Asset result = dualWriteAssetDataProvider.create(DIGITAL_USER_ID, assetCreate);
+
+        // Assert
+        assertEquals(asset, result);
+        verify(collection).upsertAll(DIGITAL_USER_ID, List.of(asset));
+    }
+
+    @Test
+    void shouldNotMirrorWhenEmbeddedCreateFails() {
+        // Arrange
+        when(embedded.create(DIGITAL_USER_ID, assetCreate))
+                .thenThrow(new ResourceAlreadyExistsException(Asset.class, assetCreate.getExternalId()));
+
+        // Act & Assert
+        assertThrows(ResourceAlreadyExistsException.class,
+                () -> dualWriteAssetDataProvider.create(DIGITAL_USER_ID, assetCreate));
+
+        verifyNoInteractions(collection);
+    }
+
+    @Test
+    void shouldKeepEmbeddedWriteWhenMirrorFails() {
+        // Arrange
+        when(embedded.create(DIGITAL_USER_ID, assetCreate)).thenReturn(asset);
+        doThrow(new IllegalStateException("mirror failed")).when(collection).upsertAll(anyString(), anyList());
+
+        // Act
+        Asset result = dualWriteAssetDataProvider.create(DIGITAL_USER_ID, assetCreate);
+
+        // Assert
+        assertEquals(asset, result);
+    }
+
+    @Test
+    void shouldMirrorBulkCreatedAssetsToCollection() {
+        // Arrange
+        List<AssetCreate> assetCreates = List.of(assetCreate, TestAssetDataUtil.createTestAssetCreate2());
+        when(embedded.createAll(DIGITAL_USER_ID, assetCreates)).thenReturn(List.of(asset));
+
+        // Act
+        List<Asset> results = dualWriteAssetDataProvider.createAll(DIGITAL_USER_ID, assetCreates);
+
+        // Assert
+        assertEquals(List.of(asset), results);
+        verify(collection).upsertAll(DIGITAL_USER_ID, List.of(asset));
+    }
+
+    @Test
+    void shouldReadFromEmbeddedArray() {
+        // Arrange
+        ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
+                .offset(0)
+                .limit(10)
+                .digitalUserId(DIGITAL_USER_ID)
+                .build();
+
+        when(embedded.listByCriteria(input)).thenReturn(List.of(asset));
+        when(embedded.findByExternalId(DIGITAL_USER_ID, asset.getExternalId())).thenReturn(asset);
+        when(embedded.streamAll(DIGITAL_USER_ID)).thenReturn(() -> Stream.of(asset));
+
+        // Act & Assert
+        assertEquals(List.of(asset), dualWriteAssetDataProvider.listByCriteria(input));
+        assertEquals(asset, dualWriteAssetDataProvider.findByExternalId(DIGITAL_USER_ID, asset.getExternalId()));
+        assertEquals(List.of(asset), dualWriteAssetDataProvider.streamAll(DIGITAL_USER_ID).get().toList());
+
+        verifyNoInteractions(collection);
+    }
+
+    @Test
+    void shouldMirrorDeletesToCollection() {
+        // Act
+        dualWriteAssetDataProvider.delete(DIGITAL_USER_ID, asset.getExternalId());
+        dualWriteAssetDataProvider.deleteAll(DIGITAL_USER_ID, List.of("a", "b"));
+
+        // Assert
+        verify(embedded).delete(DIGITAL_USER_ID, asset.getExternalId());
+        verify(collection).removeAll(DIGITAL_USER_ID, List.of(asset.getExternalId()));
+        verify(embedded).deleteAll(DIGITAL_USER_ID, List.of("a", "b"));
+        verify(collection).removeAll(DIGITAL_USER_ID, List.of("a", "b"));
+    }
+}
@@ -1,7 +1,6 @@
 package document;
 
 import com.tracktainment.duxmanager.document.BaseDocument;
-import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
@@ -13,19 +12,16 @@ class BaseDocumentTest {
     @Test
     void shouldCreateBaseDocumentUsingBuilder() {
         // Arrange
-        ObjectId dbId = new ObjectId();
         LocalDateTime createdAt = LocalDateTime.now();
         LocalDateTime updatedAt = LocalDateTime.now().plusDays(1);
 
         // Act
         BaseDocument baseDocument = BaseDocument.builder()
-                .dbId(dbId)
                 .createdAt(createdAt)
                 .updatedAt(updatedAt)
                 .build();
 
         // Assert
-        assertEquals(dbId, baseDocument.getDbId());
         assertEquals(createdAt, baseDocument.getCreatedAt());
         assertEquals(updatedAt, baseDocument.getUpdatedAt());
     }
@@ -36,7 +32,6 @@ class BaseDocumentTest {
         BaseDocument baseDocument = new BaseDocument();
 
         // Assert
-        assertNull(baseDocument.getDbId());
         assertNull(baseDocument.getCreatedAt());
         assertNull(baseDocument.getUpdatedAt());
     }
@@ -45,16 +40,13 @@ class BaseDocumentTest {
     void shouldUseSettersAndGetters() {
         // Arrange
         BaseDocument baseDocument = new BaseDocument();
-        ObjectId dbId = new ObjectId();
         LocalDateTime now = LocalDateTime.now();
 
         // Act
-        baseDocument.setDbId(dbId);
         baseDocument.setCreatedAt(now);
         baseDocument.setUpdatedAt(now);
 
         // Assert
-        assertEquals(dbId, baseDocument.getDbId());
         assertEquals(now, baseDocument.getCreatedAt());
         assertEquals(now, baseDocument.getUpdatedAt());
     }
@@ -67,30 +59,21 @@ class BaseDocumentTest {
         BaseDocument existingDocument = new BaseDocument();
         existingDocument.setUpdatedAt(LocalDateTime.now());
 
-        // Act & Assert - Using reflection to access private method
-        try {
-            java.lang.reflect.Method isNewMethod = BaseDocument.class.getDeclaredMethod("isNew");
-            isNewMethod.setAccessible(true);
-
-            assertTrue((Boolean) isNewMethod.invoke(newDocument), "Document with null updatedAt should be considered new");
-            assertFalse((Boolean) isNewMethod.invoke(existingDocument), "Document with non-null updatedAt should not be considered new");
-        } catch (Exception e) {
-            fail("Failed to test isNew method: " + e.getMessage());
-        }
+        // Act & Assert
+        assertTrue(newDocument.isNew(), "Document with null updatedAt should be considered new");
+        assertFalse(existingDocument.isNew(), "Document with non-null updatedAt should not be considered new");
     }
 
     @Test
     void shouldCreateBaseDocumentWithAllArgsConstructor() {
         // Arrange
-        ObjectId dbId = new ObjectId();
         LocalDateTime createdAt = LocalDateTime.now();
         LocalDateTime updatedAt = LocalDateTime.now().plusDays(1);
 
         // Act
-        BaseDocument baseDocument = new BaseDocument(dbId, createdAt, updatedAt);
+        BaseDocument baseDocument = new BaseDocument(createdAt, updatedAt);
 
         // Assert
-        assertEquals(dbId, baseDocument.getDbId());
         assertEquals(createdAt, baseDocument.getCreatedAt());
         assertEquals(updatedAt, baseDocument.getUpdatedAt());
     }
@@ -98,17 +81,17 @@ class BaseDocumentTest {
     @Test
     void shouldImplementEqualsAndHashCode() {
         // Arrange
-        ObjectId dbId1 = new ObjectId();
-        ObjectId dbId2 = new ObjectId();
+        LocalDateTime createdAt1 = LocalDateTime.now();
+        LocalDateTime createdAt2 = createdAt1.plusDays(1);
 
-        BaseDocument doc1 = BaseDocument.builder().dbId(dbId1).build();
-        BaseDocument doc2 = BaseDocument.builder().dbId(dbId1).build(); // Same dbId
-        BaseDocument doc3 = BaseDocument.builder().dbId(dbId2).build(); // Different dbId
+        BaseDocument doc1 = BaseDocument.builder().createdAt(createdAt1).build();
+        BaseDocument doc2 = BaseDocument.builder().createdAt(createdAt1).build(); // Same createdAt
+        BaseDocument doc3 = BaseDocument.builder().createdAt(createdAt2).build(); // Different createdAt
 
         // Assert
         assertEquals(doc1, doc1); // Same object reference
-        assertEquals(doc1, doc2); // Equal by dbId
-        assertNotEquals(doc1, doc3); // Different dbId
+        assertEquals(doc1, doc2); // Equal by createdAt
+        assertNotEquals(doc1, doc3); // Different createdAt
         assertEquals(doc1.hashCode(), doc2.hashCode()); // Same hash code for equal objects
         assertNotEquals(doc1.hashCode(), doc3.hashCode()); // Different hash code for different objects
         assertNotEquals(doc1, null); // Not equal to null
@@ -118,9 +101,9 @@ class BaseDocumentTest {
     @Test
     void shouldImplementToString() {
         // Arrange
-        ObjectId dbId = new ObjectId();
+        LocalDateTime createdAt = LocalDateTime.now();
         BaseDocument baseDocument = BaseDocument.builder()
-                .dbId(dbId)
+                .createdAt(createdAt)
                 .build();
 
         // Act
@@ -130,6 +113,6 @@ class BaseDocumentTest {
         assertNotNull(toString);
         assertFalse(toString.isEmpty());
         assertTrue(toString.contains("BaseDocument"));
-        assertTrue(toString.contains(dbId.toString()));
+        assertTrue(toString.contains(createdAt.toString()));
     }
 }
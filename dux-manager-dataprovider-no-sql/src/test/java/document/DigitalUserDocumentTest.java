@@ -5,7 +5,6 @@ import com.tracktainment.duxmanager.document.BaseDocument;
 import com.tracktainment.duxmanager.document.DigitalUserDocument;
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.domain.DigitalUser;
-import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 import testutil.TestAssetDataUtil;
 
@@ -25,7 +24,6 @@ class DigitalUserDocumentTest {
     void shouldCreateDigitalUserDocumentUsingBuilder() {
         // Arrange
         String id = UUID.randomUUID().toString();
-        ObjectId dbId = new ObjectId();
         LocalDateTime createdAt = LocalDateTime.now();
         LocalDateTime updatedAt = LocalDateTime.now().plusDays(1);
 
@@ -67,7 +65,6 @@ class DigitalUserDocumentTest {
         // Act
         DigitalUserDocument document = DigitalUserDocument.builder()
                 .id(id)
-                .dbId(dbId)
                 .createdAt(createdAt)
                 .updatedAt(updatedAt)
                 .identityProviderInformation(idpInfo)
@@ -78,7 +75,6 @@ class DigitalUserDocumentTest {
 
         // Assert
         assertEquals(id, document.getId());
-        assertEquals(dbId, document.getDbId());
         assertEquals(createdAt, document.getCreatedAt());
         assertEquals(updatedAt, document.getUpdatedAt());
         assertEquals(idpInfo, document.getIdentityProviderInformation());
@@ -94,7 +90,6 @@ class DigitalUserDocumentTest {
 
         // Assert
         assertNull(document.getId());
-        assertNull(document.getDbId());
         assertNull(document.getCreatedAt());
         assertNull(document.getUpdatedAt());
         assertNull(document.getIdentityProviderInformation());
@@ -107,7 +102,6 @@ class DigitalUserDocumentTest {
     void shouldCreateDigitalUserDocumentUsingAllArgsConstructor() {
         // Arrange
         String id = UUID.randomUUID().toString();
-        ObjectId dbId = new ObjectId();
         LocalDateTime createdAt = LocalDateTime.now();
         LocalDateTime updatedAt = LocalDateTime.now().plusDays(1);
 
@@ -133,14 +127,12 @@ class DigitalUserDocumentTest {
                 assets
         );
 
-        document.setDbId(dbId);
         document.setCreatedAt(createdAt);
         document.setUpdatedAt(updatedAt);
 
 
         // Assert
         assertEquals(id, document.getId());
-        assertEquals(dbId, document.getDbId());
         assertEquals(createdAt, document.getCreatedAt());
         assertEquals(updatedAt, document.getUpdatedAt());
         assertEquals(idpInfo, document.getIdentityProviderInformation());
@@ -154,7 +146,6 @@ class DigitalUserDocumentTest {
         // Arrange
         DigitalUserDocument document = new DigitalUserDocument();
         String id = UUID.randomUUID().toString();
-        ObjectId dbId = new ObjectId();
         LocalDateTime now = LocalDateTime.now();
 
         DigitalUserDocument.IdentityProviderInformation idpInfo = DigitalUserDocument.IdentityProviderInformation.builder()
@@ -170,7 +161,6 @@ class DigitalUserDocumentTest {
 
         // Act
         document.setId(id);
-        document.setDbId(dbId);
         document.setCreatedAt(now);
         document.setUpdatedAt(now);
         document.setIdentityProviderInformation(idpInfo);
@@ -180,7 +170,6 @@ class DigitalUserDocumentTest {
 
         // Assert
         assertEquals(id, document.getId());
-        assertEquals(dbId, document.getDbId());
         assertEquals(now, document.getCreatedAt());
         assertEquals(now, document.getUpdatedAt());
         assertEquals(idpInfo, document.getIdentityProviderInformation());
@@ -296,15 +285,14 @@ class DigitalUserDocumentTest {
     }
 
     @Test
-    void shouldHandleMongoIndexAnnotation() {
+    void shouldUseIdAsMongoPrimaryKey() {
         try {
-            // Check that the id field has the @Indexed annotation
+            // The UUID is stored as _id, so it is served by the primary index rather than a secondary one
             java.lang.reflect.Field idField = DigitalUserDocument.class.getDeclaredField("id");
-            org.springframework.data.mongodb.core.index.Indexed indexedAnnotation =
-                    idField.getAnnotation(org.springframework.data.mongodb.core.index.Indexed.class);
 
-            assertNotNull(indexedAnnotation, "id field should have @Indexed annotation");
-            assertTrue(indexedAnnotation.unique(), "id field should be uniquely indexed");
+            assertNotNull(idField.getAnnotation(org.springframework.data.annotation.Id.class), "id field should have @Id annotation");
+            assertNull(idField.getAnnotation(org.springframework.data.mongodb.core.index.Indexed.class),
+                    "id field should not carry a secondary index");
 
         } catch (NoSuchFieldException e) {
             fail("Could not find 'id' field in DigitalUserDocument class: " + e.getMessage());
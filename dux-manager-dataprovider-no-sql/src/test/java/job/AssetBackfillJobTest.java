@@ -0,0 +1,268 @@
+package job;
+
+import com.mongodb.client.result.UpdateResult;
+import com.tracktainment.duxmanager.config.AssetStorageConfig;
+import com.tracktainment.duxmanager.dataprovider.impl.AssetCollectionDataProviderNoSql;
+import com.tracktainment.duxmanager.document.AssetBackfillCheckpointDocument;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.domain.Asset;
+import com.tracktainment.duxmanager.job.AssetBackfillJob;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import testutil.TestAssetDataUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetBackfillJobTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AssetCollectionDataProviderNoSql assetCollectionDataProvider;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private AssetBackfillJob assetBackfillJob;
+
+    @BeforeEach
+    void setUp() {
+        assetBackfillJob = new AssetBackfillJob(mongoTemplate, assetCollectionDataProvider);
+    }
+
+    @Test
+    void shouldStartNewCheckpoint() {
+        // Arrange
+        when(mongoTemplate.findById("digital-users:assets", AssetBackfillCheckpointDocument.class)).thenReturn(null);
+
+        // Act
+        AssetBackfillCheckpointDocument checkpoint = assetBackfillJob.loadCheckpoint();
+
+        // Assert
+        assertEquals("digital-users:assets", checkpoint.getId());
+        assertNull(checkpoint.getLastProcessedId());
+        assertFalse(checkpoint.isCompleted());
+    }
+
+    @Test
+    void shouldCopyEmbeddedAssetsInSlicesAndAdvanceCheckpoint() {
+        // Arrange
+        ReflectionTestUtils.setField(assetBackfillJob, "assetsPerWrite", 1);
+        String lastProcessedId = "923e4567-e89b-12d3-a456-426614174009";
+        AssetBackfillCheckpointDocument checkpoint = AssetBackfillCheckpointDocument.builder()
+                .id("digital-users:assets")
+                .lastProcessedId(lastProcessedId)
+                .build();
+
+        Asset asset1 = TestAssetDataUtil.createTestAsset1();
+        Asset asset2 = TestAssetDataUtil.createTestAsset2();
+        DigitalUserDocument digitalUserDocument = new DigitalUserDocument();
+        digitalUserDocument.setId("a23e4567-e89b-12d3-a456-426614174009");
+        digitalUserDocument.setAssets(List.of(asset1, asset2));
+
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of(digitalUserDocument));
+
+        // Act
+        int processed = assetBackfillJob.backfillBatch(checkpoint);
+
+        // Assert
+        assertEquals(1, processed);
+        verify(assetCollectionDataProvider).upsertAll(digitalUserDocument.getId(), List.of(asset1));
+        verify(assetCollectionDataProvider).upsertAll(digitalUserDocument.getId(), List.of(asset2));
+        verify(assetCollectionDataProvider).retainAll(
+                digitalUserDocument.getId(),
+                List.of(asset1.getExternalId(), asset2.getExternalId())
+        );
+
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(new Document("_id", new Document("$gt", lastProcessedId)), query.getQueryObject());
+        assertEquals(new Document("id", 1).append("assets", 1), query.getFieldsObject());
+
+        assertEquals(digitalUserDocument.getId(), checkpoint.getLastProcessedId());
+        assertEquals(1, checkpoint.getProcessedCount());
+        assertEquals(2, checkpoint.getCopiedCount());
+        assertFalse(checkpoint.isCompleted());
+        verify(mongoTemplate).save(checkpoint);
+    }
+
+    @Test
+    void shouldContinueWhenOneUserFails() {
+        // Arrange
+        AssetBackfillCheckpointDocument checkpoint = AssetBackfillCheckpointDocument.builder().build();
+
+        DigitalUserDocument failing = new DigitalUserDocument();
+        failing.setId("failing");
+        failing.setAssets(List.of(TestAssetDataUtil.createTestAsset1()));
+
+        DigitalUserDocument empty = new DigitalUserDocument();
+        empty.setId("empty");
+
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of(failing, empty));
+        doThrow(new IllegalStateException("write failed"))
+                .when(assetCollectionDataProvider).upsertAll(eq("failing"), anyList());
+
+        // Act
+        int processed = assetBackfillJob.backfillBatch(checkpoint);
+
+        // Assert
+        assertEquals(2, processed);
+        assertEquals("empty", checkpoint.getLastProcessedId());
+        assertEquals(List.of("failing"), checkpoint.getFailedIds());
+        assertEquals(0, checkpoint.getCopiedCount());
+        verify(assetCollectionDataProvider).retainAll("empty", List.of());
+    }
+
+    @Test
+    void shouldNotCompleteWhileFailedUserStillFails() {
+        // Arrange
+        AssetBackfillCheckpointDocument checkpoint = AssetBackfillCheckpointDocument.builder()
+                .lastProcessedId("failing")
+                .failedIds(new ArrayList<>(List.of("failing")))
+                .build();
+
+        DigitalUserDocument failing = new DigitalUserDocument();
+        failing.setId("failing");
+        failing.setAssets(List.of(TestAssetDataUtil.createTestAsset1()));
+
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of(), List.of(failing));
+        doThrow(new IllegalStateException("write failed"))
+                .when(assetCollectionDataProvider).upsertAll(eq("failing"), anyList());
+
+        // Act
+        int processed = assetBackfillJob.backfillBatch(checkpoint);
+
+        // Assert
+        assertEquals(0, processed);
+        assertEquals(List.of("failing"), checkpoint.getFailedIds());
+        assertFalse(checkpoint.isCompleted());
+        verify(mongoTemplate).save(checkpoint);
+
+        verify(mongoTemplate, times(2)).find(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(
+                new Document("_id", new Document("$in", List.of("failing"))),
+                queryCaptor.getAllValues().get(1).getQueryObject()
+        );
+    }
+
+    @Test
+    void shouldCompleteWhenNoUsersRemain() {
+        // Arrange
+        AssetBackfillCheckpointDocument checkpoint = AssetBackfillCheckpointDocument.builder().build();
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of());
+
+        // Act
+        int processed = assetBackfillJob.backfillBatch(checkpoint);
+
+        // Assert
+        assertEquals(0, processed);
+        assertTrue(checkpoint.isCompleted());
+        verify(mongoTemplate).save(checkpoint);
+        verifyNoInteractions(assetCollectionDataProvider);
+    }
+
+    @Test
+    void shouldDropEmbeddedArraysAndAdvanceCheckpoint() {
+        // Arrange
+        String lastProcessedId = "923e4567-e89b-12d3-a456-426614174009";
+        AssetBackfillCheckpointDocument checkpoint = AssetBackfillCheckpointDocument.builder()
+                .id("digital-users:assets:drop")
+                .lastProcessedId(lastProcessedId)
+                .build();
+
+        DigitalUserDocument first = new DigitalUserDocument();
+        first.setId("a23e4567-e89b-12d3-a456-426614174009");
+        DigitalUserDocument second = new DigitalUserDocument();
+        second.setId("b23e4567-e89b-12d3-a456-426614174009");
+
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of(first, second));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(DigitalUserDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        // Act
+        int processed = assetBackfillJob.dropBatch(checkpoint);
+
+        // Assert
+        assertEquals(2, processed);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(
+                new Document("assets", new Document("$exists", true))
+                        .append("_id", new Document("$gt", lastProcessedId)),
+                queryCaptor.getValue().getQueryObject()
+        );
+        assertEquals(new Document("id", 1), queryCaptor.getValue().getFieldsObject());
+
+        verify(mongoTemplate).updateMulti(queryCaptor.capture(), updateCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(
+                new Document("_id", new Document("$in", List.of(first.getId(), second.getId()))),
+                queryCaptor.getValue().getQueryObject()
+        );
+        assertEquals(new Document("$unset", new Document("assets", 1)), updateCaptor.getValue().getUpdateObject());
+
+        assertEquals(second.getId(), checkpoint.getLastProcessedId());
+        assertEquals(2, checkpoint.getProcessedCount());
+        assertFalse(checkpoint.isCompleted());
+        verifyNoInteractions(assetCollectionDataProvider);
+    }
+
+    @Test
+    void shouldKeepEmbeddedArraysInCollectionModeUntilCopyPassCompleted() {
+        // Arrange
+        ReflectionTestUtils.setField(assetBackfillJob, "storageMode", AssetStorageConfig.StorageMode.COLLECTION);
+        when(mongoTemplate.findById("digital-users:assets", AssetBackfillCheckpointDocument.class))
+                .thenReturn(AssetBackfillCheckpointDocument.builder()
+                        .id("digital-users:assets")
+                        .failedIds(new ArrayList<>(List.of("failing")))
+                        .build());
+
+        // Act
+        assetBackfillJob.backfill();
+
+        // Assert
+        verify(mongoTemplate, never()).find(any(Query.class), eq(DigitalUserDocument.class));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(DigitalUserDocument.class));
+        verifyNoInteractions(assetCollectionDataProvider);
+    }
+
+    @Test
+    void shouldOnlyDropEmbeddedArraysInCollectionMode() {
+        // Arrange
+        ReflectionTestUtils.setField(assetBackfillJob, "storageMode", AssetStorageConfig.StorageMode.COLLECTION);
+        when(mongoTemplate.findById("digital-users:assets", AssetBackfillCheckpointDocument.class))
+                .thenReturn(AssetBackfillCheckpointDocument.builder().id("digital-users:assets").completed(true).build());
+        when(mongoTemplate.findById("digital-users:assets:drop", AssetBackfillCheckpointDocument.class))
+                .thenReturn(null);
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of());
+
+        // Act
+        assetBackfillJob.backfill();
+
+        // Assert
+        ArgumentCaptor<AssetBackfillCheckpointDocument> checkpointCaptor =
+                ArgumentCaptor.forClass(AssetBackfillCheckpointDocument.class);
+        verify(mongoTemplate).save(checkpointCaptor.capture());
+        assertEquals("digital-users:assets:drop", checkpointCaptor.getValue().getId());
+        assertTrue(checkpointCaptor.getValue().isCompleted());
+        verifyNoInteractions(assetCollectionDataProvider);
+    }
+}
@@ -0,0 +1,235 @@
+package job;
+
+import com.tracktainment.duxmanager.annotation.BlindIndex;
+import com.tracktainment.duxmanager.document.BlindIndexBackfillCheckpointDocument;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.encryption.EncryptionService;
+import com.tracktainment.duxmanager.job.BlindIndexBackfillJob;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlindIndexBackfillJobTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EncryptionService encryptionService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Captor
+    private ArgumentCaptor<List<Pair<Query, UpdateDefinition>>> updatesCaptor;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    private BlindIndexBackfillJob blindIndexBackfillJob;
+
+    @BeforeEach
+    void setUp() {
+        blindIndexBackfillJob = new BlindIndexBackfillJob(mongoTemplate, encryptionService);
+    }
+
+    @Test
+    void shouldStartNewCheckpoint() {
+        // Arrange
+        when(mongoTemplate.findById("digital-users:blind-indexes:v1", BlindIndexBackfillCheckpointDocument.class))
+                .thenReturn(null);
+
+        // Act
+        BlindIndexBackfillCheckpointDocument checkpoint = blindIndexBackfillJob.loadCheckpoint();
+
+        // Assert
+        assertEquals("digital-users:blind-indexes:v1", checkpoint.getId());
+        assertNull(checkpoint.getLastProcessedId());
+        assertFalse(checkpoint.isCompleted());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteOnlyChangedIndexesWithCompareAndSet() {
+        // Arrange
+        String lastProcessedId = "023e4567-e89b-12d3-a456-426614174000";
+        String id = "123e4567-e89b-12d3-a456-426614174000";
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 6, 10, 12, 0);
+        BlindIndexBackfillCheckpointDocument checkpoint = BlindIndexBackfillCheckpointDocument.builder()
+                .id("digital-users:blind-indexes:v1")
+                .lastProcessedId(lastProcessedId)
+                .build();
+
+        DigitalUserDocument.ContactMedium phone = DigitalUserDocument.ContactMedium.builder()
+                .characteristic(DigitalUserDocument.ContactMedium.Characteristic.builder()
+                        .countryCode("+1")
+                        .phoneNumber("555-123-4567")
+                        .phoneNumberIndex("stale-phone-index")
+                        .build())
+                .build();
+        DigitalUserDocument.ContactMedium email = DigitalUserDocument.ContactMedium.builder()
+                .characteristic(DigitalUserDocument.ContactMedium.Characteristic.builder()
+                        .emailAddress("John.Doe@Example.com")
+                        .emailAddressIndex("email-index")
+                        .build())
+                .build();
+        DigitalUserDocument.ContactMedium address = DigitalUserDocument.ContactMedium.builder()
+                .characteristic(DigitalUserDocument.ContactMedium.Characteristic.builder()
+                        .city("Lisbon")
+                        .emailAddressIndex("orphaned-index")
+                        .build())
+                .build();
+        DigitalUserDocument digitalUserDocument = new DigitalUserDocument();
+        digitalUserDocument.setId(id);
+        digitalUserDocument.setUpdatedAt(updatedAt);
+        digitalUserDocument.setContactMediumList(List.of(phone, email, address));
+
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of(digitalUserDocument));
+        when(encryptionService.blindIndex("1" + BlindIndex.SOURCE_SEPARATOR + "5551234567")).thenReturn("phone-index");
+        when(encryptionService.blindIndex("john.doe@example.com")).thenReturn("email-index");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "digital-users")).thenReturn(bulkOperations);
+        when(bulkOperations.updateOne(anyList())).thenReturn(bulkOperations);
+
+        // Act
+        int processed = blindIndexBackfillJob.backfillBatch(checkpoint);
+
+        // Assert
+        assertEquals(1, processed);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(new Document("_id", new Document("$gt", lastProcessedId)), query.getQueryObject());
+        assertEquals(
+                new Document("id", 1).append("contactMediumList", 1).append("updatedAt", 1),
+                query.getFieldsObject()
+        );
+
+        verify(bulkOperations).updateOne(updatesCaptor.capture());
+        verify(bulkOperations).execute();
+        Pair<Query, UpdateDefinition> update = updatesCaptor.getValue().get(0);
+        Document filter = update.getFirst().getQueryObject();
+        assertEquals(id, filter.get("_id"));
+        assertEquals(updatedAt, filter.get("updated_at"));
+
+        Document updateObject = update.getSecond().getUpdateObject();
+        assertEquals(
+                new Document("contactMediumList.0.characteristic.phoneNumberIndex", "phone-index"),
+                updateObject.get("$set")
+        );
+        assertEquals(
+                new Document("contactMediumList.2.characteristic.emailAddressIndex", 1),
+                updateObject.get("$unset")
+        );
+
+        assertEquals(id, checkpoint.getLastProcessedId());
+        assertEquals(1, checkpoint.getProcessedCount());
+        assertEquals(1, checkpoint.getRewrittenCount());
+        verify(mongoTemplate).save(checkpoint);
+    }
+
+    @Test
+    void shouldContinueWhenOneDocumentFailsAndSkipWritesWhenIndexesAreCurrent() {
+        // Arrange
+        BlindIndexBackfillCheckpointDocument checkpoint = BlindIndexBackfillCheckpointDocument.builder().build();
+
+        DigitalUserDocument failing = new DigitalUserDocument();
+        failing.setId("failing");
+        failing.setContactMediumList(List.of(DigitalUserDocument.ContactMedium.builder()
+                .characteristic(DigitalUserDocument.ContactMedium.Characteristic.builder()
+                        .emailAddress("broken@example.com")
+                        .build())
+                .build()));
+
+        DigitalUserDocument current = new DigitalUserDocument();
+        current.setId("current");
+        current.setContactMediumList(List.of(DigitalUserDocument.ContactMedium.builder()
+                .characteristic(DigitalUserDocument.ContactMedium.Characteristic.builder()
+                        .emailAddress("john.doe@example.com")
+                        .emailAddressIndex("email-index")
+                        .build())
+                .build()));
+
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of(failing, current));
+        when(encryptionService.blindIndex("broken@example.com")).thenThrow(new IllegalStateException("index failed"));
+        when(encryptionService.blindIndex("john.doe@example.com")).thenReturn("email-index");
+
+        // Act
+        int processed = blindIndexBackfillJob.backfillBatch(checkpoint);
+
+        // Assert
+        assertEquals(2, processed);
+        assertEquals("current", checkpoint.getLastProcessedId());
+        assertEquals(List.of("failing"), checkpoint.getFailedIds());
+        assertEquals(0, checkpoint.getRewrittenCount());
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), anyString());
+    }
+
+    @Test
+    void shouldNotCompleteWhileFailedDocumentStillFails() {
+        // Arrange
+        BlindIndexBackfillCheckpointDocument checkpoint = BlindIndexBackfillCheckpointDocument.builder()
+                .lastProcessedId("failing")
+                .failedIds(new ArrayList<>(List.of("failing", "deleted")))
+                .build();
+
+        DigitalUserDocument failing = new DigitalUserDocument();
+        failing.setId("failing");
+        failing.setContactMediumList(List.of(DigitalUserDocument.ContactMedium.builder()
+                .characteristic(DigitalUserDocument.ContactMedium.Characteristic.builder()
+                        .emailAddress("broken@example.com")
+                        .build())
+                .build()));
+
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of(), List.of(failing));
+        when(encryptionService.blindIndex("broken@example.com")).thenThrow(new IllegalStateException("index failed"));
+
+        // Act
+        int processed = blindIndexBackfillJob.backfillBatch(checkpoint);
+
+        // Assert
+        assertEquals(0, processed);
+        assertEquals(List.of("failing"), checkpoint.getFailedIds());
+        assertFalse(checkpoint.isCompleted());
+        verify(mongoTemplate).save(checkpoint);
+
+        verify(mongoTemplate, times(2)).find(queryCaptor.capture(), eq(DigitalUserDocument.class));
+        assertEquals(
+                new Document("$in", List.of("failing", "deleted")),
+                queryCaptor.getAllValues().get(1).getQueryObject().get("_id")
+        );
+    }
+
+    @Test
+    void shouldCompleteWhenNoDocumentsRemain() {
+        // Arrange
+        BlindIndexBackfillCheckpointDocument checkpoint = BlindIndexBackfillCheckpointDocument.builder().build();
+        when(mongoTemplate.find(any(Query.class), eq(DigitalUserDocument.class))).thenReturn(List.of());
+
+        // Act
+        int processed = blindIndexBackfillJob.backfillBatch(checkpoint);
+
+        // Assert
+        assertEquals(0, processed);
+        assertTrue(checkpoint.isCompleted());
+        verify(mongoTemplate).save(checkpoint);
+        verifyNoInteractions(encryptionService);
+    }
+}
@@ -0,0 +1,36 @@
+package job;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tracktainment.duxmanager.dataprovider.impl.CachingDigitalUserDataProvider;
+import com.tracktainment.duxmanager.job.DigitalUserCacheStatsJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DigitalUserCacheStatsJobTest {
+
+    @Mock
+    private CachingDigitalUserDataProvider cachingDigitalUserDataProvider;
+
+    @InjectMocks
+    private DigitalUserCacheStatsJob digitalUserCacheStatsJob;
+
+    @Test
+    void shouldReadCacheStats() {
+        // Arrange
+        when(cachingDigitalUserDataProvider.stats()).thenReturn(CacheStats.of(3, 1, 1, 0, 10, 2, 2));
+        when(cachingDigitalUserDataProvider.size()).thenReturn(5L);
+
+        // Act
+        digitalUserCacheStatsJob.logStats();
+
+        // Assert
+        verify(cachingDigitalUserDataProvider).stats();
+        verify(cachingDigitalUserDataProvider).size();
+    }
+}
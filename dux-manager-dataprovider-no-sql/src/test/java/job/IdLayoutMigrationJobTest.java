@@ -0,0 +1,150 @@
+package job;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.tracktainment.duxmanager.document.AssetBackfillCheckpointDocument;
+import com.tracktainment.duxmanager.document.BlindIndexBackfillCheckpointDocument;
+import com.tracktainment.duxmanager.document.AssetDocument;
+import com.tracktainment.duxmanager.document.DigitalUserDocument;
+import com.tracktainment.duxmanager.document.KeyRotationCheckpointDocument;
+import com.tracktainment.duxmanager.job.IdLayoutMigrationJob;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdLayoutMigrationJobTest {
+
+    private static final String DIGITAL_USERS = "digital-users";
+    private static final String ASSETS = "assets";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private MongoCollection<Document> stagingCollection;
+
+    @Mock
+    private MongoDatabase mongoDatabase;
+
+    @Test
+    void shouldDoNothingWhenEveryIdIsAlreadyAUuid() {
+        // Arrange
+        IdLayoutMigrationJob idLayoutMigrationJob = new IdLayoutMigrationJob(mongoTemplate, false);
+        stubCollectionNames();
+        when(mongoTemplate.exists(any(Query.class), anyString())).thenReturn(false);
+
+        // Act
+        idLayoutMigrationJob.migrate();
+
+        // Assert
+        verify(mongoTemplate).exists(any(Query.class), eq(DIGITAL_USERS));
+        verify(mongoTemplate).exists(any(Query.class), eq(ASSETS));
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), any());
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), any(Class.class));
+    }
+
+    @Test
+    void shouldKeepStartingWithoutMigratingLegacyIdsUnlessEnabled() {
+        // Arrange
+        IdLayoutMigrationJob idLayoutMigrationJob = new IdLayoutMigrationJob(mongoTemplate, false);
+        stubCollectionNames();
+        when(mongoTemplate.exists(any(Query.class), eq(DIGITAL_USERS))).thenReturn(true);
+        when(mongoTemplate.exists(any(Query.class), eq(ASSETS))).thenReturn(true);
+
+        // Act
+        assertDoesNotThrow(idLayoutMigrationJob::migrate);
+
+        // Assert
+        verify(mongoTemplate, never()).dropCollection(anyString());
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), any());
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), any(Class.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRewriteLegacyIdsIntoIndexedStagingCollectionAndSwapIt() {
+        // Arrange
+        IdLayoutMigrationJob idLayoutMigrationJob = new IdLayoutMigrationJob(mongoTemplate, true);
+        String staging = DIGITAL_USERS + IdLayoutMigrationJob.STAGING_SUFFIX;
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+
+        stubCollectionNames();
+        when(mongoTemplate.exists(any(Query.class), eq(DIGITAL_USERS))).thenReturn(true);
+        when(mongoTemplate.exists(any(Query.class), eq(ASSETS))).thenReturn(false);
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(staging)).thenReturn(indexOperations);
+        when(mongoTemplate.getCollection(staging)).thenReturn(stagingCollection);
+        when(mongoTemplate.getDb()).thenReturn(mongoDatabase);
+        when(mongoDatabase.getName()).thenReturn("dux-manager");
+
+        // Act
+        idLayoutMigrationJob.migrate();
+
+        // Assert
+        ArgumentCaptor<Query> legacyQueryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).exists(legacyQueryCaptor.capture(), eq(DIGITAL_USERS));
+        assertEquals(
+                new Document("_id", new Document("$type", List.of("objectId"))),
+                legacyQueryCaptor.getValue().getQueryObject()
+        );
+
+        verify(mongoTemplate).dropCollection(staging);
+        ArgumentCaptor<IndexDefinition> indexCaptor = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOperations, atLeastOnce()).ensureIndex(indexCaptor.capture());
+        assertTrue(indexCaptor.getAllValues().stream().anyMatch(index -> Boolean.TRUE.equals(index.getIndexOptions().get("unique"))));
+
+        ArgumentCaptor<Aggregation> aggregationCaptor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregationCaptor.capture(), eq(DIGITAL_USERS), eq(Document.class));
+        List<Document> pipeline = aggregationCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(
+                new Document("$addFields", new Document("_id", new Document("$ifNull", List.of("$id", "$_id")))),
+                pipeline.get(0)
+        );
+        assertEquals(new Document("$unset", "id"), pipeline.get(1));
+        assertEquals(new Document("$out", staging), pipeline.get(2));
+
+        ArgumentCaptor<RenameCollectionOptions> renameOptionsCaptor = ArgumentCaptor.forClass(RenameCollectionOptions.class);
+        verify(stagingCollection).renameCollection(
+                eq(new MongoNamespace("dux-manager", DIGITAL_USERS)),
+                renameOptionsCaptor.capture()
+        );
+        assertTrue(renameOptionsCaptor.getValue().isDropTarget());
+
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(KeyRotationCheckpointDocument.class));
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(AssetBackfillCheckpointDocument.class));
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(BlindIndexBackfillCheckpointDocument.class));
+        verify(mongoTemplate, never()).getCollection(ASSETS + IdLayoutMigrationJob.STAGING_SUFFIX);
+    }
+
+    private void stubCollectionNames() {
+        when(mongoTemplate.getCollectionName(DigitalUserDocument.class)).thenReturn(DIGITAL_USERS);
+        when(mongoTemplate.getCollectionName(AssetDocument.class)).thenReturn(ASSETS);
+    }
+}
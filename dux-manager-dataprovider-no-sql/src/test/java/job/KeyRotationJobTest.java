@@ -0,0 +1,250 @@
+package job;
+
+import com.tracktainment.duxmanager.config.MongoEncryptionConfig;
+import com.tracktainment.duxmanager.document.KeyRotationCheckpointDocument;
+import com.tracktainment.duxmanager.encryption.EncryptionService;
+import com.tracktainment.duxmanager.job.KeyRotationJob;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KeyRotationJobTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EncryptionService encryptionService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Captor
+    private ArgumentCaptor<List<Pair<Query, UpdateDefinition>>> updatesCaptor;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    private KeyRotationJob keyRotationJob;
+
+    @BeforeEach
+    void setUp() {
+        keyRotationJob = new KeyRotationJob(mongoTemplate, encryptionService);
+    }
+
+    @Test
+    void shouldStartNewCheckpointForActiveKeyVersion() {
+        // Arrange
+        when(encryptionService.getActiveKeyVersion()).thenReturn(2);
+        when(mongoTemplate.findById("digital-users:v2", KeyRotationCheckpointDocument.class)).thenReturn(null);
+
+        // Act
+        KeyRotationCheckpointDocument checkpoint = keyRotationJob.loadCheckpoint();
+
+        // Assert
+        assertEquals("digital-users:v2", checkpoint.getId());
+        assertEquals(2, checkpoint.getKeyVersion());
+        assertNull(checkpoint.getLastProcessedId());
+        assertFalse(checkpoint.isCompleted());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReEncryptOnlyStaleFieldsWithCompareAndSet() {
+        // Arrange
+        String id = "123e4567-e89b-12d3-a456-426614174000";
+        Document stored = new Document("_id", id)
+                .append("personalInformation", new Document("firstName", "legacy").append("lastName", "$current"))
+                .append("contactMediumList", List.of(
+                        new Document("characteristic", new Document("emailAddress", "$old-email"))
+                ));
+        KeyRotationCheckpointDocument checkpoint = KeyRotationCheckpointDocument.builder()
+                .id("digital-users:v2")
+                .keyVersion(2)
+                .build();
+
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("digital-users"))).thenReturn(List.of(stored));
+        when(encryptionService.isActiveKeyVersion(anyString())).thenAnswer(invocation ->
+                invocation.getArgument(0).equals("$current"));
+        when(encryptionService.decrypt("legacy")).thenReturn("John");
+        when(encryptionService.decrypt("$old-email")).thenReturn("john.doe@example.com");
+        when(encryptionService.encryptToEnvelopeText("John")).thenReturn("$new-first-name");
+        when(encryptionService.encryptToEnvelopeText("john.doe@example.com")).thenReturn("$new-email");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "digital-users")).thenReturn(bulkOperations);
+        when(bulkOperations.updateOne(anyList())).thenReturn(bulkOperations);
+
+        // Act
+        int processed = keyRotationJob.rotateBatch(checkpoint);
+
+        // Assert
+        assertEquals(1, processed);
+        verify(bulkOperations).updateOne(updatesCaptor.capture());
+        verify(bulkOperations).execute();
+
+        Pair<Query, UpdateDefinition> update = updatesCaptor.getValue().get(0);
+        Document filter = update.getFirst().getQueryObject();
+        assertEquals(id, filter.get("_id"));
+        assertEquals("legacy", filter.get("personalInformation.firstName"));
+        assertEquals("$old-email", filter.get("contactMediumList.0.characteristic.emailAddress"));
+
+        Document set = (Document) update.getSecond().getUpdateObject().get("$set");
+        assertEquals("$new-first-name", set.get("personalInformation.firstName"));
+        assertEquals("$new-email", set.get("contactMediumList.0.characteristic.emailAddress"));
+        assertFalse(set.containsKey("personalInformation.lastName"));
+
+        assertEquals(id, checkpoint.getLastProcessedId());
+        assertEquals(1, checkpoint.getProcessedCount());
+        assertEquals(1, checkpoint.getRewrittenCount());
+        verify(mongoTemplate).save(checkpoint);
+    }
+
+    @Test
+    void shouldResumeAfterCheckpointAndSkipWritesWhenNothingIsStale() {
+        // Arrange
+        String lastProcessedId = "023e4567-e89b-12d3-a456-426614174000";
+        String id = "123e4567-e89b-12d3-a456-426614174000";
+        KeyRotationCheckpointDocument checkpoint = KeyRotationCheckpointDocument.builder()
+                .id("digital-users:v2")
+                .keyVersion(2)
+                .lastProcessedId(lastProcessedId)
+                .build();
+        Document stored = new Document("_id", id)
+                .append("personalInformation", new Document("firstName", "$current"));
+
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("digital-users"))).thenReturn(List.of(stored));
+        when(encryptionService.isActiveKeyVersion("$current")).thenReturn(true);
+
+        // Act
+        keyRotationJob.rotateBatch(checkpoint);
+
+        // Assert
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(Document.class), eq("digital-users"));
+        assertEquals(
+                new Document("$gt", lastProcessedId),
+                queryCaptor.getValue().getQueryObject().get("_id")
+        );
+        assertEquals(0, queryCaptor.getValue().getFieldsObject().get("assets"));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), anyString());
+        assertEquals(id, checkpoint.getLastProcessedId());
+        assertEquals(0, checkpoint.getRewrittenCount());
+    }
+
+    @Test
+    void shouldWriteBinaryEnvelopesInBinaryMode() {
+        // Arrange
+        ReflectionTestUtils.setField(keyRotationJob, "storageFormat", MongoEncryptionConfig.StorageFormat.BINARY);
+        Binary oldValue = new Binary((byte) 0x80, new byte[]{1, 1, 9});
+        Document stored = new Document("_id", "123e4567-e89b-12d3-a456-426614174000")
+                .append("personalInformation", new Document("firstName", oldValue));
+        KeyRotationCheckpointDocument checkpoint = KeyRotationCheckpointDocument.builder().id("digital-users:v2").build();
+
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("digital-users"))).thenReturn(List.of(stored));
+        when(encryptionService.isActiveKeyVersion(any(byte[].class))).thenReturn(false);
+        when(encryptionService.decryptEnvelope(oldValue.getData())).thenReturn("John");
+        when(encryptionService.encryptToEnvelope("John")).thenReturn(new byte[]{1, 2, 9});
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "digital-users")).thenReturn(bulkOperations);
+        when(bulkOperations.updateOne(anyList())).thenReturn(bulkOperations);
+
+        // Act
+        keyRotationJob.rotateBatch(checkpoint);
+
+        // Assert
+        verify(bulkOperations).updateOne(updatesCaptor.capture());
+        Document set = (Document) updatesCaptor.getValue().get(0).getSecond().getUpdateObject().get("$set");
+        assertArrayEquals(new byte[]{1, 2, 9}, ((Binary) set.get("personalInformation.firstName")).getData());
+    }
+
+    @Test
+    void shouldCompleteCheckpointWhenNoDocumentsRemain() {
+        // Arrange
+        KeyRotationCheckpointDocument checkpoint = KeyRotationCheckpointDocument.builder().id("digital-users:v2").build();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("digital-users"))).thenReturn(List.of());
+
+        // Act
+        int processed = keyRotationJob.rotateBatch(checkpoint);
+
+        // Assert
+        assertEquals(0, processed);
+        assertTrue(checkpoint.isCompleted());
+        verify(mongoTemplate).save(checkpoint);
+    }
+
+    @Test
+    void shouldNotCompleteWhileFailedDocumentStillFails() {
+        // Arrange
+        String id = "123e4567-e89b-12d3-a456-426614174000";
+        Document stored = new Document("_id", id)
+                .append("personalInformation", new Document("firstName", "legacy"));
+        KeyRotationCheckpointDocument checkpoint = KeyRotationCheckpointDocument.builder().id("digital-users:v2").build();
+
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("digital-users")))
+                .thenReturn(List.of(stored), List.of(), List.of(stored));
+        when(encryptionService.decrypt("legacy")).thenThrow(new IllegalStateException("corrupt ciphertext"));
+
+        // Act
+        int firstBatch = keyRotationJob.rotateBatch(checkpoint);
+        int endOfPass = keyRotationJob.rotateBatch(checkpoint);
+
+        // Assert
+        assertEquals(1, firstBatch);
+        assertEquals(0, endOfPass);
+        assertEquals(id, checkpoint.getLastProcessedId());
+        assertEquals(List.of(id), checkpoint.getFailedIds());
+        assertFalse(checkpoint.isCompleted());
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), anyString());
+
+        verify(mongoTemplate, times(3)).find(queryCaptor.capture(), eq(Document.class), eq("digital-users"));
+        assertEquals(new Document("$in", List.of(id)), queryCaptor.getAllValues().get(2).getQueryObject().get("_id"));
+    }
+
+    @Test
+    void shouldCompleteOnceFailedDocumentsAreRewritten() {
+        // Arrange
+        String id = "123e4567-e89b-12d3-a456-426614174000";
+        Document stored = new Document("_id", id)
+                .append("personalInformation", new Document("firstName", "legacy"));
+        KeyRotationCheckpointDocument checkpoint = KeyRotationCheckpointDocument.builder()
+                .id("digital-users:v2")
+                .lastProcessedId(id)
+                .failedIds(new ArrayList<>(List.of(id)))
+                .build();
+
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("digital-users")))
+                .thenReturn(List.of(), List.of(stored));
+        when(encryptionService.decrypt("legacy")).thenReturn("John");
+        when(encryptionService.encryptToEnvelopeText("John")).thenReturn("$new-first-name");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "digital-users")).thenReturn(bulkOperations);
+        when(bulkOperations.updateOne(anyList())).thenReturn(bulkOperations);
+
+        // Act
+        int processed = keyRotationJob.rotateBatch(checkpoint);
+
+        // Assert
+        assertEquals(0, processed);
+        assertTrue(checkpoint.getFailedIds().isEmpty());
+        assertEquals(1, checkpoint.getRewrittenCount());
+        assertTrue(checkpoint.isCompleted());
+        verify(bulkOperations).execute();
+        verify(mongoTemplate).save(checkpoint);
+    }
+}
@@ -1,5 +1,6 @@
 package mapper;
 
+import com.tracktainment.duxmanager.document.AssetDocument;
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.dto.AssetCreate;
 import com.tracktainment.duxmanager.mapper.AssetMapperDataProvider;
@@ -57,7 +58,7 @@ class AssetMapperDataProviderTest {
     @Test
     void shouldHandleNullInput() {
         // Act & Assert
-        assertNull(mapper.toAsset(null));
+        assertNull(mapper.toAsset((AssetCreate) null));
     }
 
     @Test
@@ -118,4 +119,19 @@ class AssetMapperDataProviderTest {
         assertNotNull(result2.getId());
         assertNotEquals(result1.getId(), result2.getId(), "Generated IDs should be different");
     }
+
+    @Test
+    void shouldRoundTripAssetThroughAssetDocument() {
+        // Arrange
+        Asset asset = TestAssetDataUtil.createTestAsset1();
+
+        // Act
+        AssetDocument assetDocument = mapper.toAssetDocument(asset, "a23e4567-e89b-12d3-a456-426614174009");
+        Asset result = mapper.toAsset(assetDocument);
+
+        // Assert
+        assertEquals("a23e4567-e89b-12d3-a456-426614174009", assetDocument.getDigitalUserId());
+        assertEquals(asset.getCreatedAt(), assetDocument.getCreatedAt());
+        assertEquals(asset, result);
+    }
 }
@@ -73,7 +73,7 @@ class DigitalUserMapperDataProviderTest {
         assertNotNull(result.getId());
         assertTrue(UUID_PATTERN.matcher(result.getId()).matches(), "ID should be a valid UUID");
 
-        assertNull(result.getDbId());
+        assertTrue(result.isNew());
         assertNull(result.getCreatedAt());
         assertNull(result.getUpdatedAt());
         assertNull(result.getAssets());
@@ -176,7 +176,7 @@ class DigitalUserMapperDataProviderTest {
         assertNull(result.getAssets());
         assertNull(result.getCreatedAt());
         assertNull(result.getUpdatedAt());
-        assertNull(result.getDbId());
+        assertTrue(result.isNew());
     }
 
     @Test
@@ -2,9 +2,12 @@ package com.tracktainment.duxmanager.api;
 
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.dto.AssetCreateResult;
 import com.tracktainment.duxmanager.util.Constants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,6 +22,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -54,6 +58,32 @@ public interface AssetRestApi {
             @RequestBody @Valid AssetCreate assetCreate
     );
 
+    @PostMapping(
+            path = "/digitalUsers/{digitalUserId}/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+            summary = "Create assets in bulk",
+            description = "Creates up to " + Constants.MAX_BULK_CREATE_SIZE + " assets for a specific digital user " +
+                    "and reports the outcome of each item, in request order"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "207", description = "Outcome of every item",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = AssetCreateResult.class)))),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+            @ApiResponse(responseCode = "401", description = "Authentication failed"),
+            @ApiResponse(responseCode = "404", description = "Digital user not found")
+    })
+    ResponseEntity<List<AssetCreateResult>> createAll(
+            @Parameter(description = "Digital user ID", required = true)
+            @PathVariable
+            @Pattern(regexp = Constants.ID_REGEX, message = Constants.DIGITAL_USER_ID_INVALID_MSG) String digitalUserId,
+
+            @Parameter(description = "Assets to create, each one is validated on its own", required = true)
+            @RequestBody List<AssetCreate> assetCreates
+    );
+
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(
             summary = "List assets by criteria",
@@ -61,7 +91,9 @@ public interface AssetRestApi {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of assets",
-                    content = @Content(schema = @Schema(implementation = Asset.class))),
+                    content = @Content(schema = @Schema(implementation = Asset.class)),
+                    headers = @Header(name = Constants.NEXT_CURSOR_HEADER,
+                            description = "Cursor of the next page, absent on the last page")),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
             @ApiResponse(responseCode = "401", description = "Authentication failed"),
             @ApiResponse(responseCode = "404", description = "Digital user not found")
@@ -106,7 +138,30 @@ public interface AssetRestApi {
 
             @Parameter(description = "Filter by date range end")
             @RequestParam(required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+
+            @Parameter(description = "Continue after the page that returned this " + Constants.NEXT_CURSOR_HEADER + " value")
+            @RequestParam(required = false)
+            @Pattern(regexp = Constants.CURSOR_REGEX, message = Constants.CURSOR_INVALID_MSG) String cursor
+    );
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Export all assets",
+            description = "Streams every asset of a specific digital user as newline-delimited JSON, one asset per line"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of assets",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = Asset.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "401", description = "Authentication failed"),
+            @ApiResponse(responseCode = "404", description = "Digital user not found")
+    })
+    ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Digital user ID", required = true)
+            @RequestParam
+            @Pattern(regexp = Constants.ID_REGEX, message = Constants.DIGITAL_USER_ID_INVALID_MSG) String digitalUserId
     );
 
     @DeleteMapping
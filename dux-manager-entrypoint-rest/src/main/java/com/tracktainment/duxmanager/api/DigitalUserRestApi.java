@@ -1,5 +1,6 @@
 package com.tracktainment.duxmanager.api;
 
+import com.tracktainment.duxmanager.domain.BaseObject;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import com.tracktainment.duxmanager.dto.DigitalUserCreate;
 import com.tracktainment.duxmanager.util.Constants;
@@ -17,6 +18,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Set;
+
 @RequestMapping("api/v1/digitalUsers")
 @Validated
 @Tag(name = "Digital Users", description = "Digital user management operations")
@@ -47,7 +51,8 @@ public interface DigitalUserRestApi {
     )
     @Operation(
             summary = "Find a digital user by ID",
-            description = "Returns a digital user based on the provided ID"
+            description = "Returns a digital user based on the provided ID, with personal information, " +
+                    "contact mediums and assets only when listed in expand"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Digital user found",
@@ -56,17 +61,22 @@ public interface DigitalUserRestApi {
     })
     ResponseEntity<DigitalUser> findById(
             @Parameter(description = "Digital user ID", required = true)
-            @PathVariable @Pattern(regexp = Constants.ID_REGEX, message = Constants.ID_INVALID_MSG) String id
+            @PathVariable @Pattern(regexp = Constants.ID_REGEX, message = Constants.ID_INVALID_MSG) String id,
+
+            @Parameter(description = "Comma separated parts to include: personalInformation, contactMediumList, assets")
+            @RequestParam(required = false) Set<DigitalUser.Expansion> expand
     );
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(
             summary = "Find a digital user by subject, identity provider, and tenant",
-            description = "Returns a digital user based on the provided subject, identity provider, and tenant ID"
+            description = "Returns a digital user based on the provided subject, identity provider, and tenant ID, " +
+                    "never with its assets"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Digital user found",
                     content = @Content(schema = @Schema(implementation = DigitalUser.class))),
+            @ApiResponse(responseCode = "400", description = "Assets requested in expand"),
             @ApiResponse(responseCode = "404", description = "Digital user not found")
     })
     ResponseEntity<DigitalUser> findBySubAndIdPAndTenant(
@@ -78,11 +88,70 @@ public interface DigitalUserRestApi {
             @RequestParam(name = "identityProviderInformation.identityProvider")
             DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
 
+            @Parameter(description = "Tenant identifier", required = true)
+            @RequestParam(name = "identityProviderInformation.tenantId")
+            @Pattern(regexp = Constants.TENANT_ID_REGEX, message = Constants.TENANT_ID_INVALID_MSG) String tenantId,
+
+            @Parameter(description = "Comma separated parts to include: personalInformation, contactMediumList")
+            @RequestParam(required = false) Set<DigitalUser.Expansion> expand
+    );
+
+    @GetMapping(
+            path = "/resolve",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+            summary = "Resolve a digital user ID by subject, identity provider, and tenant",
+            description = "Returns only the ID and timestamps of the digital user with the provided subject, " +
+                    "identity provider, and tenant ID"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Digital user resolved",
+                    content = @Content(schema = @Schema(implementation = BaseObject.class))),
+            @ApiResponse(responseCode = "404", description = "Digital user not found")
+    })
+    ResponseEntity<BaseObject> resolveId(
+            @Parameter(description = "Subject identifier from identity provider", required = true)
+            @RequestParam(name = "identityProviderInformation.subject")
+            @Pattern(regexp = Constants.SUB_REGEX, message = Constants.SUB_INVALID_MSG) String subject,
+
+            @Parameter(description = "Identity provider", required = true)
+            @RequestParam(name = "identityProviderInformation.identityProvider")
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+
             @Parameter(description = "Tenant identifier", required = true)
             @RequestParam(name = "identityProviderInformation.tenantId")
             @Pattern(regexp = Constants.TENANT_ID_REGEX, message = Constants.TENANT_ID_INVALID_MSG) String tenantId
     );
 
+    @GetMapping(
+            path = "/search",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+            summary = "Find digital users by contact",
+            description = "Returns the IDs and identity provider information of the digital users matching exactly " +
+                    "one of the provided email address or phone number, a phone number is matched together with its " +
+                    "country code. Personal information and contact mediums are never returned"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Digital users found"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    ResponseEntity<List<DigitalUser>> findByContact(
+            @Parameter(description = "Email address")
+            @RequestParam(required = false)
+            @Pattern(regexp = Constants.EMAIL_REGEX, message = Constants.EMAIL_INVALID_MSG) String emailAddress,
+
+            @Parameter(description = "Country code of the phone number", example = "+1")
+            @RequestParam(required = false)
+            @Pattern(regexp = Constants.COUNTRY_CODE_REGEX, message = Constants.COUNTRY_CODE_INVALID_MSG) String countryCode,
+
+            @Parameter(description = "Phone number without the country code", example = "555-123-4567")
+            @RequestParam(required = false)
+            @Pattern(regexp = Constants.PHONE_NUMBER_REGEX, message = Constants.PHONE_NUMBER_INVALID_MSG) String phoneNumber
+    );
+
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete a digital user",
@@ -1,20 +1,36 @@
 package com.tracktainment.duxmanager.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.tracktainment.duxmanager.api.AssetRestApi;
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.dto.AssetCreateResult;
 import com.tracktainment.duxmanager.usecases.asset.CreateAssetUseCase;
+import com.tracktainment.duxmanager.usecases.asset.CreateAssetsUseCase;
 import com.tracktainment.duxmanager.usecases.asset.DeleteAssetUseCase;
+import com.tracktainment.duxmanager.usecases.asset.ExportAssetsUseCase;
 import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import com.tracktainment.duxmanager.util.Constants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
@@ -23,8 +39,11 @@ import java.util.List;
 public class AssetRestController implements AssetRestApi {
 
     private final CreateAssetUseCase createAssetUseCase;
+    private final CreateAssetsUseCase createAssetsUseCase;
     private final ListAssetsByCriteriaUseCase listAssetsByCriteriaUseCase;
     private final DeleteAssetUseCase deleteAssetUseCase;
+    private final ExportAssetsUseCase exportAssetsUseCase;
+    private final ObjectMapper objectMapper;
 
     @Override
     public ResponseEntity<Asset> create(String digitalUserId, AssetCreate assetCreate) {
@@ -38,6 +57,18 @@ public class AssetRestController implements AssetRestApi {
         return new ResponseEntity<>(output.getAsset(), HttpStatus.CREATED);
     }
 
+    @Override
+    public ResponseEntity<List<AssetCreateResult>> createAll(String digitalUserId, List<AssetCreate> assetCreates) {
+        log.info("Creating {} assets on digital user {}.", assetCreates.size(), digitalUserId);
+        CreateAssetsUseCase.Input input = CreateAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserId)
+                .assetCreates(assetCreates)
+                .build();
+
+        CreateAssetsUseCase.Output output = createAssetsUseCase.execute(input);
+        return new ResponseEntity<>(output.getResults(), HttpStatus.MULTI_STATUS);
+    }
+
     @Override
     public ResponseEntity<List<Asset>> listByCriteria(
             Integer offset,
@@ -49,7 +80,8 @@ public class AssetRestController implements AssetRestApi {
             String type,
             LocalDate createdAt,
             LocalDate from,
-            LocalDate to
+            LocalDate to,
+            String cursor
     ) {
         ListAssetsByCriteriaUseCase.Input input = ListAssetsByCriteriaUseCase.Input.builder()
                 .offset(offset)
@@ -62,11 +94,39 @@ public class AssetRestController implements AssetRestApi {
                 .createdAt(createdAt)
                 .from(from)
                 .to(to)
+                .cursor(cursor)
                 .build();
 
         log.info("Listing assets by criteria: {}", input);
         ListAssetsByCriteriaUseCase.Output output = listAssetsByCriteriaUseCase.execute(input);
-        return new ResponseEntity<>(output.getAssets(), HttpStatus.OK);
+
+        HttpHeaders headers = new HttpHeaders();
+        if (output.getNextCursor() != null) {
+            headers.set(Constants.NEXT_CURSOR_HEADER, output.getNextCursor());
+        }
+
+        return new ResponseEntity<>(output.getAssets(), headers, HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> export(String digitalUserId) {
+        log.info("Exporting assets of digital user {}.", digitalUserId);
+        ExportAssetsUseCase.Input input = ExportAssetsUseCase.Input.builder()
+                .digitalUserId(digitalUserId)
+                .build();
+
+        // Runs before the response is committed, so authentication and not found errors still map to a status
+        ExportAssetsUseCase.Output output = exportAssetsUseCase.execute(input);
+
+        // The cursor is opened on the streaming thread and closed there however the write ends
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<Asset> assets = output.getAssets().get()) {
+                writeNdjson(assets, outputStream);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @Override
@@ -80,4 +140,20 @@ public class AssetRestController implements AssetRestApi {
         deleteAssetUseCase.execute(input);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    // Blocking writes only pull the next asset once the client has taken the previous ones, the cursor follows its pace
+    private void writeNdjson(Stream<Asset> assets, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Asset.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // Lines are terminated explicitly
+            Iterator<Asset> iterator = assets.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
 }
@@ -1,12 +1,15 @@
 package com.tracktainment.duxmanager.controller;
 
 import com.tracktainment.duxmanager.api.DigitalUserRestApi;
+import com.tracktainment.duxmanager.domain.BaseObject;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import com.tracktainment.duxmanager.dto.DigitalUserCreate;
 import com.tracktainment.duxmanager.usecases.digitaluser.CreateDigitalUserUseCase;
 import com.tracktainment.duxmanager.usecases.digitaluser.DeleteDigitalUserUseCase;
 import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUserByIdUseCase;
 import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUserBySubAndIdPAndTenantUseCase;
+import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUsersByContactUseCase;
+import com.tracktainment.duxmanager.usecases.digitaluser.ResolveDigitalUserIdUseCase;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -14,6 +17,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Set;
+
 @RestController
 @RequiredArgsConstructor
 @Validated
@@ -23,6 +29,8 @@ public class DigitalUserRestController implements DigitalUserRestApi {
     private final CreateDigitalUserUseCase createDigitalUserUseCase;
     private final FindDigitalUserByIdUseCase findDigitalUserByIdUseCase;
     private final FindDigitalUserBySubAndIdPAndTenantUseCase findDigitalUserBySubAndIdPAndTenantUseCase;
+    private final FindDigitalUsersByContactUseCase findDigitalUsersByContactUseCase;
+    private final ResolveDigitalUserIdUseCase resolveDigitalUserIdUseCase;
     private final DeleteDigitalUserUseCase deleteDigitalUserUseCase;
 
     @Override
@@ -37,10 +45,11 @@ public class DigitalUserRestController implements DigitalUserRestApi {
     }
 
     @Override
-    public ResponseEntity<DigitalUser> findById(String id) {
-        log.info("Finding digital user by id: {}", id);
+    public ResponseEntity<DigitalUser> findById(String id, Set<DigitalUser.Expansion> expand) {
+        log.info("Finding digital user by id: {}, expanding: {}", id, expand);
         FindDigitalUserByIdUseCase.Input input = FindDigitalUserByIdUseCase.Input.builder()
                 .digitalUserId(id)
+                .expansions(expand)
                 .build();
 
         FindDigitalUserByIdUseCase.Output output = findDigitalUserByIdUseCase.execute(input);
@@ -51,7 +60,8 @@ public class DigitalUserRestController implements DigitalUserRestApi {
     public ResponseEntity<DigitalUser> findBySubAndIdPAndTenant(
             String subject,
             DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
-            String tenantId
+            String tenantId,
+            Set<DigitalUser.Expansion> expand
     ) {
         log.info(
                 "Finding digital user by subject: {}, identity provider: {} and tenant ID: {}",
@@ -65,6 +75,7 @@ public class DigitalUserRestController implements DigitalUserRestApi {
                 .subject(subject)
                 .identityProvider(identityProvider)
                 .tenantId(tenantId)
+                .expansions(expand)
                 .build();
 
         FindDigitalUserBySubAndIdPAndTenantUseCase.Output output =
@@ -73,6 +84,43 @@ public class DigitalUserRestController implements DigitalUserRestApi {
         return new ResponseEntity<>(output.getDigitalUser(), HttpStatus.OK);
     }
 
+    @Override
+    public ResponseEntity<BaseObject> resolveId(
+            String subject,
+            DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider,
+            String tenantId
+    ) {
+        log.info(
+                "Resolving digital user ID by subject: {}, identity provider: {} and tenant ID: {}",
+                subject,
+                identityProvider,
+                tenantId
+        );
+
+        ResolveDigitalUserIdUseCase.Input input = ResolveDigitalUserIdUseCase.Input.builder()
+                .subject(subject)
+                .identityProvider(identityProvider)
+                .tenantId(tenantId)
+                .build();
+
+        ResolveDigitalUserIdUseCase.Output output = resolveDigitalUserIdUseCase.execute(input);
+        return new ResponseEntity<>(output.getDigitalUser(), HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<List<DigitalUser>> findByContact(String emailAddress, String countryCode, String phoneNumber) {
+        // Contact values are PII, only the kind of lookup is logged
+        log.info("Finding digital users by {}", emailAddress != null ? "email address" : "phone number");
+        FindDigitalUsersByContactUseCase.Input input = FindDigitalUsersByContactUseCase.Input.builder()
+                .emailAddress(emailAddress)
+                .countryCode(countryCode)
+                .phoneNumber(phoneNumber)
+                .build();
+
+        FindDigitalUsersByContactUseCase.Output output = findDigitalUsersByContactUseCase.execute(input);
+        return new ResponseEntity<>(output.getDigitalUsers(), HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<Void> delete(String id) {
         log.info("Deleting digital user by id: {}", id);
@@ -0,0 +1,24 @@
+package com.tracktainment.duxmanager.converter;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import com.tracktainment.duxmanager.domain.DigitalUser.Expansion;
+
+@Component
+public class StringToExpansionConverter implements Converter<String, Expansion> {
+
+    @Override
+    public Expansion convert(String source) {
+        if (source == null || source.isEmpty()) {
+            return null;
+        }
+
+        for (Expansion expansion : Expansion.values()) {
+            if (expansion.getValue().equals(source)) {
+                return expansion;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid expand value: " + source);
+    }
+}
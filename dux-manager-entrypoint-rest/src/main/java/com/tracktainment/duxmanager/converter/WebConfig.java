@@ -10,5 +10,6 @@ public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(new StringToIdentityProviderConverter());
+        registry.addConverter(new StringToExpansionConverter());
     }
 }
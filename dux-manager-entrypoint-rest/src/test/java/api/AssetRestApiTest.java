@@ -4,14 +4,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tracktainment.duxmanager.controller.AssetRestController;
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.dto.AssetCreateResult;
 import com.tracktainment.duxmanager.exception.AuthenticationFailedException;
 import com.tracktainment.duxmanager.exception.ExceptionDto;
 import com.tracktainment.duxmanager.exception.RestExceptionHandler;
 import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
 import com.tracktainment.duxmanager.mapper.ExceptionMapperEntryPoint;
 import com.tracktainment.duxmanager.usecases.asset.CreateAssetUseCase;
+import com.tracktainment.duxmanager.usecases.asset.CreateAssetsUseCase;
 import com.tracktainment.duxmanager.usecases.asset.DeleteAssetUseCase;
+import com.tracktainment.duxmanager.usecases.asset.ExportAssetsUseCase;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
 import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import com.tracktainment.duxmanager.util.Constants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,13 +36,17 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import testutil.TestAssetDataUtil;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -96,12 +105,18 @@ class AssetRestApiTest {
     @MockBean
     private CreateAssetUseCase createAssetUseCase;
 
+    @MockBean
+    private CreateAssetsUseCase createAssetsUseCase;
+
     @MockBean
     private ListAssetsByCriteriaUseCase listAssetsByCriteriaUseCase;
 
     @MockBean
     private DeleteAssetUseCase deleteAssetUseCase;
 
+    @MockBean
+    private ExportAssetsUseCase exportAssetsUseCase;
+
     private final String digitalUserId = UUID.randomUUID().toString();
 
     private AssetCreate assetCreate;
@@ -137,6 +152,43 @@ class AssetRestApiTest {
         verify(createAssetUseCase).execute(any(CreateAssetUseCase.Input.class));
     }
 
+    @Test
+    @WithMockUser
+    void shouldReportOutcomeOfEachBulkItem() throws Exception {
+        // Arrange
+        List<AssetCreateResult> results = List.of(
+                AssetCreateResult.builder()
+                        .index(0)
+                        .externalId(asset.getExternalId())
+                        .httpStatusCode(201)
+                        .asset(asset)
+                        .build(),
+                AssetCreateResult.builder()
+                        .index(1)
+                        .externalId(asset.getExternalId())
+                        .httpStatusCode(400)
+                        .code("E-007")
+                        .message(Constants.EXTERNAL_ID_DUPLICATED_MSG)
+                        .build()
+        );
+
+        when(createAssetsUseCase.execute(any(CreateAssetsUseCase.Input.class)))
+                .thenReturn(CreateAssetsUseCase.Output.builder().results(results).build());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/assets/digitalUsers/{digitalUserId}/batch", digitalUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(assetCreate, assetCreate))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$[0].httpStatusCode").value(201))
+                .andExpect(jsonPath("$[0].asset.id").value(asset.getId()))
+                .andExpect(jsonPath("$[1].httpStatusCode").value(400))
+                .andExpect(jsonPath("$[1].code").value("E-007"))
+                .andExpect(jsonPath("$[1].asset").doesNotExist());
+
+        verify(createAssetsUseCase).execute(argThat(input -> input.getAssetCreates().size() == 2));
+    }
+
     @Test
     @WithMockUser
     void shouldListAssetsByCriteriaSuccessfully() throws Exception {
@@ -147,6 +199,7 @@ class AssetRestApiTest {
 
         ListAssetsByCriteriaUseCase.Output output = ListAssetsByCriteriaUseCase.Output.builder()
                 .assets(assets)
+                .nextCursor("bmV4dA")
                 .build();
 
         when(listAssetsByCriteriaUseCase.execute(any(ListAssetsByCriteriaUseCase.Input.class)))
@@ -157,6 +210,7 @@ class AssetRestApiTest {
                         .param("digitalUserId", digitalUserId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(Constants.NEXT_CURSOR_HEADER, "bmV4dA"))
                 .andExpect(jsonPath("$[0].id").value(asset1.getId()))
                 .andExpect(jsonPath("$[0].type").value("book"))
                 .andExpect(jsonPath("$[1].id").value(asset2.getId()))
@@ -165,6 +219,64 @@ class AssetRestApiTest {
         verify(listAssetsByCriteriaUseCase).execute(any(ListAssetsByCriteriaUseCase.Input.class));
     }
 
+    @Test
+    @WithMockUser
+    void shouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+        // Arrange
+        when(listAssetsByCriteriaUseCase.execute(any(ListAssetsByCriteriaUseCase.Input.class)))
+                .thenThrow(new ParameterValidationErrorException(Constants.CURSOR_INVALID_MSG));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/assets")
+                        .param("digitalUserId", digitalUserId)
+                        .param("cursor", "bm90LWEtY3Vyc29y"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldExportAssetsAsNdjson() throws Exception {
+        // Arrange
+        Asset asset1 = TestAssetDataUtil.createTestAsset1();
+        Asset asset2 = TestAssetDataUtil.createTestAsset2();
+
+        when(exportAssetsUseCase.execute(any(ExportAssetsUseCase.Input.class)))
+                .thenReturn(ExportAssetsUseCase.Output.builder().assets(() -> Stream.of(asset1, asset2)).build());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/assets/export")
+                        .param("digitalUserId", digitalUserId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals(asset1.getId(), objectMapper.readValue(lines[0], Asset.class).getId());
+        assertEquals(asset2.getId(), objectMapper.readValue(lines[1], Asset.class).getId());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturnNotFoundBeforeStreamingWhenDigitalUserDoesNotExist() throws Exception {
+        // Arrange
+        when(exportAssetsUseCase.execute(any(ExportAssetsUseCase.Input.class)))
+                .thenThrow(new ResourceNotFoundException(Asset.class, digitalUserId));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/assets/export")
+                        .param("digitalUserId", digitalUserId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("E-002"));
+    }
+
     @Test
     @WithMockUser
     void shouldDeleteAssetSuccessfully() throws Exception {
@@ -2,18 +2,24 @@ package api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tracktainment.duxmanager.controller.DigitalUserRestController;
+import com.tracktainment.duxmanager.converter.StringToExpansionConverter;
 import com.tracktainment.duxmanager.converter.StringToIdentityProviderConverter;
 import com.tracktainment.duxmanager.converter.WebConfig;
+import com.tracktainment.duxmanager.domain.BaseObject;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import com.tracktainment.duxmanager.dto.DigitalUserCreate;
 import com.tracktainment.duxmanager.exception.ExceptionDto;
+import com.tracktainment.duxmanager.exception.ParameterValidationErrorException;
 import com.tracktainment.duxmanager.exception.ResourceNotFoundException;
 import com.tracktainment.duxmanager.exception.RestExceptionHandler;
 import com.tracktainment.duxmanager.mapper.ExceptionMapperEntryPoint;
 import com.tracktainment.duxmanager.usecases.digitaluser.CreateDigitalUserUseCase;
+import com.tracktainment.duxmanager.util.Constants;
 import com.tracktainment.duxmanager.usecases.digitaluser.DeleteDigitalUserUseCase;
 import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUserByIdUseCase;
 import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUserBySubAndIdPAndTenantUseCase;
+import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUsersByContactUseCase;
+import com.tracktainment.duxmanager.usecases.digitaluser.ResolveDigitalUserIdUseCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +41,9 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import testutil.TestDigitalUserDataUtil;
 
+import java.util.List;
+import java.util.Set;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.config.Customizer.withDefaults;
@@ -49,7 +58,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         DigitalUserRestController.class,
         RestExceptionHandler.class,
         WebConfig.class,
-        StringToIdentityProviderConverter.class
+        StringToIdentityProviderConverter.class,
+        StringToExpansionConverter.class
 })
 class DigitalUserRestApiTest {
 
@@ -102,9 +112,15 @@ class DigitalUserRestApiTest {
     @MockBean
     private FindDigitalUserBySubAndIdPAndTenantUseCase findDigitalUserBySubAndIdPAndTenantUseCase;
 
+    @MockBean
+    private FindDigitalUsersByContactUseCase findDigitalUsersByContactUseCase;
+
     @MockBean
     private DeleteDigitalUserUseCase deleteDigitalUserUseCase;
 
+    @MockBean
+    private ResolveDigitalUserIdUseCase resolveDigitalUserIdUseCase;
+
     private DigitalUserCreate digitalUserCreate;
     private DigitalUser digitalUser;
 
@@ -160,6 +176,26 @@ class DigitalUserRestApiTest {
         verify(findDigitalUserByIdUseCase).execute(any(FindDigitalUserByIdUseCase.Input.class));
     }
 
+    @Test
+    @WithMockUser
+    void shouldPassRequestedExpansionsToFindById() throws Exception {
+        // Arrange
+        FindDigitalUserByIdUseCase.Output output = FindDigitalUserByIdUseCase.Output.builder()
+                .digitalUser(digitalUser)
+                .build();
+
+        when(findDigitalUserByIdUseCase.execute(any(FindDigitalUserByIdUseCase.Input.class)))
+                .thenReturn(output);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/digitalUsers/{id}", digitalUser.getId())
+                        .param("expand", "personalInformation,assets"))
+                .andExpect(status().isOk());
+
+        verify(findDigitalUserByIdUseCase).execute(argThat(input -> input.getExpansions().equals(
+                Set.of(DigitalUser.Expansion.PERSONAL_INFORMATION, DigitalUser.Expansion.ASSETS))));
+    }
+
     @Test
     @WithMockUser
     void shouldFindDigitalUserBySubAndIdPAndTenantSuccessfully() throws Exception {
@@ -196,6 +232,99 @@ class DigitalUserRestApiTest {
         verify(findDigitalUserBySubAndIdPAndTenantUseCase).execute(any(FindDigitalUserBySubAndIdPAndTenantUseCase.Input.class));
     }
 
+    @Test
+    @WithMockUser
+    void shouldResolveDigitalUserIdWithoutPersonalData() throws Exception {
+        // Arrange
+        ResolveDigitalUserIdUseCase.Output output = ResolveDigitalUserIdUseCase.Output.builder()
+                .digitalUser(BaseObject.builder()
+                        .id(digitalUser.getId())
+                        .createdAt(digitalUser.getCreatedAt())
+                        .updatedAt(digitalUser.getUpdatedAt())
+                        .build())
+                .build();
+
+        when(resolveDigitalUserIdUseCase.execute(any(ResolveDigitalUserIdUseCase.Input.class))).thenReturn(output);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/digitalUsers/resolve")
+                        .param(
+                                "identityProviderInformation.subject",
+                                digitalUser.getIdentityProviderInformation().getSubject()
+                        )
+                        .param(
+                                "identityProviderInformation.identityProvider",
+                                digitalUser.getIdentityProviderInformation().getIdentityProvider().getValue()
+                        )
+                        .param(
+                                "identityProviderInformation.tenantId",
+                                digitalUser.getIdentityProviderInformation().getTenantId()
+                        ))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(digitalUser.getId()))
+                .andExpect(jsonPath("$.identityProviderInformation").doesNotExist())
+                .andExpect(jsonPath("$.personalInformation").doesNotExist());
+
+        verify(resolveDigitalUserIdUseCase).execute(argThat(input ->
+                input.getSubject().equals(digitalUser.getIdentityProviderInformation().getSubject()) &&
+                        input.getIdentityProvider() == digitalUser.getIdentityProviderInformation().getIdentityProvider() &&
+                        input.getTenantId().equals(digitalUser.getIdentityProviderInformation().getTenantId())));
+        verifyNoInteractions(findDigitalUserByIdUseCase);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldFindDigitalUsersByContactSuccessfully() throws Exception {
+        // Arrange
+        FindDigitalUsersByContactUseCase.Output output = FindDigitalUsersByContactUseCase.Output.builder()
+                .digitalUsers(List.of(digitalUser))
+                .build();
+
+        when(findDigitalUsersByContactUseCase.execute(any(FindDigitalUsersByContactUseCase.Input.class)))
+                .thenReturn(output);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/digitalUsers/search")
+                        .param("emailAddress", "john.doe@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(digitalUser.getId()));
+
+        verify(findDigitalUsersByContactUseCase).execute(any(FindDigitalUsersByContactUseCase.Input.class));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldPassCountryCodeAndPhoneNumberSeparately() throws Exception {
+        // Arrange
+        when(findDigitalUsersByContactUseCase.execute(any(FindDigitalUsersByContactUseCase.Input.class)))
+                .thenReturn(FindDigitalUsersByContactUseCase.Output.builder().digitalUsers(List.of()).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/digitalUsers/search")
+                        .param("countryCode", "+1")
+                        .param("phoneNumber", "555-123-4567"))
+                .andExpect(status().isOk());
+
+        verify(findDigitalUsersByContactUseCase).execute(argThat(input ->
+                "+1".equals(input.getCountryCode()) && "555-123-4567".equals(input.getPhoneNumber())));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturnBadRequestWhenNoContactIsProvided() throws Exception {
+        // Arrange
+        when(findDigitalUsersByContactUseCase.execute(any(FindDigitalUsersByContactUseCase.Input.class)))
+                .thenThrow(new ParameterValidationErrorException(Constants.CONTACT_SEARCH_INVALID_MSG));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/digitalUsers/search"))
+                .andExpect(status().isBadRequest());
+
+        verify(findDigitalUsersByContactUseCase).execute(any(FindDigitalUsersByContactUseCase.Input.class));
+    }
+
     @Test
     @WithMockUser
     void shouldDeleteDigitalUserSuccessfully() throws Exception {
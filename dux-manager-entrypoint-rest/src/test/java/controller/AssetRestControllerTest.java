@@ -1,25 +1,39 @@
 package controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tracktainment.duxmanager.controller.AssetRestController;
 import com.tracktainment.duxmanager.domain.Asset;
 import com.tracktainment.duxmanager.dto.AssetCreate;
+import com.tracktainment.duxmanager.dto.AssetCreateResult;
 import com.tracktainment.duxmanager.usecases.asset.CreateAssetUseCase;
+import com.tracktainment.duxmanager.usecases.asset.CreateAssetsUseCase;
 import com.tracktainment.duxmanager.usecases.asset.DeleteAssetUseCase;
+import com.tracktainment.duxmanager.usecases.asset.ExportAssetsUseCase;
 import com.tracktainment.duxmanager.usecases.asset.ListAssetsByCriteriaUseCase;
+import com.tracktainment.duxmanager.util.Constants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import testutil.TestAssetDataUtil;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,12 +45,21 @@ class AssetRestControllerTest {
     @Mock
     private CreateAssetUseCase createAssetUseCase;
 
+    @Mock
+    private CreateAssetsUseCase createAssetsUseCase;
+
     @Mock
     private ListAssetsByCriteriaUseCase listAssetsByCriteriaUseCase;
 
     @Mock
     private DeleteAssetUseCase deleteAssetUseCase;
 
+    @Mock
+    private ExportAssetsUseCase exportAssetsUseCase;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private AssetRestController assetRestController;
 
@@ -74,6 +97,32 @@ class AssetRestControllerTest {
         verify(createAssetUseCase).execute(any(CreateAssetUseCase.Input.class));
     }
 
+    @Test
+    void shouldCreateAssetsInBulkWithMultiStatus() {
+        // Arrange
+        List<AssetCreate> assetCreates = List.of(assetCreate);
+        List<AssetCreateResult> results = List.of(AssetCreateResult.builder()
+                .index(0)
+                .externalId(asset.getExternalId())
+                .httpStatusCode(201)
+                .asset(asset)
+                .build());
+
+        when(createAssetsUseCase.execute(any(CreateAssetsUseCase.Input.class)))
+                .thenReturn(CreateAssetsUseCase.Output.builder().results(results).build());
+
+        // Act
+        ResponseEntity<List<AssetCreateResult>> response = assetRestController.createAll(digitalUserId, assetCreates);
+
+        // Assert
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        assertEquals(results, response.getBody());
+
+        verify(createAssetsUseCase).execute(argThat(input ->
+                input.getDigitalUserId().equals(digitalUserId) &&
+                        input.getAssetCreates().equals(assetCreates)));
+    }
+
     @Test
     void shouldListAssetsByCriteriaSuccessfully() {
         // Arrange
@@ -99,6 +148,7 @@ class AssetRestControllerTest {
                 null,
                 null,
                 null,
+                null,
                 null
         );
 
@@ -111,6 +161,90 @@ class AssetRestControllerTest {
         verify(listAssetsByCriteriaUseCase).execute(any(ListAssetsByCriteriaUseCase.Input.class));
     }
 
+    @Test
+    void shouldReturnNextCursorHeader() {
+        // Arrange
+        ListAssetsByCriteriaUseCase.Output output = ListAssetsByCriteriaUseCase.Output.builder()
+                .assets(List.of(TestAssetDataUtil.createTestAsset1()))
+                .nextCursor("next-page")
+                .build();
+
+        when(listAssetsByCriteriaUseCase.execute(any(ListAssetsByCriteriaUseCase.Input.class)))
+                .thenReturn(output);
+
+        // Act
+        ResponseEntity<List<Asset>> response = assetRestController.listByCriteria(
+                0, 1, digitalUserId, null, null, null, null, null, null, null, "this-page");
+
+        // Assert
+        assertEquals("next-page", response.getHeaders().getFirst(Constants.NEXT_CURSOR_HEADER));
+        verify(listAssetsByCriteriaUseCase).execute(argThat(input -> "this-page".equals(input.getCursor())));
+    }
+
+    @Test
+    void shouldExportAssetsAsNdjsonAndCloseStream() throws Exception {
+        // Arrange
+        Asset asset1 = TestAssetDataUtil.createTestAsset1();
+        Asset asset2 = TestAssetDataUtil.createTestAsset2();
+        AtomicBoolean opened = new AtomicBoolean();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        ExportAssetsUseCase.Output output = ExportAssetsUseCase.Output.builder()
+                .assets(() -> {
+                    opened.set(true);
+                    return Stream.of(asset1, asset2).onClose(() -> closed.set(true));
+                })
+                .build();
+
+        when(exportAssetsUseCase.execute(any(ExportAssetsUseCase.Input.class)))
+                .thenReturn(output);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = assetRestController.export(digitalUserId);
+        assertFalse(opened.get());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals(asset1.getId(), objectMapper.readValue(lines[0], Asset.class).getId());
+        assertEquals(asset2.getId(), objectMapper.readValue(lines[1], Asset.class).getId());
+        assertEquals("", lines[2]);
+        assertTrue(closed.get());
+
+        verify(exportAssetsUseCase).execute(argThat(input -> input.getDigitalUserId().equals(digitalUserId)));
+    }
+
+    @Test
+    void shouldCloseExportStreamWhenClientDisconnects() {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        ExportAssetsUseCase.Output output = ExportAssetsUseCase.Output.builder()
+                .assets(() -> Stream.of(TestAssetDataUtil.createTestAsset1()).onClose(() -> closed.set(true)))
+                .build();
+
+        when(exportAssetsUseCase.execute(any(ExportAssetsUseCase.Input.class)))
+                .thenReturn(output);
+
+        OutputStream brokenOutputStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = assetRestController.export(digitalUserId);
+
+        // Assert
+        assertThrows(IOException.class, () -> response.getBody().writeTo(brokenOutputStream));
+        assertTrue(closed.get());
+    }
+
     @Test
     void shouldDeleteAssetSuccessfully() {
         // Arrange
@@ -168,7 +302,7 @@ class AssetRestControllerTest {
 
         // Act
         assetRestController.listByCriteria(offset, limit, digitalUserId, externalIds,
-                groupId, artifactId, type, createdAt, from, to);
+                groupId, artifactId, type, createdAt, from, to, null);
 
         // Assert
         verify(listAssetsByCriteriaUseCase).execute(argThat(input ->
@@ -1,12 +1,15 @@
 package controller;
 
 import com.tracktainment.duxmanager.controller.DigitalUserRestController;
+import com.tracktainment.duxmanager.domain.BaseObject;
 import com.tracktainment.duxmanager.domain.DigitalUser;
 import com.tracktainment.duxmanager.dto.DigitalUserCreate;
 import com.tracktainment.duxmanager.usecases.digitaluser.CreateDigitalUserUseCase;
 import com.tracktainment.duxmanager.usecases.digitaluser.DeleteDigitalUserUseCase;
 import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUserByIdUseCase;
 import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUserBySubAndIdPAndTenantUseCase;
+import com.tracktainment.duxmanager.usecases.digitaluser.FindDigitalUsersByContactUseCase;
+import com.tracktainment.duxmanager.usecases.digitaluser.ResolveDigitalUserIdUseCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +20,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import testutil.TestDigitalUserDataUtil;
 
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -33,9 +39,15 @@ class DigitalUserRestControllerTest {
     @Mock
     private FindDigitalUserBySubAndIdPAndTenantUseCase findDigitalUserBySubAndIdPAndTenantUseCase;
 
+    @Mock
+    private FindDigitalUsersByContactUseCase findDigitalUsersByContactUseCase;
+
     @Mock
     private DeleteDigitalUserUseCase deleteDigitalUserUseCase;
 
+    @Mock
+    private ResolveDigitalUserIdUseCase resolveDigitalUserIdUseCase;
+
     @InjectMocks
     private DigitalUserRestController digitalUserRestController;
 
@@ -80,7 +92,7 @@ class DigitalUserRestControllerTest {
                 .thenReturn(output);
 
         // Act
-        ResponseEntity<DigitalUser> response = digitalUserRestController.findById(digitalUser.getId());
+        ResponseEntity<DigitalUser> response = digitalUserRestController.findById(digitalUser.getId(), null);
 
         // Assert
         assertNotNull(response);
@@ -108,7 +120,7 @@ class DigitalUserRestControllerTest {
 
         // Act
         ResponseEntity<DigitalUser> response = digitalUserRestController.findBySubAndIdPAndTenant(
-                subject, identityProvider, tenantId);
+                subject, identityProvider, tenantId, null);
 
         // Assert
         assertNotNull(response);
@@ -118,6 +130,61 @@ class DigitalUserRestControllerTest {
         verify(findDigitalUserBySubAndIdPAndTenantUseCase).execute(any(FindDigitalUserBySubAndIdPAndTenantUseCase.Input.class));
     }
 
+    @Test
+    void shouldResolveDigitalUserIdSuccessfully() {
+        // Arrange
+        String subject = "auth2|123456";
+        DigitalUser.IdentityProviderInformation.IdentityProvider identityProvider =
+                DigitalUser.IdentityProviderInformation.IdentityProvider.KEY_CLOAK;
+        String tenantId = "tenant1";
+        BaseObject resolved = BaseObject.builder()
+                .id(digitalUser.getId())
+                .createdAt(digitalUser.getCreatedAt())
+                .updatedAt(digitalUser.getUpdatedAt())
+                .build();
+
+        ResolveDigitalUserIdUseCase.Output output = ResolveDigitalUserIdUseCase.Output.builder()
+                .digitalUser(resolved)
+                .build();
+
+        when(resolveDigitalUserIdUseCase.execute(any(ResolveDigitalUserIdUseCase.Input.class))).thenReturn(output);
+
+        // Act
+        ResponseEntity<BaseObject> response = digitalUserRestController.resolveId(subject, identityProvider, tenantId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(resolved, response.getBody());
+        verify(resolveDigitalUserIdUseCase).execute(argThat(input ->
+                input.getSubject().equals(subject) &&
+                        input.getIdentityProvider().equals(identityProvider) &&
+                        input.getTenantId().equals(tenantId)));
+        verifyNoInteractions(findDigitalUserBySubAndIdPAndTenantUseCase);
+    }
+
+    @Test
+    void shouldFindDigitalUsersByContactSuccessfully() {
+        // Arrange
+        FindDigitalUsersByContactUseCase.Output output = FindDigitalUsersByContactUseCase.Output.builder()
+                .digitalUsers(List.of(digitalUser))
+                .build();
+
+        when(findDigitalUsersByContactUseCase.execute(any(FindDigitalUsersByContactUseCase.Input.class)))
+                .thenReturn(output);
+
+        // Act
+        ResponseEntity<List<DigitalUser>> response =
+                digitalUserRestController.findByContact("john.doe@example.com", null, null);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(digitalUser), response.getBody());
+
+        verify(findDigitalUsersByContactUseCase).execute(argThat(input ->
+                input.getEmailAddress().equals("john.doe@example.com") && input.getPhoneNumber() == null));
+    }
+
     @Test
     void shouldDeleteDigitalUserSuccessfully() {
         // Arrange
@@ -163,11 +230,12 @@ class DigitalUserRestControllerTest {
                 .thenReturn(output);
 
         // Act
-        digitalUserRestController.findById(digitalUser.getId());
+        digitalUserRestController.findById(digitalUser.getId(), Set.of(DigitalUser.Expansion.ASSETS));
 
         // Assert
         verify(findDigitalUserByIdUseCase).execute(argThat(input ->
-                input.getDigitalUserId().equals(digitalUser.getId())));
+                input.getDigitalUserId().equals(digitalUser.getId()) &&
+                        input.getExpansions().equals(Set.of(DigitalUser.Expansion.ASSETS))));
     }
 
     @Test
@@ -186,13 +254,15 @@ class DigitalUserRestControllerTest {
                 .thenReturn(output);
 
         // Act
-        digitalUserRestController.findBySubAndIdPAndTenant(subject, identityProvider, tenantId);
+        digitalUserRestController.findBySubAndIdPAndTenant(
+                subject, identityProvider, tenantId, Set.of(DigitalUser.Expansion.PERSONAL_INFORMATION));
 
         // Assert
         verify(findDigitalUserBySubAndIdPAndTenantUseCase).execute(argThat(input ->
                 input.getSubject().equals(subject) &&
                         input.getIdentityProvider().equals(identityProvider) &&
-                        input.getTenantId().equals(tenantId)));
+                        input.getTenantId().equals(tenantId) &&
+                        input.getExpansions().equals(Set.of(DigitalUser.Expansion.PERSONAL_INFORMATION))));
     }
 
     @Test
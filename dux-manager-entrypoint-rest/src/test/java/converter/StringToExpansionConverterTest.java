@@ -0,0 +1,53 @@
+package converter;
+
+import com.tracktainment.duxmanager.converter.StringToExpansionConverter;
+import com.tracktainment.duxmanager.domain.DigitalUser.Expansion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringToExpansionConverterTest {
+
+    private final StringToExpansionConverter converter = new StringToExpansionConverter();
+
+    @ParameterizedTest
+    @MethodSource("provideValidValues")
+    void shouldConvertValidStringToExpansion(String value, Expansion expected) {
+        // Act
+        Expansion result = converter.convert(value);
+
+        // Assert
+        assertEquals(expected, result);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    void shouldReturnNullForNullOrEmptyString(String value) {
+        // Act
+        Expansion result = converter.convert(value);
+
+        // Assert
+        assertNull(result);
+    }
+
+    @Test
+    void shouldThrowExceptionForInvalidValue() {
+        // Act & Assert
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> converter.convert("ASSETS"));
+        assertEquals("Invalid expand value: ASSETS", exception.getMessage());
+    }
+
+    private static Stream<Arguments> provideValidValues() {
+        return Stream.of(
+                Arguments.of("personalInformation", Expansion.PERSONAL_INFORMATION),
+                Arguments.of("contactMediumList", Expansion.CONTACT_MEDIUM_LIST),
+                Arguments.of("assets", Expansion.ASSETS)
+        );
+    }
+}
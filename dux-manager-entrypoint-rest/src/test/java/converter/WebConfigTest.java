@@ -1,5 +1,6 @@
 package converter;
 
+import com.tracktainment.duxmanager.converter.StringToExpansionConverter;
 import com.tracktainment.duxmanager.converter.StringToIdentityProviderConverter;
 import com.tracktainment.duxmanager.converter.WebConfig;
 import org.junit.jupiter.api.Test;
@@ -12,7 +13,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.format.FormatterRegistry;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,14 +32,16 @@ class WebConfigTest {
     private ArgumentCaptor<Converter<?, ?>> converterCaptor;
 
     @Test
-    void shouldRegisterIdentityProviderConverter() {
+    void shouldRegisterRequestParameterConverters() {
         // Act
         webConfig.addFormatters(registry);
 
         // Assert
-        verify(registry).addConverter(converterCaptor.capture());
-        Converter<?, ?> registeredConverter = converterCaptor.getValue();
-        assertTrue(registeredConverter instanceof StringToIdentityProviderConverter,
+        verify(registry, times(2)).addConverter(converterCaptor.capture());
+        List<Converter<?, ?>> registeredConverters = converterCaptor.getAllValues();
+        assertTrue(registeredConverters.get(0) instanceof StringToIdentityProviderConverter,
                 "Expected StringToIdentityProviderConverter to be registered");
+        assertTrue(registeredConverters.get(1) instanceof StringToExpansionConverter,
+                "Expected StringToExpansionConverter to be registered");
     }
 }